@@ -32,18 +32,40 @@ public class ASTAnnotation extends AbstractApexNode<Annotation> {
 
         if (hasImageEqualTo("SuppressWarnings")) {
             for (ASTAnnotationParameter param : findChildrenOfType(ASTAnnotationParameter.class)) {
-                String image = param.getImage();
+                Set<String> paramValues = getValues(param);
+                if (paramValues.contains("PMD") || paramValues.contains(ruleAnno) || paramValues.contains("all")) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
 
-                if (image != null) {
-                    Set<String> paramValues = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
-                    paramValues.addAll(Arrays.asList(image.replaceAll("\\s+", "").split(",")));
-                    if (paramValues.contains("PMD") || paramValues.contains(ruleAnno) || paramValues.contains("all")) {
+    /**
+     * Returns true if this annotation may suppress some rules, see
+     * {@link #suppresses(Rule)}.
+     */
+    /* package */ boolean maySuppressRules() {
+        if (hasImageEqualTo("SuppressWarnings")) {
+            for (ASTAnnotationParameter param : findChildrenOfType(ASTAnnotationParameter.class)) {
+                for (String value : getValues(param)) {
+                    if ("PMD".equalsIgnoreCase(value) || "all".equalsIgnoreCase(value)
+                            || value.regionMatches(true, 0, "PMD.", 0, 4)) {
                         return true;
                     }
                 }
             }
         }
-
         return false;
     }
+
+    private static Set<String> getValues(ASTAnnotationParameter param) {
+        Set<String> paramValues = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        String image = param.getImage();
+        if (image != null) {
+            paramValues.addAll(Arrays.asList(image.replaceAll("\\s+", "").split(",")));
+        }
+        return paramValues;
+    }
 }
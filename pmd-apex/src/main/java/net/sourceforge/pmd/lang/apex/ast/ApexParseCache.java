@@ -0,0 +1,105 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.apex.ast;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sourceforge.pmd.lang.ast.SourceCodePositioner;
+
+import apex.jorje.semantic.ast.compilation.Compilation;
+
+/**
+ * Cache of the Jorje compilations of the Apex sources, keyed by the SHA-256
+ * hash of the source code, so that the sources analyzed again in the same
+ * process, e.g. by another rule set, are not compiled again. The cached
+ * compilations are shared by the threads, the tree builder traverses a
+ * compilation with the lock of its entry held.
+ *
+ * <p>The cache is disabled by default. Its size, in number of sources, is set
+ * with the system property {@value #SIZE_PROPERTY}; the least recently used
+ * sources are evicted first.
+ */
+final class ApexParseCache {
+
+    /* package */ static final String SIZE_PROPERTY = "net.sourceforge.pmd.apex.parseCacheSize";
+
+    /* package */ static final ApexParseCache INSTANCE = new ApexParseCache(Integer.getInteger(SIZE_PROPERTY, 0));
+
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+
+    /* package */ ApexParseCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ApexParseCache.this.maxSize;
+            }
+        };
+    }
+
+    /* package */ boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns the cached compilation of the source code.
+     *
+     * @param key The key of the source code, see {@link #keyOf(String)}
+     *
+     * @return The entry, null if the source code is not cached
+     */
+    /* package */ Entry get(final String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /* package */ void put(final String key, final Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /* package */ static String keyOf(final String sourceCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(sourceCode.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A compilation with the positioner of its source code. The positioner is
+     * immutable, the compilation is traversed by one thread at a time, see
+     * {@link ApexParser#parse(java.io.Reader)}.
+     */
+    /* package */ static final class Entry {
+        private final Compilation compilation;
+        private final SourceCodePositioner positioner;
+
+        /* package */ Entry(final Compilation compilation, final SourceCodePositioner positioner) {
+            this.compilation = compilation;
+            this.positioner = positioner;
+        }
+
+        /* package */ Compilation getCompilation() {
+            return compilation;
+        }
+
+        /* package */ SourceCodePositioner getPositioner() {
+            return positioner;
+        }
+    }
+}
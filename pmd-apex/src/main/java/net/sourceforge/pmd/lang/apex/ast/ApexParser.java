@@ -14,6 +14,7 @@ import org.apache.commons.io.IOUtils;
 import net.sourceforge.pmd.lang.apex.ApexJorjeLogging;
 import net.sourceforge.pmd.lang.apex.ApexParserOptions;
 import net.sourceforge.pmd.lang.ast.ParseException;
+import net.sourceforge.pmd.lang.ast.SourceCodePositioner;
 
 import apex.jorje.data.Locations;
 import apex.jorje.semantic.ast.compilation.Compilation;
@@ -27,11 +28,18 @@ import apex.jorje.semantic.ast.visitor.AstVisitor;
 public class ApexParser {
     protected final ApexParserOptions parserOptions;
 
+    private final ApexParseCache parseCache;
+
     private Map<Integer, String> suppressMap;
 
     public ApexParser(ApexParserOptions parserOptions) {
+        this(parserOptions, ApexParseCache.INSTANCE);
+    }
+
+    /* package */ ApexParser(ApexParserOptions parserOptions, ApexParseCache parseCache) {
         ApexJorjeLogging.disableLogging();
         this.parserOptions = parserOptions;
+        this.parseCache = parseCache;
     }
 
     public Compilation parseApex(final String sourceCode) throws ParseException {
@@ -46,20 +54,36 @@ public class ApexParser {
     public ApexNode<Compilation> parse(final Reader reader) {
         try {
             final String sourceCode = IOUtils.toString(reader);
-            final Compilation astRoot = parseApex(sourceCode);
-            final ApexTreeBuilder treeBuilder = new ApexTreeBuilder(sourceCode);
+            final ApexParseCache.Entry parsed = parseCached(sourceCode);
+            final ApexTreeBuilder treeBuilder = new ApexTreeBuilder(sourceCode, parsed.getPositioner());
             suppressMap = new HashMap<>();
 
-            if (astRoot == null) {
-                throw new ParseException("Couldn't parse the source - there is not root node - Syntax Error??");
+            // a cached compilation is shared by the threads, and nothing guarantees
+            // that its traversal by Jorje has no side effects
+            synchronized (parsed) {
+                return treeBuilder.build(parsed.getCompilation());
             }
-
-            return treeBuilder.build(astRoot);
         } catch (IOException e) {
             throw new ParseException(e);
         }
     }
 
+    private ApexParseCache.Entry parseCached(final String sourceCode) {
+        final String key = parseCache.isEnabled() ? ApexParseCache.keyOf(sourceCode) : null;
+        ApexParseCache.Entry parsed = key == null ? null : parseCache.get(key);
+        if (parsed == null) {
+            final Compilation astRoot = parseApex(sourceCode);
+            if (astRoot == null) {
+                throw new ParseException("Couldn't parse the source - there is not root node - Syntax Error??");
+            }
+            parsed = new ApexParseCache.Entry(astRoot, new SourceCodePositioner(sourceCode));
+            if (key != null) {
+                parseCache.put(key, parsed);
+            }
+        }
+        return parsed;
+    }
+
     public Map<Integer, String> getSuppressMap() {
         return suppressMap;
     }
@@ -10,10 +10,25 @@ import net.sourceforge.pmd.lang.ast.SourceCodePositioner;
 import apex.jorje.semantic.ast.AstNode;
 
 public abstract class ApexRootNode<T extends AstNode> extends AbstractApexNode<T> implements RootNode {
+
+    private ApexSuppressionIndex suppressionIndex;
+
     public ApexRootNode(T node) {
         super(node);
     }
 
+    /**
+     * Returns the index of the nodes of this file which suppress violations,
+     * built at the first call. The rules applied concurrently share the index.
+     * It should only be used on the root of the file, not on the nested classes.
+     */
+    public synchronized ApexSuppressionIndex getSuppressionIndex() {
+        if (suppressionIndex == null) {
+            suppressionIndex = new ApexSuppressionIndex(this);
+        }
+        return suppressionIndex;
+    }
+
     // For top level classes, the end is the end of file.
     @Override
     void calculateLineNumbers(SourceCodePositioner positioner) {
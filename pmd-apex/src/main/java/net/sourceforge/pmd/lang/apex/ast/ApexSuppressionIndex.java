@@ -0,0 +1,43 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.apex.ast;
+
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.AbstractSuppressionIndex;
+
+/**
+ * Index of the nodes of an Apex file which have a {@code SuppressWarnings}
+ * annotation that may suppress some rules, see
+ * {@link ApexRootNode#getSuppressionIndex()}.
+ */
+public class ApexSuppressionIndex extends AbstractSuppressionIndex {
+
+    public ApexSuppressionIndex(Node root) {
+        super(root);
+    }
+
+    @Override
+    protected boolean canSuppress(Node node) {
+        if (!(node instanceof CanSuppressWarnings)) {
+            return false;
+        }
+        // the annotations of the variables are on their statements
+        Node annotated = node instanceof ASTVariableDeclaration ? node.jjtGetParent() : node;
+        for (ASTModifierNode modifier : annotated.findChildrenOfType(ASTModifierNode.class)) {
+            for (ASTAnnotation annotation : modifier.findChildrenOfType(ASTAnnotation.class)) {
+                if (annotation.maySuppressRules()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean suppresses(Node node, Rule rule) {
+        return ((CanSuppressWarnings) node).hasSuppressWarningsAnnotationFor(rule);
+    }
+}
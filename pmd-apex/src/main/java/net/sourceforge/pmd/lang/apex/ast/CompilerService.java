@@ -4,6 +4,7 @@
 
 package net.sourceforge.pmd.lang.apex.ast;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
@@ -30,11 +31,19 @@ import com.google.common.collect.ImmutableList;
  * "https://github.com/forcedotcom/idecore/blob/master/com.salesforce.ide.apex.core/src/com/salesforce/ide/apex/internal/core/CompilerService.java"
  * > CompilerService</a> but with Eclipse dependencies removed.
  * 
+ * <p>A compiler service is thread-safe: each compilation has its own
+ * {@link ApexCompiler}, and the providers are stateless. The same instance,
+ * e.g. {@link #INSTANCE}, is then shared by the threads parsing concurrently.
+ *
  * @author nchen
  * 
  */
 public class CompilerService {
     public static final CompilerService INSTANCE = new CompilerService();
+
+    // the members used by the additional pass, looked up by the first compilation
+    private static volatile AdditionalPass additionalPass;
+
     private final SymbolProvider symbolProvider;
     private final AccessEvaluator accessEvaluator;
     private QueryValidator queryValidator;
@@ -108,23 +117,59 @@ public class CompilerService {
      * like find all your types, find all your methods, etc.
      * 
      */
-    @SuppressWarnings("unchecked")
     private void callAdditionalPassVisitor(ApexCompiler compiler) {
-        try {
-            List<CodeUnit> allUnits = (List<CodeUnit>) FieldUtils.readDeclaredField(compiler, "allUnits", true);
-            CompilerContext compilerContext = (CompilerContext) FieldUtils.readDeclaredField(compiler,
-                    "compilerContext", true);
+        AdditionalPass pass = additionalPass;
+        if (pass == null) {
+            // a missing member fails the compilation, and the next one looks it up again
+            pass = new AdditionalPass();
+            additionalPass = pass;
+        }
+        pass.run(compiler);
+    }
+
+    /**
+     * The private members of Jorje used by the additional pass.
+     */
+    private static final class AdditionalPass {
+        private final Field allUnitsField;
+        private final Field compilerContextField;
+        private final CompilerOperation additionalValidateOperation;
 
-            for (CodeUnit unit : allUnits) {
+        AdditionalPass() {
+            allUnitsField = getDeclaredField("allUnits");
+            compilerContextField = getDeclaredField("compilerContext");
+            try {
                 Method getOperation = CompilerStage.ADDITIONAL_VALIDATE.getDeclaringClass()
                         .getDeclaredMethod("getOperation");
                 getOperation.setAccessible(true);
-                CompilerOperation operation = (CompilerOperation) getOperation
+                additionalValidateOperation = (CompilerOperation) getOperation
                         .invoke(CompilerStage.ADDITIONAL_VALIDATE);
-                operation.invoke(compilerContext, unit);
+            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+                throw new IllegalStateException("Unsupported version of the Apex compiler", e);
+            }
+        }
+
+        private static Field getDeclaredField(String name) {
+            Field field = FieldUtils.getDeclaredField(ApexCompiler.class, name, true);
+            if (field == null) {
+                throw new IllegalStateException(
+                        "Unsupported version of the Apex compiler, no field " + name + " in " + ApexCompiler.class);
+            }
+            return field;
+        }
+
+        @SuppressWarnings("unchecked")
+        void run(ApexCompiler compiler) {
+            try {
+                List<CodeUnit> allUnits = (List<CodeUnit>) allUnitsField.get(compiler);
+                CompilerContext compilerContext = (CompilerContext) compilerContextField.get(compiler);
+
+                for (CodeUnit unit : allUnits) {
+                    additionalValidateOperation.invoke(compilerContext, unit);
+                }
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
             }
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            throw new RuntimeException(e);
         }
     }
 }
@@ -6,8 +6,10 @@ package net.sourceforge.pmd.lang.apex.rule;
 
 import net.sourceforge.pmd.Rule;
 import net.sourceforge.pmd.RuleContext;
-import net.sourceforge.pmd.lang.apex.ast.CanSuppressWarnings;
+import net.sourceforge.pmd.lang.apex.ast.ApexRootNode;
+import net.sourceforge.pmd.lang.apex.ast.ApexSuppressionIndex;
 import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.AbstractSuppressionIndex;
 import net.sourceforge.pmd.lang.rule.ParametricRuleViolation;
 
 /**
@@ -48,21 +50,19 @@ public class ApexRuleViolation<T> extends ParametricRuleViolation<Node> {
      * @param node
      */
     public static boolean isSupressed(Node node, Rule rule) {
-        boolean result = suppresses(node, rule);
-
-        if (!result) {
-            Node parent = node.jjtGetParent();
-            while (!result && parent != null) {
-                result = suppresses(parent, rule);
-                parent = parent.jjtGetParent();
-            }
-        }
-        
-        return result;
+        return getSuppressionIndex(node).isSuppressed(node, rule);
     }
 
-    private static boolean suppresses(final Node node, Rule rule) {
-        return node instanceof CanSuppressWarnings
-                && ((CanSuppressWarnings) node).hasSuppressWarningsAnnotationFor(rule);
+    /**
+     * Returns the suppression index of the file of the node, or a new index
+     * if the node is not in a class or a trigger.
+     */
+    private static AbstractSuppressionIndex getSuppressionIndex(Node node) {
+        Node root = node;
+        while (root.jjtGetParent() != null) {
+            root = root.jjtGetParent();
+        }
+        return root instanceof ApexRootNode ? ((ApexRootNode<?>) root).getSuppressionIndex()
+                : new ApexSuppressionIndex(root);
     }
 }
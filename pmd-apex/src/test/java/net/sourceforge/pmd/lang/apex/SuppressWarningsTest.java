@@ -139,6 +139,23 @@ public class SuppressWarningsTest extends RuleTst {
         assertEquals(0, rpt.size());
     }
 
+    @Test
+    public void testManySuppressionsForOtherTools() {
+        StringBuilder code = new StringBuilder("public class Bar {").append(PMD.EOL);
+        for (int i = 0; i < 100; i++) {
+            String value = i == 50 ? "'SomethingElse, PMD.NoFoo'" : "'SomethingElse'";
+            code.append(" @SuppressWarnings(").append(value).append(") void m").append(i).append("() {")
+                    .append(PMD.EOL).append("  @SuppressWarnings('Other') Integer foo;").append(PMD.EOL)
+                    .append(" }").append(PMD.EOL);
+        }
+        code.append('}');
+
+        Report rpt = new Report();
+        runTestFromString(code.toString(), new FooRule(), rpt,
+                LanguageRegistry.getLanguage(ApexLanguageModule.NAME).getVersion("35"));
+        assertEquals(99, rpt.size());
+    }
+
     private static final String TEST1 = "@SuppressWarnings('PMD')" + PMD.EOL + "public class Foo {}";
 
     private static final String TEST2 = "@SuppressWarnings('PMD')" + PMD.EOL + "public class Foo {" + PMD.EOL
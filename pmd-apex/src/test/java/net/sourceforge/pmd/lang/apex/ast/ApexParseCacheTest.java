@@ -0,0 +1,102 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.apex.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import net.sourceforge.pmd.lang.apex.ApexParserOptions;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.ast.SourceCodePositioner;
+
+import apex.jorje.semantic.ast.compilation.Compilation;
+
+public class ApexParseCacheTest {
+
+    @Test
+    public void testKeysAreTheHashesOfTheSources() {
+        assertEquals(ApexParseCache.keyOf("public class Foo {}"), ApexParseCache.keyOf("public class Foo {}"));
+        assertNotEquals(ApexParseCache.keyOf("public class Foo {}"), ApexParseCache.keyOf("public class Bar {}"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSourcesAreEvicted() {
+        ApexParseCache cache = new ApexParseCache(2);
+        assertTrue(cache.isEnabled());
+        ApexParseCache.Entry first = entry("a");
+        ApexParseCache.Entry second = entry("b");
+        cache.put("first", first);
+        cache.put("second", second);
+        assertSame(first, cache.get("first"));
+
+        cache.put("third", entry("c"));
+        assertNull(cache.get("second"));
+        assertSame(first, cache.get("first"));
+    }
+
+    @Test
+    public void testDisabledCache() {
+        assertFalse(new ApexParseCache(0).isEnabled());
+    }
+
+    @Test
+    public void testConcurrentCacheHits() throws Exception {
+        final String sourceCode = ApexParserTestHelpers.generateClass(50);
+        final String expected = dump(parse(sourceCode, new ApexParseCache(0)));
+
+        final ApexParseCache cache = new ApexParseCache(1);
+        final ApexNode<Compilation> first = parse(sourceCode, cache);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ApexNode<Compilation>>> trees = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                trees.add(executor.submit(() -> parse(sourceCode, cache)));
+            }
+            for (Future<ApexNode<Compilation>> tree : trees) {
+                // the trees are built from the cached compilation
+                assertSame(first.getNode(), tree.get().getNode());
+                assertEquals(expected, dump(tree.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ApexNode<Compilation> parse(String sourceCode, ApexParseCache cache) {
+        return new ApexParser(new ApexParserOptions(), cache).parse(new StringReader(sourceCode));
+    }
+
+    private static String dump(Node node) {
+        StringBuilder dump = new StringBuilder();
+        dump(node, dump);
+        return dump.toString();
+    }
+
+    private static void dump(Node node, StringBuilder dump) {
+        dump.append(node.getXPathNodeName()).append(':').append(node.getImage())
+            .append('[').append(node.getBeginLine()).append(',').append(node.getBeginColumn())
+            .append('-').append(node.getEndLine()).append(',').append(node.getEndColumn()).append("]\n");
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            dump(node.jjtGetChild(i), dump);
+        }
+    }
+
+    private static ApexParseCache.Entry entry(String sourceCode) {
+        return new ApexParseCache.Entry(null, new SourceCodePositioner(sourceCode));
+    }
+}
@@ -22,6 +22,39 @@ public class ApexParserTestHelpers {
         return parser.parse(reader);
     }
 
+    /**
+     * Generates a class with the given number of methods, which use most of
+     * the statements and expressions.
+     */
+    public static String generateClass(int methods) {
+        StringBuilder code = new StringBuilder("public class Generated {\n");
+        code.append("    private Map<String, List<Account>> accounts = new Map<String, List<Account>>();\n");
+        for (int i = 0; i < methods; i++) {
+            code.append("    public Integer method").append(i).append("(String name, Integer count) {\n")
+                .append("        Integer total = 0;\n")
+                .append("        for (Integer i = 0; i < count; i++) {\n")
+                .append("            if (name != null && name.length() > i) {\n")
+                .append("                total += i * 2;\n")
+                .append("            } else {\n")
+                .append("                total = total - 1;\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        List<Account> found = [SELECT Id, Name FROM Account WHERE Name = :name];\n")
+                .append("        for (Account a : found) {\n")
+                .append("            System.debug('account ' + a.Name);\n")
+                .append("        }\n")
+                .append("        accounts.put(name, found);\n")
+                .append("        try {\n")
+                .append("            update found;\n")
+                .append("        } catch (DmlException e) {\n")
+                .append("            throw new IllegalArgumentException(e.getMessage());\n")
+                .append("        }\n")
+                .append("        return total > 10 ? total : -total;\n")
+                .append("    }\n");
+        }
+        return code.append("}\n").toString();
+    }
+
     public static void dumpNode(Node node) {
         DumpFacade facade = new DumpFacade();
         StringWriter writer = new StringWriter();
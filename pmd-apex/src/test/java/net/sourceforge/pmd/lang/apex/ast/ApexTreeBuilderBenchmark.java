@@ -0,0 +1,89 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.apex.ast;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.pmd.lang.apex.ApexParserOptions;
+
+import apex.jorje.semantic.ast.AstNode;
+import apex.jorje.semantic.ast.compilation.Compilation;
+
+/**
+ * Times the building of the PMD tree of a large class, and the creation of
+ * its nodes by the factories of {@link ApexTreeBuilder} against the
+ * reflective constructor calls they replaced. It is not run by the build, run
+ * its main method with the test classpath. The optional arguments are the
+ * number of methods of the class (2000) and the number of rounds (20).
+ */
+public final class ApexTreeBuilderBenchmark {
+
+    private ApexTreeBuilderBenchmark() { }
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        int methods = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        String sourceCode = ApexParserTestHelpers.generateClass(methods);
+        Compilation compilation = new ApexParser(new ApexParserOptions()).parseApex(sourceCode);
+        List<AstNode> astNodes = new ArrayList<>();
+        Map<Class<?>, Constructor<?>> constructors = new HashMap<>();
+        collect(new ApexTreeBuilder(sourceCode).build(compilation), astNodes, constructors);
+        System.out.println(sourceCode.length() + " characters, " + astNodes.size() + " nodes");
+
+        long[] trees = new long[rounds];
+        long[] factories = new long[rounds];
+        long[] reflection = new long[rounds];
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            new ApexTreeBuilder(sourceCode).build(compilation);
+            trees[round] = System.nanoTime() - start;
+
+            int created = 0;
+            start = System.nanoTime();
+            for (AstNode astNode : astNodes) {
+                created += ApexTreeBuilder.createNodeAdapter(astNode) != null ? 1 : 0;
+            }
+            factories[round] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (AstNode astNode : astNodes) {
+                created += constructors.get(astNode.getClass()).newInstance(astNode) != null ? 1 : 0;
+            }
+            reflection[round] = System.nanoTime() - start;
+
+            System.out.printf("round %d: tree %.2f ms, %d nodes created by the factories %.2f ms, by reflection %.2f ms%n",
+                    round + 1, trees[round] / 1e6, created / 2, factories[round] / 1e6, reflection[round] / 1e6);
+        }
+        System.out.printf("median: tree %.2f ms, nodes created by the factories %.2f ms, by reflection %.2f ms%n",
+                median(trees) / 1e6, median(factories) / 1e6, median(reflection) / 1e6);
+    }
+
+    private static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void collect(ApexNode<?> node, List<AstNode> astNodes,
+            Map<Class<?>, Constructor<?>> constructors) throws NoSuchMethodException {
+        AstNode astNode = node.getNode();
+        astNodes.add(astNode);
+        if (!constructors.containsKey(astNode.getClass())) {
+            // the constructor the tree builder used to call by reflection
+            Constructor<?> constructor = node.getClass().getDeclaredConstructor(astNode.getClass());
+            constructor.setAccessible(true);
+            constructors.put(astNode.getClass(), constructor);
+        }
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            collect((ApexNode<?>) node.jjtGetChild(i), astNodes, constructors);
+        }
+    }
+}
@@ -14,22 +14,25 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import net.sourceforge.pmd.benchmark.TextTimingReportRenderer;
 import net.sourceforge.pmd.benchmark.TimeTracker;
 import net.sourceforge.pmd.benchmark.TimedOperation;
 import net.sourceforge.pmd.benchmark.TimedOperationCategory;
 import net.sourceforge.pmd.benchmark.TimingReport;
 import net.sourceforge.pmd.benchmark.TimingReportRenderer;
+import net.sourceforge.pmd.benchmark.TimingReportRendererFactory;
 import net.sourceforge.pmd.cache.NoopAnalysisCache;
 import net.sourceforge.pmd.cli.PMDCommandLineInterface;
 import net.sourceforge.pmd.cli.PMDParameters;
+import net.sourceforge.pmd.cli.PMDWatcher;
 import net.sourceforge.pmd.lang.Language;
 import net.sourceforge.pmd.lang.LanguageFilenameFilter;
 import net.sourceforge.pmd.lang.LanguageVersion;
@@ -162,10 +165,30 @@ public class PMD {
      * @return the pre-configured parser
      */
     public static Parser parserFor(LanguageVersion languageVersion, PMDConfiguration configuration) {
+        return parserFor(languageVersion, configuration, null);
+    }
 
-        // TODO Handle Rules having different parser options.
+    /**
+     * Helper method to get a configured parser for the requested language. The
+     * parser is configured with the {@linkplain RuleSets#getParserOptions(LanguageVersion)
+     * parser options of the rules} if they all agree, else with the default
+     * options of the language, and based on the given {@link PMDConfiguration}.
+     *
+     * @param languageVersion
+     *            the requested language
+     * @param configuration
+     *            the given configuration
+     * @param ruleSets
+     *            the rules to apply to the parsed files, may be null
+     * @return the pre-configured parser
+     */
+    public static Parser parserFor(LanguageVersion languageVersion, PMDConfiguration configuration,
+            RuleSets ruleSets) {
         LanguageVersionHandler languageVersionHandler = languageVersion.getLanguageVersionHandler();
-        ParserOptions options = languageVersionHandler.getDefaultParserOptions();
+        ParserOptions options = ruleSets == null ? null : ruleSets.getParserOptions(languageVersion);
+        if (options == null) {
+            options = languageVersionHandler.getDefaultParserOptions();
+        }
         if (configuration != null) {
             options.setSuppressMarker(configuration.getSuppressMarker());
         }
@@ -200,9 +223,40 @@ public class PMD {
      * @return number of violations found.
      */
     public static int doPMD(PMDConfiguration configuration) {
+        RuleSetFactory ruleSetFactory = RulesetsFactoryUtils.getRulesetFactory(configuration, new ResourceLoader());
+        try {
+            return doPMD(configuration, ruleSetFactory, null);
+        } finally {
+            /*
+             * Make sure it's our own classloader before attempting to close it....
+             * Maven + Jacoco provide us with a cloaseable classloader that if closed
+             * will throw a ClassNotFoundException.
+            */
+            if (configuration.getClassLoader() instanceof ClasspathClassLoader) {
+                IOUtil.tryCloseClassLoader(configuration.getClassLoader());
+            }
+        }
+    }
+
+    /**
+     * Runs PMD with the given configuration, loading the rulesets with the
+     * given factory. Unlike {@link #doPMD(PMDConfiguration)}, this doesn't
+     * close the class loader of the configuration, so that it can be used
+     * again by a long running process, like the {@link net.sourceforge.pmd.cli.PMDDaemon}.
+     *
+     * @param configuration
+     *            the configuration to use
+     * @param ruleSetFactory
+     *            the factory to load the rulesets with
+     * @param writer
+     *            the writer to render the report to, or <code>null</code> to
+     *            use the report file of the configuration. It is closed
+     *            once the report is rendered.
+     * @return number of violations found.
+     */
+    public static int doPMD(PMDConfiguration configuration, RuleSetFactory ruleSetFactory, Writer writer) {
 
         // Load the RuleSets
-        RuleSetFactory ruleSetFactory = RulesetsFactoryUtils.getRulesetFactory(configuration, new ResourceLoader());
         RuleSets ruleSets = RulesetsFactoryUtils.getRuleSetsWithBenchmark(configuration.getRuleSets(), ruleSetFactory);
         if (ruleSets == null) {
             return 0;
@@ -218,7 +272,7 @@ public class PMD {
                 renderer = configuration.createRenderer();
                 renderers = Collections.singletonList(renderer);
 
-                renderer.setWriter(IOUtil.createWriter(configuration.getReportFile()));
+                renderer.setWriter(writer != null ? writer : IOUtil.createWriter(configuration.getReportFile()));
                 renderer.start();
             }
 
@@ -255,15 +309,6 @@ public class PMD {
             LOG.log(Level.FINE, "Exception during processing", e);
             LOG.info(PMDCommandLineInterface.buildUsageText());
             return 0;
-        } finally {
-            /*
-             * Make sure it's our own classloader before attempting to close it....
-             * Maven + Jacoco provide us with a cloaseable classloader that if closed
-             * will throw a ClassNotFoundException.
-            */
-            if (configuration.getClassLoader() instanceof ClasspathClassLoader) {
-                IOUtil.tryCloseClassLoader(configuration.getClassLoader());
-            }
         }
     }
 
@@ -316,7 +361,7 @@ public class PMD {
         // Make sure the cache is listening for analysis results
         ctx.getReport().addListener(configuration.getAnalysisCache());
 
-        final RuleSetFactory silentFactoy = new RuleSetFactory(ruleSetFactory, false);
+        final RuleSetFactory silentFactoy = ruleSetFactory.withoutDeprecationWarnings();
 
         /*
          * Check if multithreaded support is available. ExecutorService can also
@@ -340,12 +385,15 @@ public class PMD {
         } else {
             final boolean useShortNames = configuration.isReportShortNames();
             final String inputPaths = configuration.getInputPaths();
+            // computing the names is not cheap, so do it once per file, not per comparison
+            final Map<DataSource, String> niceFileNames = new IdentityHashMap<>(files.size());
+            for (DataSource file : files) {
+                niceFileNames.put(file, file.getNiceFileName(useShortNames, inputPaths));
+            }
             Collections.sort(files, new Comparator<DataSource>() {
                 @Override
                 public int compare(DataSource left, DataSource right) {
-                    String leftString = left.getNiceFileName(useShortNames, inputPaths);
-                    String rightString = right.getNiceFileName(useShortNames, inputPaths);
-                    return leftString.compareTo(rightString);
+                    return niceFileNames.get(left).compareTo(niceFileNames.get(right));
                 }
             });
         }
@@ -408,7 +456,17 @@ public class PMD {
         return files;
     }
 
-    private static Set<Language> getApplicableLanguages(PMDConfiguration configuration, RuleSets ruleSets) {
+    /**
+     * Determines the languages of the rules which apply to the configured
+     * language versions. Only the files of these languages are analyzed.
+     *
+     * @param configuration
+     *            the configuration, giving the language versions
+     * @param ruleSets
+     *            the rulesets to analyze the files with
+     * @return the applicable languages
+     */
+    public static Set<Language> getApplicableLanguages(PMDConfiguration configuration, RuleSets ruleSets) {
         Set<Language> languages = new HashSet<>();
         LanguageVersionDiscoverer discoverer = configuration.getLanguageVersionDiscoverer();
 
@@ -451,7 +509,7 @@ public class PMD {
         final PMDParameters params = PMDCommandLineInterface.extractParameters(new PMDParameters(), args, "pmd");
         
         if (params.isBenchmark()) {
-            TimeTracker.startGlobalTracking();
+            TimeTracker.startGlobalTracking(params.isBenchmarkResources());
         }
         
         int status = 0;
@@ -465,11 +523,16 @@ public class PMD {
         LOG.setLevel(logLevel);
 
         try {
-            int violations = PMD.doPMD(configuration);
-            if (violations > 0 && configuration.isFailOnViolation()) {
-                status = PMDCommandLineInterface.VIOLATIONS_FOUND;
-            } else {
+            if (params.isWatch()) {
+                new PMDWatcher(configuration, PMDWatcher.DEFAULT_DEBOUNCE_MILLIS).watch();
                 status = 0;
+            } else {
+                int violations = PMD.doPMD(configuration);
+                if (violations > 0 && configuration.isFailOnViolation()) {
+                    status = PMDCommandLineInterface.VIOLATIONS_FOUND;
+                } else {
+                    status = 0;
+                }
             }
         } catch (Exception e) {
             System.out.println(PMDCommandLineInterface.buildUsageText());
@@ -483,12 +546,18 @@ public class PMD {
             if (params.isBenchmark()) {
                 final TimingReport timingReport = TimeTracker.stopGlobalTracking();
 
-                // TODO get specified report format from config
-                final TimingReportRenderer renderer = new TextTimingReportRenderer();
+                final TimingReportRenderer renderer = TimingReportRendererFactory.createRenderer(
+                        params.getBenchmarkFormat());
                 try {
-                    // Don't close this writer, we don't want to close stderr
-                    final Writer writer = new OutputStreamWriter(System.err);
-                    renderer.render(timingReport, writer);
+                    if (params.getBenchmarkFile() == null) {
+                        // Don't close this writer, we don't want to close stderr
+                        final Writer writer = new OutputStreamWriter(System.err);
+                        renderer.render(timingReport, writer);
+                    } else {
+                        try (Writer writer = IOUtil.createWriter(params.getBenchmarkFile())) {
+                            renderer.render(timingReport, writer);
+                        }
+                    }
                 } catch (final IOException e) {
                     System.err.println(e.getMessage());
                 }
@@ -83,6 +83,9 @@ public class PMDConfiguration extends AbstractConfiguration {
     // General behavior options
     private String suppressMarker = PMD.SUPPRESS_MARKER;
     private int threads = Runtime.getRuntime().availableProcessors();
+    private int concurrentRulesThreshold = 0;
+    private long fileTimeoutMillis = 0;
+    private long ruleTimeoutMillis = 0;
     private ClassLoader classLoader = getClass().getClassLoader();
     private LanguageVersionDiscoverer languageVersionDiscoverer = new LanguageVersionDiscoverer();
 
@@ -146,6 +149,71 @@ public class PMDConfiguration extends AbstractConfiguration {
         this.threads = threads;
     }
 
+    /**
+     * Get the number of lines from which the {@link net.sourceforge.pmd.lang.rule.ConcurrentRule}s
+     * are applied concurrently to a file. This shortens the analysis of very
+     * large files, which could otherwise take longer than all the other files.
+     *
+     * @return The number of lines, or 0 if rules are never applied concurrently.
+     */
+    public int getConcurrentRulesThreshold() {
+        return concurrentRulesThreshold;
+    }
+
+    /**
+     * Set the number of lines from which the {@link net.sourceforge.pmd.lang.rule.ConcurrentRule}s
+     * are applied concurrently to a file.
+     *
+     * @param concurrentRulesThreshold
+     *            The number of lines, 0 to never apply rules concurrently.
+     */
+    public void setConcurrentRulesThreshold(int concurrentRulesThreshold) {
+        this.concurrentRulesThreshold = concurrentRulesThreshold;
+    }
+
+    /**
+     * Get the time budget of the analysis of a single file. A file exceeding
+     * it is reported as a processing error, with the violations found so far.
+     *
+     * @return The budget in milliseconds, or 0 if there is none.
+     * @see net.sourceforge.pmd.processor.AnalysisWatchdog
+     */
+    public long getFileTimeoutMillis() {
+        return fileTimeoutMillis;
+    }
+
+    /**
+     * Set the time budget of the analysis of a single file.
+     *
+     * @param fileTimeoutMillis
+     *            The budget in milliseconds, 0 for none.
+     */
+    public void setFileTimeoutMillis(long fileTimeoutMillis) {
+        this.fileTimeoutMillis = fileTimeoutMillis;
+    }
+
+    /**
+     * Get the time budget of a single rule on a single file. A rule exceeding
+     * it is reported as a processing error, and the other rules are still
+     * applied to the file.
+     *
+     * @return The budget in milliseconds, or 0 if there is none.
+     * @see net.sourceforge.pmd.processor.AnalysisWatchdog
+     */
+    public long getRuleTimeoutMillis() {
+        return ruleTimeoutMillis;
+    }
+
+    /**
+     * Set the time budget of a single rule on a single file.
+     *
+     * @param ruleTimeoutMillis
+     *            The budget in milliseconds, 0 for none.
+     */
+    public void setRuleTimeoutMillis(long ruleTimeoutMillis) {
+        this.ruleTimeoutMillis = ruleTimeoutMillis;
+    }
+
     /**
      * Get the ClassLoader being used by PMD when processing Rules.
      *
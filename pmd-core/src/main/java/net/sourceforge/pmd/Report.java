@@ -37,12 +37,18 @@ public class Report implements Iterable<RuleViolation> {
      * The idea is to store the violations in a tree instead of a list, to do
      * better and faster sort and filter mechanism and to visualize the result
      * as tree. (ide plugins).
+     *
+     * The tree is only built when it is asked for, from the violations in the
+     * order they were added.
      */
-    private final ReportTree violationTree = new ReportTree();
+    private ReportTree violationTree;
+    private int violationsInTree;
 
-    // Note that this and the above data structure are both being maintained for
-    // a bit
+    // Violations are appended as they come, and only sorted when iterated.
+    // Note that the sorted copy and the above data structure are both being
+    // maintained for a bit
     private final List<RuleViolation> violations = new ArrayList<>();
+    private List<RuleViolation> sortedViolations;
     private final Set<Metric> metrics = new HashSet<>();
     private final List<ThreadSafeReportListener> listeners = new ArrayList<>();
     private List<ProcessingError> errors;
@@ -262,7 +268,7 @@ public class Report implements Iterable<RuleViolation> {
      */
     public Map<String, Integer> getCountSummary() {
         Map<String, Integer> summary = new HashMap<>();
-        for (RuleViolation rv : violationTree) {
+        for (RuleViolation rv : violations) {
             String key = keyFor(rv);
             Integer o = summary.get(key);
             summary.put(key, o == null ? NumericConstants.ONE : o + 1);
@@ -271,9 +277,31 @@ public class Report implements Iterable<RuleViolation> {
     }
 
     public ReportTree getViolationTree() {
+        if (violationTree == null) {
+            violationTree = new ReportTree();
+        }
+        // catch up with the violations added since the last call
+        for (; violationsInTree < violations.size(); violationsInTree++) {
+            violationTree.addRuleViolation(violations.get(violationsInTree));
+        }
         return this.violationTree;
     }
 
+    /**
+     * Returns the violations sorted with {@link RuleViolationComparator}. The
+     * sorted list is computed once and kept until the next violation is added.
+     * It is only published once sorted, as several renderer threads may iterate
+     * over the same report.
+     */
+    private synchronized List<RuleViolation> getSortedViolations() {
+        if (sortedViolations == null) {
+            List<RuleViolation> sorted = new ArrayList<>(violations);
+            Collections.sort(sorted, RuleViolationComparator.INSTANCE);
+            sortedViolations = sorted;
+        }
+        return sortedViolations;
+    }
+
     /**
      * Calculate a summary of violations per rule.
      *
@@ -327,14 +355,30 @@ public class Report implements Iterable<RuleViolation> {
             return;
         }
 
-        int index = Collections.binarySearch(violations, violation, RuleViolationComparator.INSTANCE);
-        violations.add(index < 0 ? -index - 1 : index, violation);
-        violationTree.addRuleViolation(violation);
+        addViolation(violation);
         for (ThreadSafeReportListener listener : listeners) {
             listener.ruleViolationAdded(violation);
         }
     }
 
+    private void addViolation(RuleViolation violation) {
+        violations.add(violation);
+        synchronized (this) {
+            sortedViolations = null;
+        }
+    }
+
+    /**
+     * Adds a violation which has been suppressed already, e.g. when reading
+     * back a stored report. The listeners are not notified.
+     *
+     * @param violation
+     *            the suppressed violation to add
+     */
+    public void addSuppressedViolation(SuppressedViolation violation) {
+        suppressedRuleViolations.add(violation);
+    }
+
     /**
      * Adds a new metric to the report and notify the listeners
      *
@@ -398,10 +442,7 @@ public class Report implements Iterable<RuleViolation> {
         }
         Iterator<RuleViolation> v = r.iterator();
         while (v.hasNext()) {
-            RuleViolation violation = v.next();
-            int index = Collections.binarySearch(violations, violation, RuleViolationComparator.INSTANCE);
-            violations.add(index < 0 ? -index - 1 : index, violation);
-            violationTree.addRuleViolation(violation);
+            addViolation(v.next());
         }
         Iterator<SuppressedViolation> s = r.getSuppressedRuleViolations().iterator();
         while (s.hasNext()) {
@@ -429,7 +470,7 @@ public class Report implements Iterable<RuleViolation> {
     }
 
     public boolean isEmpty() {
-        return !violations.iterator().hasNext() && !hasErrors();
+        return violations.isEmpty() && !hasErrors();
     }
 
     /**
@@ -459,7 +500,7 @@ public class Report implements Iterable<RuleViolation> {
      *         <code>false</code> otherwise
      */
     public boolean treeIsEmpty() {
-        return !violationTree.iterator().hasNext();
+        return violations.isEmpty();
     }
 
     /**
@@ -468,12 +509,18 @@ public class Report implements Iterable<RuleViolation> {
      * @return an iterator
      */
     public Iterator<RuleViolation> treeIterator() {
-        return violationTree.iterator();
+        return getViolationTree().iterator();
     }
 
+    /**
+     * Returns an iterator over the reported violations, sorted with
+     * {@link RuleViolationComparator}.
+     *
+     * @return an iterator
+     */
     @Override
     public Iterator<RuleViolation> iterator() {
-        return violations.iterator();
+        return getSortedViolations().iterator();
     }
 
     /**
@@ -500,7 +547,7 @@ public class Report implements Iterable<RuleViolation> {
      * @return number of violations.
      */
     public int treeSize() {
-        return violationTree.size();
+        return getViolationTree().size();
     }
 
     /**
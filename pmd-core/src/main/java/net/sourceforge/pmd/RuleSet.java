@@ -26,6 +26,8 @@ import net.sourceforge.pmd.lang.Language;
 import net.sourceforge.pmd.lang.LanguageVersion;
 import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.rule.RuleReference;
+import net.sourceforge.pmd.processor.AnalysisTimeoutException;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
 import net.sourceforge.pmd.util.CollectionUtil;
 import net.sourceforge.pmd.util.filter.Filter;
 import net.sourceforge.pmd.util.filter.Filters;
@@ -497,26 +499,41 @@ public class RuleSet implements ChecksumAware {
         try (TimedOperation to = TimeTracker.startOperation(TimedOperationCategory.RULE)) {
             for (Rule rule : rules) {
                 if (!rule.isRuleChain() && applies(rule, ctx.getLanguageVersion())) {
+                    apply(rule, acuList, ctx);
+                }
+            }
+        }
+    }
 
-                    try (TimedOperation rto = TimeTracker.startOperation(TimedOperationCategory.RULE, rule.getName())) {
-                        rule.apply(acuList, ctx);
-                    } catch (RuntimeException e) {
-                        if (ctx.isIgnoreExceptions()) {
-                            ctx.getReport().addError(new Report.ProcessingError(e, ctx.getSourceCodeFilename()));
-
-                            if (LOG.isLoggable(Level.WARNING)) {
-                                LOG.log(Level.WARNING, "Exception applying rule " + rule.getName() + " on file "
-                                        + ctx.getSourceCodeFilename() + ", continuing with next rule", e);
-                            }
-                        } else {
-                            throw e;
-                        }
-                    }
+    /**
+     * Applies a single rule, reporting its exceptions as processing errors if
+     * the context ignores exceptions.
+     */
+    /* default */ static void apply(Rule rule, List<? extends Node> acuList, RuleContext ctx) {
+        AnalysisWatchdog.startRule(rule.getName());
+        try (TimedOperation rto = TimeTracker.startOperation(TimedOperationCategory.RULE, rule.getName())) {
+            rule.apply(acuList, ctx);
+        } catch (RuntimeException e) {
+            // a timeout of the file stops its analysis
+            if (ctx.isIgnoreExceptions() && !isFileTimeout(e)) {
+                ctx.getReport().addError(new Report.ProcessingError(e, ctx.getSourceCodeFilename()));
+
+                if (LOG.isLoggable(Level.WARNING)) {
+                    LOG.log(Level.WARNING, "Exception applying rule " + rule.getName() + " on file "
+                            + ctx.getSourceCodeFilename() + ", continuing with next rule", e);
                 }
+            } else {
+                throw e;
             }
+        } finally {
+            AnalysisWatchdog.finishRule();
         }
     }
 
+    private static boolean isFileTimeout(RuntimeException e) {
+        return e instanceof AnalysisTimeoutException && ((AnalysisTimeoutException) e).isFileTimeout();
+    }
+
     /**
      * Does the given Rule apply to the given LanguageVersion? If so, the
      * Language must be the same and be between the minimum and maximums
@@ -98,6 +98,19 @@ public class RuleSetFactory {
         this(factory.resourceLoader, factory.minimumPriority, warnDeprecated, factory.compatibilityFilter != null);
     }
 
+    /**
+     * Returns a factory with the same configuration as this one, which
+     * doesn't produce deprecation warnings. This is used once the rulesets
+     * have been loaded and are loaded again for each processing thread.
+     * Subclasses, e.g. caching factories, may override this to return an
+     * instance of their own type.
+     *
+     * @return A factory without deprecation warnings
+     */
+    protected RuleSetFactory withoutDeprecationWarnings() {
+        return new RuleSetFactory(this, false);
+    }
+
     /**
      * Gets the compatibility filter in order to adjust it, e.g. add additional
      * filters.
@@ -156,7 +169,9 @@ public class RuleSetFactory {
 
     /**
      * Create a RuleSets from a list of RuleSetReferenceIds. The currently
-     * configured ResourceLoader is used.
+     * configured ResourceLoader is used. References to files with the
+     * {@link RuleSetSnapshot#FILE_EXTENSION} extension are read as ruleset
+     * snapshots.
      *
      * @param ruleSetReferenceIds
      *            The List of RuleSetReferenceId of the RuleSets to create.
@@ -167,12 +182,27 @@ public class RuleSetFactory {
     public RuleSets createRuleSets(List<RuleSetReferenceId> ruleSetReferenceIds) throws RuleSetNotFoundException {
         RuleSets ruleSets = new RuleSets();
         for (RuleSetReferenceId ruleSetReferenceId : ruleSetReferenceIds) {
-            RuleSet ruleSet = createRuleSet(ruleSetReferenceId);
-            ruleSets.addRuleSet(ruleSet);
+            if (RuleSetSnapshot.isSnapshot(ruleSetReferenceId)) {
+                for (RuleSet ruleSet : readSnapshot(ruleSetReferenceId)) {
+                    ruleSets.addRuleSet(ruleSet);
+                }
+            } else {
+                RuleSet ruleSet = createRuleSet(ruleSetReferenceId);
+                ruleSets.addRuleSet(ruleSet);
+            }
         }
         return ruleSets;
     }
 
+    private List<RuleSet> readSnapshot(RuleSetReferenceId ruleSetReferenceId) throws RuleSetNotFoundException {
+        try (InputStream inputStream = ruleSetReferenceId.getInputStream(resourceLoader)) {
+            return RuleSetSnapshot.read(inputStream, minimumPriority);
+        } catch (IOException ioe) {
+            throw new RuntimeException("Couldn't read the ruleset snapshot "
+                    + ruleSetReferenceId.getRuleSetFileName() + ": " + ioe.getMessage(), ioe);
+        }
+    }
+
     /**
      * Create a RuleSet from a RuleSet reference ID string. This is a
      * convenience method which calls {@link RuleSetReferenceId#parse(String)},
@@ -0,0 +1,325 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.pmd.RuleSet.RuleSetBuilder;
+import net.sourceforge.pmd.properties.PropertyDescriptor;
+import net.sourceforge.pmd.properties.PropertyDescriptorField;
+import net.sourceforge.pmd.properties.PropertyTypeId;
+import net.sourceforge.pmd.properties.builders.PropertyDescriptorExternalBuilder;
+import net.sourceforge.pmd.rules.RuleBuilder;
+import net.sourceforge.pmd.util.CollectionUtil;
+import net.sourceforge.pmd.util.ResourceLoader;
+
+/**
+ * Binary snapshot of fully resolved rulesets. Loading a snapshot skips the
+ * XML parsing and the resolution of the rule references across ruleset
+ * files, which dominates the startup time with large rulesets.
+ *
+ * <p>Each rule is stored flattened, with its class, its effective
+ * attributes, the definitions of its externally defined properties and the
+ * values of the properties which differ from the default. The rules are
+ * instantiated again when the snapshot is read, so a snapshot must be read
+ * with the same PMD version and rule classes it was written with.
+ *
+ * <p>Files with the extension {@value #FILE_EXTENSION} are read as snapshots
+ * by {@link RuleSetFactory#createRuleSets(List)}, so they can be used as
+ * rulesets, e.g. on the command line. A snapshot is created with:
+ * <pre>
+ * RuleSetSnapshot &lt;rulesets&gt; &lt;snapshot file&gt; [&lt;minimum priority&gt;]
+ * </pre>
+ *
+ * @since 6.4.0
+ */
+public final class RuleSetSnapshot {
+
+    /** Extension of snapshot files. */
+    public static final String FILE_EXTENSION = ".pmdsnapshot";
+
+    private static final int MAGIC = 0x504d4452;
+    private static final int VERSION = 1;
+
+    private RuleSetSnapshot() { }
+
+    /**
+     * Writes a snapshot of the given rulesets.
+     *
+     * @param ruleSets The rulesets
+     * @param stream   The stream to write to, which is not closed
+     *
+     * @throws IOException If the snapshot can't be written
+     */
+    public static void write(RuleSets ruleSets, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        RuleSet[] sets = ruleSets.getAllRuleSets();
+        out.writeInt(sets.length);
+        for (RuleSet ruleSet : sets) {
+            writeRuleSet(out, ruleSet);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a snapshot.
+     *
+     * @param stream          The stream to read from, which is not closed
+     * @param minimumPriority The rules with a lower priority are left out
+     *
+     * @return The rulesets of the snapshot
+     *
+     * @throws IOException If the snapshot can't be read, or its rules can't
+     *                     be instantiated
+     */
+    public static List<RuleSet> read(InputStream stream, RulePriority minimumPriority) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a PMD ruleset snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported ruleset snapshot version " + version);
+        }
+
+        int count = in.readInt();
+        List<RuleSet> ruleSets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ruleSets.add(readRuleSet(in, minimumPriority));
+        }
+        return ruleSets;
+    }
+
+    /**
+     * Returns whether the reference designates a snapshot.
+     *
+     * @param id The reference
+     *
+     * @return True if the reference is to a whole ruleset file with the
+     *         snapshot extension
+     */
+    public static boolean isSnapshot(RuleSetReferenceId id) {
+        return id.isAllRules() && id.getRuleSetFileName() != null
+                && id.getRuleSetFileName().endsWith(FILE_EXTENSION);
+    }
+
+    private static void writeRuleSet(DataOutputStream output, RuleSet ruleSet) throws IOException {
+        writeString(output, ruleSet.getFileName());
+        writeString(output, ruleSet.getName());
+        writeString(output, ruleSet.getDescription());
+        output.writeLong(ruleSet.getChecksum());
+        writeStrings(output, ruleSet.getExcludePatterns());
+        writeStrings(output, ruleSet.getIncludePatterns());
+
+        output.writeInt(ruleSet.getRules().size());
+        for (Rule rule : ruleSet.getRules()) {
+            writeRule(output, rule);
+        }
+    }
+
+    private static RuleSet readRuleSet(DataInputStream input, RulePriority minimumPriority) throws IOException {
+        String fileName = readString(input);
+        String name = readString(input);
+        String description = readString(input);
+        RuleSetBuilder builder = new RuleSetBuilder(input.readLong())
+                .withFileName(fileName)
+                .withName(name)
+                .withDescription(description)
+                .setExcludePatterns(readStrings(input))
+                .setIncludePatterns(readStrings(input));
+
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            builder.addRule(readRule(input));
+        }
+        builder.filterRulesByPriority(minimumPriority);
+        return builder.build();
+    }
+
+    private static void writeRule(DataOutputStream output, Rule rule) throws IOException {
+        writeString(output, rule.getRuleClass());
+        writeString(output, rule.getName());
+        writeString(output, rule.getLanguage() == null ? null : rule.getLanguage().getTerseName());
+        writeString(output, rule.getMinimumLanguageVersion() == null ? null
+                : rule.getMinimumLanguageVersion().getVersion());
+        writeString(output, rule.getMaximumLanguageVersion() == null ? null
+                : rule.getMaximumLanguageVersion().getVersion());
+        writeString(output, rule.getSince());
+        writeString(output, rule.getMessage());
+        writeString(output, rule.getExternalInfoUrl());
+        writeString(output, rule.getDescription());
+        writeString(output, rule.getRuleSetName());
+        output.writeInt(rule.getPriority().getPriority());
+        output.writeBoolean(rule.isDeprecated());
+        output.writeBoolean(rule.isDfa());
+        output.writeBoolean(rule.isTypeResolution());
+        output.writeBoolean(rule.isMultifile());
+        writeStrings(output, rule.getExamples());
+
+        List<PropertyDescriptor<?>> defined = new ArrayList<>();
+        List<PropertyDescriptor<?>> overridden = new ArrayList<>();
+        for (PropertyDescriptor<?> descriptor : rule.getPropertyDescriptors()) {
+            if (descriptor.isDefinedExternally()) {
+                defined.add(descriptor);
+            }
+            if (!CollectionUtil.areEqual(descriptor.defaultValue(), rule.getProperty(descriptor))) {
+                overridden.add(descriptor);
+            }
+        }
+
+        output.writeInt(defined.size());
+        for (PropertyDescriptor<?> descriptor : defined) {
+            writeString(output, PropertyTypeId.typeIdFor(descriptor.type(), descriptor.isMultiValue()));
+            Map<PropertyDescriptorField, String> attributes = descriptor.attributeValuesById();
+            output.writeInt(attributes.size());
+            for (Map.Entry<PropertyDescriptorField, String> attribute : attributes.entrySet()) {
+                writeString(output, attribute.getKey().attributeName());
+                writeString(output, attribute.getValue());
+            }
+        }
+
+        output.writeInt(overridden.size());
+        for (PropertyDescriptor<?> descriptor : overridden) {
+            writeString(output, descriptor.name());
+            writeString(output, valueString(rule, descriptor));
+        }
+    }
+
+    private static Rule readRule(DataInputStream input) throws IOException {
+        String ruleClass = readString(input);
+        String name = readString(input);
+        RuleBuilder builder = new RuleBuilder(name, ruleClass, readString(input));
+        builder.minimumLanguageVersion(readString(input));
+        builder.maximumLanguageVersion(readString(input));
+        builder.since(readString(input));
+        builder.message(readString(input));
+        builder.externalInfoUrl(readString(input));
+        builder.description(readString(input));
+        String ruleSetName = readString(input);
+        builder.priority(input.readInt());
+        builder.setDeprecated(input.readBoolean());
+        builder.usesDFA(input.readBoolean());
+        builder.usesTyperesolution(input.readBoolean());
+        builder.usesMultifile(input.readBoolean());
+        for (String example : readStrings(input)) {
+            builder.addExample(example);
+        }
+
+        int defined = input.readInt();
+        for (int i = 0; i < defined; i++) {
+            String typeId = readString(input);
+            PropertyDescriptorExternalBuilder<?> factory = PropertyTypeId.factoryFor(typeId);
+            if (factory == null) {
+                throw new IOException("No property descriptor factory for type: " + typeId);
+            }
+            int count = input.readInt();
+            Map<PropertyDescriptorField, String> attributes = new HashMap<>();
+            for (int j = 0; j < count; j++) {
+                attributes.put(PropertyDescriptorField.getConstant(readString(input)), readString(input));
+            }
+            builder.defineProperty(factory.build(attributes));
+        }
+
+        Rule rule;
+        try {
+            rule = builder.build();
+        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
+            throw new IOException("Can't instantiate rule " + name + " of class " + ruleClass, e);
+        }
+        rule.setRuleSetName(ruleSetName);
+
+        int overridden = input.readInt();
+        for (int i = 0; i < overridden; i++) {
+            String property = readString(input);
+            PropertyDescriptor<?> descriptor = rule.getPropertyDescriptor(property);
+            if (descriptor == null) {
+                throw new IOException("Rule " + name + " has no property " + property);
+            }
+            setValue(rule, descriptor, readString(input));
+        }
+        return rule;
+    }
+
+    private static <T> String valueString(Rule rule, PropertyDescriptor<T> descriptor) {
+        return descriptor.asDelimitedString(rule.getProperty(descriptor));
+    }
+
+    private static <T> void setValue(Rule rule, PropertyDescriptor<T> descriptor, String value) {
+        rule.setProperty(descriptor, descriptor.valueFrom(value));
+    }
+
+    private static void writeStrings(DataOutputStream output, List<String> strings) throws IOException {
+        output.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(output, string);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(readString(input));
+        }
+        return strings;
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes, -1 standing for null.
+     * Unlike {@link DataOutputStream#writeUTF(String)}, this isn't limited
+     * to 64 KB, which long XPath expressions may exceed.
+     */
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        if (string == null) {
+            output.writeInt(-1);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException, RuleSetNotFoundException {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: " + RuleSetSnapshot.class.getName()
+                    + " <rulesets> <snapshot file> [<minimum priority>]");
+            System.err.println("Writes a snapshot of the rulesets, which can be used in place of them.");
+            return;
+        }
+
+        RulePriority minimumPriority = args.length == 3 ? RulePriority.valueOf(Integer.parseInt(args[2]))
+                : RulePriority.LOW;
+        RuleSetFactory factory = new RuleSetFactory(new ResourceLoader(), minimumPriority, true, true);
+        RuleSets ruleSets = factory.createRuleSets(args[0]);
+        try (OutputStream out = Files.newOutputStream(Paths.get(args[1]))) {
+            write(ruleSets, out);
+        }
+    }
+}
@@ -7,13 +7,30 @@ package net.sourceforge.pmd;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
 
+import net.sourceforge.pmd.benchmark.TimeTracker;
+import net.sourceforge.pmd.benchmark.TimedOperation;
+import net.sourceforge.pmd.benchmark.TimedOperationCategory;
 import net.sourceforge.pmd.lang.Language;
+import net.sourceforge.pmd.lang.LanguageVersion;
+import net.sourceforge.pmd.lang.LanguageVersionHandler;
+import net.sourceforge.pmd.lang.ParserOptions;
 import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.AbstractDelegateRule;
+import net.sourceforge.pmd.lang.rule.ConcurrentRule;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
+import net.sourceforge.pmd.stat.Metric;
 
 /**
  * Grouping of Rules per Language in a RuleSet.
@@ -21,6 +38,9 @@ import net.sourceforge.pmd.lang.ast.Node;
  * @author pieter_van_raemdonck - Application Engineers NV/SA - www.ae.be
  */
 public class RuleSets {
+
+    private static final Logger LOG = Logger.getLogger(RuleSets.class.getName());
+
     /**
      * Map of RuleLanguage on RuleSet.
      */
@@ -31,6 +51,11 @@ public class RuleSets {
      */
     private RuleChain ruleChain = new RuleChain();
 
+    /**
+     * The parser options of the rules per language version, see {@link #getParserOptions(LanguageVersion)}.
+     */
+    private final Map<LanguageVersion, ParserOptions> parserOptions = new HashMap<>();
+
     /**
      * Public constructor.
      */
@@ -69,6 +94,7 @@ public class RuleSets {
     public void addRuleSet(RuleSet ruleSet) {
         ruleSets.add(ruleSet);
         ruleChain.add(ruleSet);
+        clearParserOptions();
     }
 
     /**
@@ -97,6 +123,66 @@ public class RuleSets {
         return result;
     }
 
+    /**
+     * Returns the parser options of the rules which apply to the language
+     * version, if they all have the same options, of the same type as the
+     * {@linkplain LanguageVersionHandler#getDefaultParserOptions() default options}
+     * of the language. The rules whose options are generic {@link ParserOptions},
+     * e.g. the XPath rules, don't depend on the options and are ignored. A single
+     * parser parses the files for all the rules, so the options the rules
+     * disagree on can't be honored, and the default options are used instead.
+     *
+     * @param languageVersion
+     *            the language version of the parsed files
+     * @return the options, or <code>null</code> if the default options should
+     *         be used
+     */
+    public synchronized ParserOptions getParserOptions(LanguageVersion languageVersion) {
+        if (!parserOptions.containsKey(languageVersion)) {
+            parserOptions.put(languageVersion, findParserOptions(languageVersion));
+        }
+        return parserOptions.get(languageVersion);
+    }
+
+    private synchronized void clearParserOptions() {
+        parserOptions.clear();
+    }
+
+    private ParserOptions findParserOptions(LanguageVersion languageVersion) {
+        Class<?> optionsType = languageVersion.getLanguageVersionHandler().getDefaultParserOptions().getClass();
+        if (optionsType == ParserOptions.class) {
+            // the language has no options of its own
+            return null;
+        }
+        ParserOptions options = null;
+        Rule optionsRule = null;
+        for (Rule rule : getAllRules()) {
+            if (!RuleSet.applies(rule, languageVersion)) {
+                continue;
+            }
+            ParserOptions ruleOptions = rule.getParserOptions();
+            if (ruleOptions == null || ruleOptions.getClass() == ParserOptions.class) {
+                // the rule doesn't depend on the options of the language
+                continue;
+            }
+            if (ruleOptions.getClass() != optionsType) {
+                LOG.warning("The parser options of the rule " + rule.getName() + " don't apply to "
+                        + languageVersion.getName() + ", the files are parsed with the default options");
+                return null;
+            }
+            if (options == null) {
+                options = ruleOptions;
+                optionsRule = rule;
+            } else if (!options.equals(ruleOptions)) {
+                LOG.warning("The rules " + optionsRule.getName() + " and " + rule.getName() + " for "
+                        + languageVersion.getName()
+                        + " have different parser options, the files are parsed with the default options");
+                return null;
+            }
+        }
+        return options;
+    }
+
     /**
      * Check if a given source file should be checked by rules in this RuleSets.
      *
@@ -145,6 +231,138 @@ public class RuleSets {
         }
     }
 
+    /**
+     * Applies the rules to the given source, like {@link #apply(List, RuleContext, Language)},
+     * but applies the {@link ConcurrentRule}s concurrently with each other and with the
+     * other rules. This is meant for large files, for which this outweighs the overhead.
+     *
+     * @param acuList
+     *            the List of acus
+     * @param ctx
+     *            the RuleContext
+     * @param language
+     *            the Language of the source
+     */
+    public void applyConcurrently(final List<Node> acuList, final RuleContext ctx, Language language) {
+        final List<Future<Report>> concurrentReports = new ArrayList<>();
+        final List<Rule> sequentialRules = new ArrayList<>();
+        // the rules applied by the pool are held to the budgets of the file too,
+        // and their time is accounted to the file
+        final AnalysisWatchdog.Budget budget = AnalysisWatchdog.currentBudget();
+        final TimeTracker.FileEntry timedFile = TimeTracker.currentFile();
+        for (RuleSet ruleSet : ruleSets) {
+            if (!ruleSet.applies(ctx.getSourceCodeFile())) {
+                continue;
+            }
+            for (final Rule rule : ruleSet.getRules()) {
+                if (rule.isRuleChain() || !RuleSet.applies(rule, ctx.getLanguageVersion())) {
+                    continue;
+                }
+                if (isConcurrent(rule)) {
+                    concurrentReports.add(ConcurrentRules.POOL.submit(new Callable<Report>() {
+                        @Override
+                        public Report call() {
+                            AnalysisWatchdog.join(budget);
+                            TimeTracker.initThread();
+                            TimeTracker.joinFile(timedFile);
+                            try {
+                                return apply(rule, acuList, ctx);
+                            } finally {
+                                TimeTracker.finishFile();
+                                TimeTracker.finishThread();
+                                AnalysisWatchdog.finishFile();
+                            }
+                        }
+                    }));
+                } else {
+                    sequentialRules.add(rule);
+                }
+            }
+        }
+
+
+        ruleChain.apply(acuList, ctx, language);
+        try (TimedOperation to = TimeTracker.startOperation(TimedOperationCategory.RULE)) {
+            for (Rule rule : sequentialRules) {
+                RuleSet.apply(rule, acuList, ctx);
+            }
+        }
+
+        try {
+            for (Future<Report> report : concurrentReports) {
+                addAll(ctx.getReport(), report.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // only thrown if the context doesn't ignore exceptions
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<Report> report : concurrentReports) {
+                report.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Applies a rule on a thread of the pool, with its own report.
+     */
+    private static Report apply(Rule rule, List<Node> acuList, RuleContext ctx) {
+        RuleContext ruleCtx = new RuleContext(ctx);
+        // without the listeners, which are notified when merging
+        ruleCtx.setReport(new Report());
+        ruleCtx.setSourceCodeFile(ctx.getSourceCodeFile());
+        ruleCtx.setSourceCodeFilename(ctx.getSourceCodeFilename());
+        ruleCtx.setLanguageVersion(ctx.getLanguageVersion());
+        ruleCtx.setIgnoreExceptions(ctx.isIgnoreExceptions());
+        RuleSet.apply(rule, acuList, ruleCtx);
+        return ruleCtx.getReport();
+    }
+
+    private static boolean isConcurrent(Rule rule) {
+        Rule actual = rule;
+        while (actual instanceof AbstractDelegateRule) {
+            actual = ((AbstractDelegateRule) actual).getRule();
+        }
+        return actual instanceof ConcurrentRule;
+    }
+
+    /**
+     * Adds the content of a report, which was filled by a rule applied concurrently,
+     * to the report of the file, as if the rule had reported to the latter.
+     */
+    private static void addAll(Report fileReport, Report ruleReport) {
+        for (RuleViolation violation : ruleReport) {
+            // the violations go through the NOPMD suppression of the file report
+            fileReport.addRuleViolation(violation);
+        }
+        for (Report.SuppressedViolation suppressed : ruleReport.getSuppressedRuleViolations()) {
+            fileReport.addSuppressedViolation(suppressed);
+        }
+        for (Iterator<Report.ProcessingError> i = ruleReport.errors(); i.hasNext();) {
+            fileReport.addError(i.next());
+        }
+        for (Iterator<Metric> i = ruleReport.metrics(); i.hasNext();) {
+            fileReport.addMetric(i.next());
+        }
+    }
+
+    /**
+     * Pool applying the concurrent rules, shared by all the files and only
+     * created if needed.
+     */
+    private static final class ConcurrentRules {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+
+        private ConcurrentRules() {
+        }
+    }
+
     /**
      * Notify all rules of the end of processing.
      */
@@ -247,6 +465,7 @@ public class RuleSets {
         for (RuleSet ruleSet : ruleSets) {
             ruleSet.removeDysfunctionalRules(collector);
         }
+        clearParserOptions();
     }
 
     /**
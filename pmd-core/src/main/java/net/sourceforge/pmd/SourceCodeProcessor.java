@@ -19,9 +19,12 @@ import net.sourceforge.pmd.lang.LanguageVersion;
 import net.sourceforge.pmd.lang.LanguageVersionHandler;
 import net.sourceforge.pmd.lang.Parser;
 import net.sourceforge.pmd.lang.VisitorStarter;
+import net.sourceforge.pmd.lang.ast.AbstractNode;
 import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.ast.ParseException;
 import net.sourceforge.pmd.lang.xpath.Initializer;
+import net.sourceforge.pmd.processor.AnalysisTimeoutException;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
 
 public class SourceCodeProcessor {
 
@@ -92,8 +95,14 @@ public class SourceCodeProcessor {
             }
 
             try {
+                AnalysisWatchdog.startFile(ctx.getSourceCodeFilename(), configuration.getFileTimeoutMillis(),
+                        configuration.getRuleTimeoutMillis());
                 ruleSets.start(ctx);
                 processSource(sourceCode, ruleSets, ctx);
+            } catch (AnalysisTimeoutException te) {
+                // the partial results aren't cached, so that the timeout is reported again by the next run
+                configuration.getAnalysisCache().analysisFailed(ctx.getSourceCodeFile());
+                throw new PMDException("Timeout while processing " + ctx.getSourceCodeFilename(), te);
             } catch (ParseException pe) {
                 configuration.getAnalysisCache().analysisFailed(ctx.getSourceCodeFile());
                 throw new PMDException("Error while parsing " + ctx.getSourceCodeFilename(), pe);
@@ -101,6 +110,7 @@ public class SourceCodeProcessor {
                 configuration.getAnalysisCache().analysisFailed(ctx.getSourceCodeFile());
                 throw new PMDException("Error while processing " + ctx.getSourceCodeFilename(), e);
             } finally {
+                AnalysisWatchdog.finishFile();
                 ruleSets.end(ctx);
             }
         }
@@ -170,7 +180,7 @@ public class SourceCodeProcessor {
     private void processSource(Reader sourceCode, RuleSets ruleSets, RuleContext ctx) {
         LanguageVersion languageVersion = ctx.getLanguageVersion();
         LanguageVersionHandler languageVersionHandler = languageVersion.getLanguageVersionHandler();
-        Parser parser = PMD.parserFor(languageVersion, configuration);
+        Parser parser = PMD.parserFor(languageVersion, configuration, ruleSets);
 
         Node rootNode = parse(ctx, sourceCode, parser);
         resolveQualifiedNames(rootNode, languageVersionHandler);
@@ -180,8 +190,17 @@ public class SourceCodeProcessor {
         usesTypeResolution(languageVersion, rootNode, ruleSets, language);
         usesMultifile(rootNode, languageVersionHandler, ruleSets, language);
 
+        if (rootNode instanceof AbstractNode) {
+            ((AbstractNode) rootNode).buildTypeIndex();
+        }
+
         List<Node> acus = Collections.singletonList(rootNode);
-        ruleSets.apply(acus, ctx, language);
+        int concurrentRulesThreshold = configuration.getConcurrentRulesThreshold();
+        if (concurrentRulesThreshold > 0 && rootNode.getEndLine() >= concurrentRulesThreshold) {
+            ruleSets.applyConcurrently(acus, ctx, language);
+        } else {
+            ruleSets.apply(acus, ctx, language);
+        }
     }
 
     private void determineLanguage(RuleContext ctx) {
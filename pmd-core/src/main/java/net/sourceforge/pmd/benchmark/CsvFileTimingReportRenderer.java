@@ -0,0 +1,44 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import net.sourceforge.pmd.PMD;
+
+/**
+ * A CSV renderer for {@link TimingReport}, with a row per analyzed file.
+ * The columns are the wall clock time spent on the file, then the self time
+ * of each {@link TimedOperationCategory} on it, all in nanoseconds.
+ */
+public class CsvFileTimingReportRenderer implements TimingReportRenderer {
+
+    @Override
+    public void render(final TimingReport report, final Writer writer) throws IOException {
+        final TimedOperationCategory[] categories = TimedOperationCategory.values();
+
+        final StringBuilder sb = new StringBuilder(256);
+        sb.append("file,total_ns");
+        for (final TimedOperationCategory category : categories) {
+            sb.append(',').append(category.name()).append("_ns");
+        }
+        sb.append(PMD.EOL);
+        writer.write(sb.toString());
+
+        for (final FileTiming fileTiming : report.getFileTimings()) {
+            sb.setLength(0);
+            CsvTimingReportRenderer.appendQuoted(sb, fileTiming.getFileName());
+            sb.append(',').append(fileTiming.getTotalTimeNanos());
+            for (final TimedOperationCategory category : categories) {
+                sb.append(',').append(fileTiming.getSelfTimeNanos(category));
+            }
+            sb.append(PMD.EOL);
+            writer.write(sb.toString());
+        }
+
+        writer.flush();
+    }
+}
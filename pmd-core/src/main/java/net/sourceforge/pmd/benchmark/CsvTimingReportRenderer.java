@@ -0,0 +1,71 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import net.sourceforge.pmd.PMD;
+import net.sourceforge.pmd.benchmark.TimeTracker.TimedResult;
+
+/**
+ * A CSV renderer for {@link TimingReport}, with a row per measured operation.
+ * Times are in nanoseconds, the latency percentiles are those of a single call.
+ * The CPU time and allocated bytes are 0 unless they were tracked.
+ */
+public class CsvTimingReportRenderer implements TimingReportRenderer {
+
+    private static final String HEADER = "category,label,calls,total_ns,self_ns,counter,"
+            + "p50_ns,p90_ns,p99_ns,max_ns,cpu_ns,self_cpu_ns,allocated_bytes,self_allocated_bytes";
+
+    @Override
+    public void render(final TimingReport report, final Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write(PMD.EOL);
+
+        for (final TimedOperationCategory category : TimedOperationCategory.values()) {
+            final TimedResult unlabeled = report.getUnlabeledMeasurements(category);
+            if (unlabeled != null) {
+                renderMeasurement(category, null, unlabeled, writer);
+            }
+            for (final Map.Entry<String, TimedResult> entry : report.getLabeledMeasurements(category).entrySet()) {
+                renderMeasurement(category, entry.getKey(), entry.getValue(), writer);
+            }
+        }
+
+        writer.flush();
+    }
+
+    private void renderMeasurement(final TimedOperationCategory category, final String label,
+            final TimedResult result, final Writer writer) throws IOException {
+        final StringBuilder sb = new StringBuilder(128);
+        sb.append(category.name()).append(',');
+        if (label != null) {
+            appendQuoted(sb, label);
+        }
+        sb.append(',').append(result.callCount.get())
+            .append(',').append(result.totalTimeNanos.get())
+            .append(',').append(result.selfTimeNanos.get())
+            .append(',').append(result.extraDataCounter.get())
+            .append(',').append(result.latencies.getValueAtPercentile(50))
+            .append(',').append(result.latencies.getValueAtPercentile(90))
+            .append(',').append(result.latencies.getValueAtPercentile(99))
+            .append(',').append(result.latencies.getMaxValue())
+            .append(',').append(result.totalCpuNanos.get())
+            .append(',').append(result.selfCpuNanos.get())
+            .append(',').append(result.totalAllocatedBytes.get())
+            .append(',').append(result.selfAllocatedBytes.get())
+            .append(PMD.EOL);
+        writer.write(sb.toString());
+    }
+
+    /**
+     * Appends a value between double quotes, doubling the quotes it contains.
+     */
+    /* package */ static void appendQuoted(final StringBuilder sb, final String value) {
+        sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.benchmark;
+
+/**
+ * The time spent on a single file, in total and by {@link TimedOperationCategory}.
+ */
+public final class FileTiming {
+
+    private final String fileName;
+    private final long totalTimeNanos;
+    private final long[] selfTimeNanos;
+
+    /* package */ FileTiming(final String fileName, final long totalTimeNanos, final long[] selfTimeNanos) {
+        this.fileName = fileName;
+        this.totalTimeNanos = totalTimeNanos;
+        this.selfTimeNanos = selfTimeNanos;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the wall clock time spent on the file, from reading it to the
+     * last rule applied.
+     * @return The time in nanoseconds
+     */
+    public long getTotalTimeNanos() {
+        return totalTimeNanos;
+    }
+
+    /**
+     * Returns the time spent on the file in operations of the given category,
+     * excluding the nested operations of other categories.
+     * @param category The category
+     * @return The time in nanoseconds
+     */
+    public long getSelfTimeNanos(final TimedOperationCategory category) {
+        return selfTimeNanos[category.ordinal()];
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import net.sourceforge.pmd.benchmark.TimeTracker.TimedResult;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * A JSON renderer for {@link TimingReport}, including the latency percentiles
+ * of each operation, the files on which each rule took the most time, and the
+ * time spent on each file, and the CPU time and allocated memory of each
+ * operation when they were tracked. Times are in nanoseconds.
+ */
+public class JsonTimingReportRenderer implements TimingReportRenderer {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    @Override
+    public void render(final TimingReport report, final Writer writer) throws IOException {
+        // not closed, it would close the writer
+        final JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+
+        json.beginObject();
+        json.name("wallClockMillis").value(report.getWallClockMillis());
+
+        json.name("operations").beginArray();
+        for (final TimedOperationCategory category : TimedOperationCategory.values()) {
+            final TimedResult unlabeled = report.getUnlabeledMeasurements(category);
+            if (unlabeled != null) {
+                renderMeasurement(category, null, unlabeled, report.isResourcesTracked(), json);
+            }
+            for (final Map.Entry<String, TimedResult> entry : report.getLabeledMeasurements(category).entrySet()) {
+                renderMeasurement(category, entry.getKey(), entry.getValue(), report.isResourcesTracked(), json);
+            }
+        }
+        json.endArray();
+
+        json.name("files").beginArray();
+        for (final FileTiming fileTiming : report.getFileTimings()) {
+            json.beginObject();
+            json.name("file").value(fileTiming.getFileName());
+            json.name("totalNanos").value(fileTiming.getTotalTimeNanos());
+            json.name("selfNanos").beginObject();
+            for (final TimedOperationCategory category : TimedOperationCategory.values()) {
+                if (fileTiming.getSelfTimeNanos(category) != 0) {
+                    json.name(category.name()).value(fileTiming.getSelfTimeNanos(category));
+                }
+            }
+            json.endObject();
+            json.endObject();
+        }
+        json.endArray();
+
+        json.endObject();
+        json.flush();
+    }
+
+    private void renderMeasurement(final TimedOperationCategory category, final String label,
+            final TimedResult result, final boolean resourcesTracked, final JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("category").value(category.name());
+        if (label != null) {
+            json.name("label").value(label);
+        }
+        json.name("calls").value(result.callCount.get());
+        json.name("totalNanos").value(result.totalTimeNanos.get());
+        json.name("selfNanos").value(result.selfTimeNanos.get());
+        json.name("counter").value(result.extraDataCounter.get());
+        if (resourcesTracked) {
+            json.name("cpuNanos").value(result.totalCpuNanos.get());
+            json.name("selfCpuNanos").value(result.selfCpuNanos.get());
+            json.name("allocatedBytes").value(result.totalAllocatedBytes.get());
+            json.name("selfAllocatedBytes").value(result.selfAllocatedBytes.get());
+        }
+
+        json.name("latencyNanos").beginObject();
+        for (final double percentile : PERCENTILES) {
+            json.name("p" + formatPercentile(percentile)).value(result.latencies.getValueAtPercentile(percentile));
+        }
+        json.name("max").value(result.latencies.getMaxValue());
+        json.endObject();
+
+        if (label != null) {
+            json.name("slowestFiles").beginArray();
+            for (final Map.Entry<String, Long> file : result.getSlowestFiles()) {
+                json.beginObject();
+                json.name("file").value(file.getKey());
+                json.name("nanos").value(file.getValue());
+                json.endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    private static String formatPercentile(final double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
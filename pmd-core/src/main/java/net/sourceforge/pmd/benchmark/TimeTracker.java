@@ -4,11 +4,21 @@
 
 package net.sourceforge.pmd.benchmark;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,15 +26,20 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * A time tracker class to measure time spent on different sections of PMD analysis.
  * The class is thread-aware, allowing to differentiate CPU and wall clock time.
+ * Optionally, the CPU time and the memory allocated by the thread during each operation
+ * are measured as well.
  * 
  * @author Juan Martín Sotuyo Dodero
  */
 public final class TimeTracker {
 
     private static boolean trackTime = false;
+    private static boolean trackResources = false;
     private static long wallClockStartMillis = -1;
     private static final ThreadLocal<Queue<TimerEntry>> TIMER_ENTRIES;
     private static final ConcurrentMap<TimedOperationKey, TimedResult> ACCUMULATED_RESULTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<FileEntry> CURRENT_FILE = new ThreadLocal<>();
+    private static final Queue<FileTiming> FILE_TIMINGS = new ConcurrentLinkedQueue<>();
     private static final TimedOperation NOOP_TIMED_OPERATION = new TimedOperation() {
 
         @Override
@@ -56,9 +71,22 @@ public final class TimeTracker {
      * Must be called once PMD starts if tracking is desired, no tracking will be performed otherwise.
      */
     public static void startGlobalTracking() {
+        startGlobalTracking(false);
+    }
+
+    /**
+     * Starts global tracking. Allows tracking operations to take place and starts the wall clock.
+     * Must be called once PMD starts if tracking is desired, no tracking will be performed otherwise.
+     * @param trackCpuAndAllocations Whether to measure the CPU time and the memory allocated by each
+     *                               operation as well, if the JVM supports it. This slows down each
+     *                               operation by a few hundred nanoseconds.
+     */
+    public static void startGlobalTracking(final boolean trackCpuAndAllocations) {
+        trackResources = trackCpuAndAllocations && ResourceMeter.enable();
         wallClockStartMillis = System.currentTimeMillis();
         trackTime = true;
         ACCUMULATED_RESULTS.clear(); // just in case
+        FILE_TIMINGS.clear();
         initThread(); // init main thread
     }
     
@@ -78,9 +106,12 @@ public final class TimeTracker {
         final TimedResult unaccountedResult = ACCUMULATED_RESULTS.get(
                 new TimedOperationKey(TimedOperationCategory.UNACCOUNTED, null));
         unaccountedResult.totalTimeNanos.set(unaccountedResult.selfTimeNanos.get());
+        unaccountedResult.totalCpuNanos.set(unaccountedResult.selfCpuNanos.get());
+        unaccountedResult.totalAllocatedBytes.set(unaccountedResult.selfAllocatedBytes.get());
         unaccountedResult.callCount.set(0);
         
-        return new TimingReport(System.currentTimeMillis() - wallClockStartMillis, ACCUMULATED_RESULTS);
+        return new TimingReport(System.currentTimeMillis() - wallClockStartMillis, ACCUMULATED_RESULTS,
+                new ArrayList<>(FILE_TIMINGS), trackResources);
     }
     
     /**
@@ -110,6 +141,66 @@ public final class TimeTracker {
         }
     }
     
+    /**
+     * Starts tracking the time spent on a file by the current thread. The operations finished
+     * until {@link #finishFile()} is called are accounted to the file.
+     * @param fileName The name of the file
+     */
+    public static void startFile(final String fileName) {
+        if (!trackTime) {
+            return;
+        }
+
+        CURRENT_FILE.set(new FileEntry(fileName));
+    }
+
+    /**
+     * Returns the file tracked by the current thread, to be {@link #joinFile(FileEntry) joined}
+     * by the threads which help analyze it.
+     * @return The file, or null if none is tracked
+     */
+    public static FileEntry currentFile() {
+        return CURRENT_FILE.get();
+    }
+
+    /**
+     * Accounts the operations finished by the current thread to a file tracked by another
+     * thread, until {@link #finishFile()} is called.
+     * @param fileEntry The file, see {@link #currentFile()}, or null for none
+     */
+    public static void joinFile(final FileEntry fileEntry) {
+        if (!trackTime || fileEntry == null) {
+            return;
+        }
+
+        CURRENT_FILE.set(fileEntry);
+    }
+
+    /**
+     * Finishes tracking the file of the current thread. The timing of the file is recorded
+     * by the thread which started it, the threads which joined it only stop accounting to it.
+     */
+    public static void finishFile() {
+        final FileEntry fileEntry = CURRENT_FILE.get();
+        CURRENT_FILE.remove();
+        if (!trackTime || fileEntry == null || fileEntry.thread != Thread.currentThread()) {
+            return;
+        }
+
+        final Map<TimedOperationKey, Long> labeledTimeNanos;
+        synchronized (fileEntry) {
+            FILE_TIMINGS.add(new FileTiming(fileEntry.fileName, System.nanoTime() - fileEntry.start,
+                    fileEntry.selfTimeNanos.clone()));
+            labeledTimeNanos = new HashMap<>(fileEntry.labeledTimeNanos);
+        }
+        for (final Map.Entry<TimedOperationKey, Long> labeled : labeledTimeNanos.entrySet()) {
+            final TimedResult result = ACCUMULATED_RESULTS.get(labeled.getKey());
+            if (result != null) {
+                result.offerFile(fileEntry.fileName, labeled.getValue());
+            }
+        }
+    }
+
     /**
      * Starts tracking an operation.
      * @param category The category under which to track the operation.
@@ -158,7 +249,15 @@ public final class TimeTracker {
         // Update counters and let next element on the stack ignore the time we spent
         final long delta = result.accumulate(timerEntry, extraDataCounter);
         if (!queue.isEmpty()) { 
-            queue.peek().inNestedOperationsNanos += delta;
+            final TimerEntry parent = queue.peek();
+            parent.inNestedOperationsNanos += delta;
+            parent.inNestedCpuNanos += timerEntry.cpuNanos;
+            parent.inNestedAllocatedBytes += timerEntry.allocatedBytes;
+        }
+
+        final FileEntry fileEntry = CURRENT_FILE.get();
+        if (fileEntry != null) {
+            fileEntry.accumulate(timerEntry, delta);
         }
     }
     
@@ -168,10 +267,24 @@ public final class TimeTracker {
     private static class TimerEntry {
         /* package */ final TimedOperationKey operation;
         /* package */ final long start;
+        /* package */ final long startCpuNanos;
+        /* package */ final long startAllocatedBytes;
         /* package */ long inNestedOperationsNanos = 0;
+        /* package */ long inNestedCpuNanos = 0;
+        /* package */ long inNestedAllocatedBytes = 0;
+        // set once finished, if resources are tracked
+        /* package */ long cpuNanos = 0;
+        /* package */ long allocatedBytes = 0;
         
         /* package */ TimerEntry(final TimedOperationCategory category, final String label) {
             this.operation = new TimedOperationKey(category, label);
+            if (trackResources) {
+                this.startAllocatedBytes = ResourceMeter.allocatedBytes();
+                this.startCpuNanos = ResourceMeter.cpuNanos();
+            } else {
+                this.startAllocatedBytes = 0;
+                this.startCpuNanos = 0;
+            }
             this.start = System.nanoTime();
         }
 
@@ -181,14 +294,104 @@ public final class TimeTracker {
         }
     }
     
+    /**
+     * Measures the CPU time and the allocated memory of the current thread.
+     */
+    private static final class ResourceMeter {
+        private static ThreadMXBean threadBean;
+        private static com.sun.management.ThreadMXBean allocationBean;
+
+        private ResourceMeter() {
+            throw new AssertionError("Can't instantiate utility class");
+        }
+
+        /**
+         * Enables the measures supported by the JVM.
+         * @return Whether any measure is supported
+         */
+        /* package */ static synchronized boolean enable() {
+            threadBean = ManagementFactory.getThreadMXBean();
+            if (threadBean.isCurrentThreadCpuTimeSupported()) {
+                threadBean.setThreadCpuTimeEnabled(true);
+            }
+            try {
+                if (threadBean instanceof com.sun.management.ThreadMXBean) {
+                    allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+                    if (allocationBean.isThreadAllocatedMemorySupported()) {
+                        allocationBean.setThreadAllocatedMemoryEnabled(true);
+                    } else {
+                        allocationBean = null;
+                    }
+                }
+            } catch (final LinkageError e) {
+                // not a HotSpot based JVM
+                allocationBean = null;
+            }
+            return threadBean.isCurrentThreadCpuTimeSupported() || allocationBean != null;
+        }
+
+        /* package */ static long cpuNanos() {
+            return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : 0;
+        }
+
+        /* package */ static long allocatedBytes() {
+            return allocationBean == null ? 0 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * The times of the operations finished while a file is being analyzed.
+     */
+    /**
+     * A file tracked by a thread, see {@link #currentFile()}. The threads which joined it
+     * account their operations to it concurrently.
+     */
+    public static final class FileEntry {
+        /* package */ final String fileName;
+        /* package */ final Thread thread = Thread.currentThread();
+        /* package */ final long start;
+        /* package */ final long[] selfTimeNanos = new long[TimedOperationCategory.values().length];
+        /* package */ final Map<TimedOperationKey, Long> labeledTimeNanos = new HashMap<>();
+
+        /* package */ FileEntry(final String fileName) {
+            this.fileName = fileName;
+            this.start = System.nanoTime();
+        }
+
+        /* package */ synchronized void accumulate(final TimerEntry timerEntry, final long delta) {
+            selfTimeNanos[timerEntry.operation.category.ordinal()] += delta - timerEntry.inNestedOperationsNanos;
+            if (timerEntry.operation.label != null) {
+                final Long previous = labeledTimeNanos.get(timerEntry.operation);
+                labeledTimeNanos.put(timerEntry.operation, previous == null ? delta : previous + delta);
+            }
+        }
+    }
+
     /**
      * Aggregate results measured so far for a given category + label.
      */
     /* package */ static class TimedResult {
+        /** Number of files kept by {@link #offerFile(String, long)}. */
+        /* package */ static final int SLOWEST_FILES_COUNT = 10;
+
+        private static final Comparator<Map.Entry<String, Long>> BY_TIME = new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(final Map.Entry<String, Long> o1, final Map.Entry<String, Long> o2) {
+                return Long.compare(o1.getValue(), o2.getValue());
+            }
+        };
+
         /* package */ AtomicLong totalTimeNanos = new AtomicLong();
         /* package */ AtomicLong selfTimeNanos = new AtomicLong();
         /* package */ AtomicInteger callCount = new AtomicInteger();
         /* package */ AtomicLong extraDataCounter = new AtomicLong();
+        /* package */ AtomicLong totalCpuNanos = new AtomicLong();
+        /* package */ AtomicLong selfCpuNanos = new AtomicLong();
+        /* package */ AtomicLong totalAllocatedBytes = new AtomicLong();
+        /* package */ AtomicLong selfAllocatedBytes = new AtomicLong();
+        /* package */ final LatencyHistogram latencies = new LatencyHistogram();
+        private final PriorityQueue<Map.Entry<String, Long>> slowestFiles = new PriorityQueue<>(
+                SLOWEST_FILES_COUNT + 1, BY_TIME);
         
         /**
          * Adds a new {@link TimerEntry} to the results.
@@ -198,22 +401,59 @@ public final class TimeTracker {
          */
         /* package */ long accumulate(final TimerEntry timerEntry, final long extraData) {
             final long delta = System.nanoTime() - timerEntry.start;
+            if (trackResources) {
+                timerEntry.cpuNanos = ResourceMeter.cpuNanos() - timerEntry.startCpuNanos;
+                timerEntry.allocatedBytes = ResourceMeter.allocatedBytes() - timerEntry.startAllocatedBytes;
+                totalCpuNanos.getAndAdd(timerEntry.cpuNanos);
+                selfCpuNanos.getAndAdd(timerEntry.cpuNanos - timerEntry.inNestedCpuNanos);
+                totalAllocatedBytes.getAndAdd(timerEntry.allocatedBytes);
+                selfAllocatedBytes.getAndAdd(timerEntry.allocatedBytes - timerEntry.inNestedAllocatedBytes);
+            }
             
             totalTimeNanos.getAndAdd(delta);
             selfTimeNanos.getAndAdd(delta - timerEntry.inNestedOperationsNanos);
             callCount.getAndIncrement();
             extraDataCounter.getAndAdd(extraData);
+            latencies.record(delta);
             
             return delta;
         }
+
+        /**
+         * Keeps the file if it's one of the {@link #SLOWEST_FILES_COUNT} files on which
+         * the operation took the most time.
+         * @param fileName The name of the file
+         * @param nanos The time spent by the operation on the file
+         */
+        /* package */ synchronized void offerFile(final String fileName, final long nanos) {
+            slowestFiles.add(new SimpleImmutableEntry<>(fileName, nanos));
+            if (slowestFiles.size() > SLOWEST_FILES_COUNT) {
+                slowestFiles.poll();
+            }
+        }
+
+        /**
+         * Returns the files on which the operation took the most time, the slowest first.
+         * Only operations with a label are tracked by file.
+         * @return The file names with the time spent on them in nanos
+         */
+        /* package */ synchronized List<Map.Entry<String, Long>> getSlowestFiles() {
+            final List<Map.Entry<String, Long>> files = new ArrayList<>(slowestFiles);
+            Collections.sort(files, Collections.reverseOrder(BY_TIME));
+            return files;
+        }
         
         /**
-         * Merges the times (and only the times) from another {@link TimedResult} into self.
+         * Merges the times and allocations (but not the counts) from another {@link TimedResult} into self.
          * @param timedResult The {@link TimedResult} to merge
          */
         /* package */ void mergeTimes(final TimedResult timedResult) {
             totalTimeNanos.getAndAdd(timedResult.totalTimeNanos.get());
             selfTimeNanos.getAndAdd(timedResult.selfTimeNanos.get());
+            totalCpuNanos.getAndAdd(timedResult.totalCpuNanos.get());
+            selfCpuNanos.getAndAdd(timedResult.selfCpuNanos.get());
+            totalAllocatedBytes.getAndAdd(timedResult.totalAllocatedBytes.get());
+            selfAllocatedBytes.getAndAdd(timedResult.selfAllocatedBytes.get());
         }
     }
     
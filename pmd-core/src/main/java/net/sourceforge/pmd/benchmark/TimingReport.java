@@ -4,7 +4,9 @@
 
 package net.sourceforge.pmd.benchmark;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import net.sourceforge.pmd.benchmark.TimeTracker.TimedOperationKey;
@@ -18,10 +20,15 @@ public class TimingReport {
 
     private final long wallClockMillis;
     private final Map<TimedOperationKey, TimedResult> results;
+    private final List<FileTiming> fileTimings;
+    private final boolean resourcesTracked;
     
-    /* package */ TimingReport(final long wallClockMillis, final Map<TimedOperationKey, TimedResult> accumulatedResults) {
+    /* package */ TimingReport(final long wallClockMillis, final Map<TimedOperationKey, TimedResult> accumulatedResults,
+            final List<FileTiming> fileTimings, final boolean resourcesTracked) {
         this.wallClockMillis = wallClockMillis;
         results = accumulatedResults;
+        this.fileTimings = Collections.unmodifiableList(fileTimings);
+        this.resourcesTracked = resourcesTracked;
     }
     
     public Map<String, TimedResult> getLabeledMeasurements(final TimedOperationCategory category) {
@@ -51,4 +58,20 @@ public class TimingReport {
     public long getWallClockMillis() {
         return wallClockMillis;
     }
+
+    /**
+     * Returns whether the CPU time and the allocated memory of the operations were measured.
+     * @return True if they were, otherwise they are 0
+     */
+    public boolean isResourcesTracked() {
+        return resourcesTracked;
+    }
+
+    /**
+     * Returns the time spent on each analyzed file, in the order in which their analysis finished.
+     * @return The timings of the files
+     */
+    public List<FileTiming> getFileTimings() {
+        return fileTimings;
+    }
 }
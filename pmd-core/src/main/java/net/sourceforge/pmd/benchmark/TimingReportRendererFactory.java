@@ -0,0 +1,45 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates the {@link TimingReportRenderer} of a benchmark report format.
+ */
+public final class TimingReportRendererFactory {
+
+    /** The supported formats. */
+    public static final List<String> FORMATS = Collections.unmodifiableList(
+            Arrays.asList("text", "csv", "csvfiles", "json"));
+
+    private TimingReportRendererFactory() {
+        throw new AssertionError("Can't instantiate utility class");
+    }
+
+    /**
+     * Creates the renderer of the given format.
+     * @param format One of the {@link #FORMATS}
+     * @return The renderer
+     * @throws IllegalArgumentException if the format isn't supported
+     */
+    public static TimingReportRenderer createRenderer(final String format) {
+        switch (format) {
+        case "text":
+            return new TextTimingReportRenderer();
+        case "csv":
+            return new CsvTimingReportRenderer();
+        case "csvfiles":
+            return new CsvFileTimingReportRenderer();
+        case "json":
+            return new JsonTimingReportRenderer();
+        default:
+            throw new IllegalArgumentException("Unsupported benchmark format: " + format
+                    + ", expected one of " + FORMATS);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.pmd.RulePriority;
+import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.RuleSetNotFoundException;
+import net.sourceforge.pmd.RuleSetReferenceId;
+import net.sourceforge.pmd.RuleSets;
+import net.sourceforge.pmd.util.ResourceLoader;
+
+/**
+ * Ruleset factory which parses each ruleset reference string only once, and
+ * returns deep copies of the parsed rulesets afterwards. A ruleset is parsed
+ * again when one of the ruleset files it directly references was modified.
+ *
+ * <p>The copies returned without deprecation warnings share the cache.
+ */
+class CachingRuleSetFactory extends RuleSetFactory {
+
+    private final ResourceLoader resourceLoader;
+    private final RulePriority minimumPriority;
+    private final boolean enableCompatibility;
+    private final Map<String, CachedRuleSets> cache;
+
+    CachingRuleSetFactory(ResourceLoader resourceLoader, RulePriority minimumPriority, boolean enableCompatibility) {
+        this(resourceLoader, minimumPriority, true, enableCompatibility, new HashMap<String, CachedRuleSets>());
+    }
+
+    private CachingRuleSetFactory(ResourceLoader resourceLoader, RulePriority minimumPriority, boolean warnDeprecated,
+            boolean enableCompatibility, Map<String, CachedRuleSets> cache) {
+        super(resourceLoader, minimumPriority, warnDeprecated, enableCompatibility);
+        this.resourceLoader = resourceLoader;
+        this.minimumPriority = minimumPriority;
+        this.enableCompatibility = enableCompatibility;
+        this.cache = cache;
+    }
+
+    @Override
+    protected RuleSetFactory withoutDeprecationWarnings() {
+        return new CachingRuleSetFactory(resourceLoader, minimumPriority, false, enableCompatibility, cache);
+    }
+
+    @Override
+    public RuleSets createRuleSets(String referenceString) throws RuleSetNotFoundException {
+        CachedRuleSets cached;
+        synchronized (cache) {
+            cached = cache.get(referenceString);
+            if (cached == null || cached.isStale()) {
+                List<RuleSetReferenceId> ids = RuleSetReferenceId.parse(referenceString);
+                cached = new CachedRuleSets(createRuleSets(ids), ids);
+                cache.put(referenceString, cached);
+            }
+        }
+        return new RuleSets(cached.ruleSets);
+    }
+
+    /**
+     * Parsed rulesets, with the modification times of their files.
+     */
+    private static final class CachedRuleSets {
+
+        private final RuleSets ruleSets;
+        private final List<File> files = new ArrayList<>();
+        private final List<Long> lastModified = new ArrayList<>();
+
+        CachedRuleSets(RuleSets ruleSets, List<RuleSetReferenceId> ids) {
+            this.ruleSets = ruleSets;
+            for (RuleSetReferenceId id : ids) {
+                if (id.getRuleSetFileName() == null) {
+                    continue;
+                }
+                File file = new File(id.getRuleSetFileName());
+                if (file.isFile()) {
+                    files.add(file);
+                    lastModified.add(file.lastModified());
+                }
+            }
+        }
+
+        boolean isStale() {
+            for (int i = 0; i < files.size(); i++) {
+                if (files.get(i).lastModified() != lastModified.get(i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
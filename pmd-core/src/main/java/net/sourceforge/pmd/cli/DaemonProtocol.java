@@ -0,0 +1,117 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Framing of the responses of the {@link PMDDaemon}. A response is a sequence
+ * of frames, each made of a type byte, the length of the payload as a big
+ * endian int, and the payload:
+ * <ul>
+ *     <li>{@link #REPORT} frames carry the bytes of the report, which the
+ *     client writes as is;
+ *     <li>{@link #MESSAGE} frames carry UTF-8 text for the standard error of
+ *     the client, e.g. errors or the benchmark report;
+ *     <li>a single {@link #STATUS} frame ends the response, its payload is
+ *     the status PMD would have exited with.
+ * </ul>
+ */
+final class DaemonProtocol {
+
+    static final int REPORT = 'r';
+    static final int MESSAGE = 'm';
+    static final int STATUS = 's';
+
+    private DaemonProtocol() { }
+
+    /**
+     * Returns a stream which writes the bytes as frames of the given type.
+     * Closing the stream only flushes it.
+     */
+    static OutputStream frames(final DataOutputStream response, final int type) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                if (length > 0) {
+                    response.writeByte(type);
+                    response.writeInt(length);
+                    response.write(bytes, offset, length);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                response.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Writes the status frame, which ends the response, and flushes it.
+     */
+    static void writeStatus(DataOutputStream response, int status) throws IOException {
+        response.writeByte(STATUS);
+        response.writeInt(4);
+        response.writeInt(status);
+        response.flush();
+    }
+
+    /**
+     * Reads a response.
+     *
+     * @param response The response
+     * @param report   Where to write the report
+     * @param messages Where to write the messages
+     *
+     * @return The status of the response
+     *
+     * @throws IOException If the response is incomplete or malformed
+     */
+    static int read(DataInputStream response, OutputStream report, Writer messages) throws IOException {
+        byte[] buffer = new byte[8192];
+        // a character may be split between two frames, so the messages are decoded at the end
+        ByteArrayOutputStream messageBytes = new ByteArrayOutputStream();
+        try {
+            while (true) {
+                int type = response.readUnsignedByte();
+                int length = response.readInt();
+                if (type == STATUS && length == 4) {
+                    return response.readInt();
+                } else if (type != REPORT && type != MESSAGE || length < 0) {
+                    throw new IOException("Malformed response from the PMD daemon");
+                }
+                if (buffer.length < length) {
+                    buffer = new byte[length];
+                }
+                response.readFully(buffer, 0, length);
+                (type == REPORT ? report : messageBytes).write(buffer, 0, length);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Incomplete response from the PMD daemon", e);
+        } finally {
+            report.flush();
+            messages.write(new String(messageBytes.toByteArray(), StandardCharsets.UTF_8));
+            messages.flush();
+        }
+    }
+}
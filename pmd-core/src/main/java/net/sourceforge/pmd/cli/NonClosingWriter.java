@@ -0,0 +1,26 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer which is only flushed when closed, for renderers, which close their
+ * writer once done, writing to an output which goes on, like a socket or the
+ * standard output.
+ */
+class NonClosingWriter extends FilterWriter {
+
+    NonClosingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,394 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+
+import net.sourceforge.pmd.PMD;
+import net.sourceforge.pmd.PMDConfiguration;
+import net.sourceforge.pmd.benchmark.TextTimingReportRenderer;
+import net.sourceforge.pmd.benchmark.TimeTracker;
+import net.sourceforge.pmd.util.IOUtil;
+import net.sourceforge.pmd.util.ResourceLoader;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+
+/**
+ * Long running PMD process, which analyses sources on request of a
+ * {@link PMDDaemonClient}. The rulesets, the auxiliary classpath class loaders
+ * with their type resolution caches, the loaded languages and the JIT compiled
+ * code are kept between the requests, so that analysing a few files, e.g. in a
+ * pre-commit hook, doesn't pay for them each time.
+ *
+ * <p>The daemon listens on a port of the loopback interface. A request is
+ * made of the secret token of the daemon, then the usual PMD command line
+ * arguments, one per line, followed by an empty line. The response is made
+ * of frames, see {@link DaemonProtocol}: the bytes of the rendered report,
+ * encoded with the default charset like the command line does, the messages
+ * for the standard error of the client, e.g. errors and the benchmark report,
+ * and last the status PMD would have exited with. Requests are served one at
+ * a time, and a client has {@value #REQUEST_TIMEOUT} milliseconds to send its
+ * request. Logging happens on the console of the daemon.
+ *
+ * <p>As the daemon reads and writes files on behalf of its clients, only the
+ * user who started it may use it: the token is written to a file only this
+ * user can read, {@code ~/.pmd/daemon-<port>.token}, which the client sends
+ * back. The file is deleted when the daemon stops.
+ *
+ * <p>Usage: {@code PMDDaemon [-port <port>]}
+ *
+ * @since 6.4.0
+ */
+public class PMDDaemon {
+
+    /** Port the daemon listens on by default. */
+    public static final int DEFAULT_PORT = 4748;
+
+    /** Request which stops the daemon. */
+    public static final String STOP_REQUEST = "-stopdaemon";
+
+    /** Directory of the token files by default. */
+    static final File DEFAULT_TOKEN_DIRECTORY = new File(System.getProperty("user.home"), ".pmd");
+
+    /** Time a client has to send its request, in milliseconds. */
+    static final int REQUEST_TIMEOUT = 30000;
+
+    private static final Logger LOG = Logger.getLogger(PMDDaemon.class.getName());
+
+    private final ServerSocket serverSocket;
+    private final File tokenFile;
+    private final byte[] token;
+    private int requestTimeout = REQUEST_TIMEOUT;
+    private final Map<String, CachingRuleSetFactory> ruleSetFactories = new HashMap<>();
+    private final Map<String, ClassLoader> classLoaders = new HashMap<>();
+    /** The state of the files of the classpaths, when their class loader was created. */
+    private final Map<String, String> classpathStamps = new HashMap<>();
+
+    /**
+     * Creates a daemon listening on the given port of the loopback interface.
+     *
+     * @param port The port, or 0 for any free port
+     *
+     * @throws IOException If the port can't be bound, or the token can't be written
+     */
+    public PMDDaemon(int port) throws IOException {
+        this(port, DEFAULT_TOKEN_DIRECTORY);
+    }
+
+    /**
+     * Creates a daemon listening on the given port of the loopback interface,
+     * which writes its token in the given directory.
+     *
+     * @param port           The port, or 0 for any free port
+     * @param tokenDirectory The directory of the token file
+     *
+     * @throws IOException If the port can't be bound, or the token can't be written
+     */
+    public PMDDaemon(int port, File tokenDirectory) throws IOException {
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        tokenFile = tokenFile(tokenDirectory, getPort());
+        token = newToken().getBytes(StandardCharsets.UTF_8);
+        try {
+            writePrivately(tokenFile, token);
+        } catch (IOException e) {
+            IOUtils.closeQuietly(serverSocket);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the port this daemon listens on.
+     *
+     * @return The port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Serves requests until a stop request is received or {@link #stop()} is
+     * called.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                if (!handle(socket)) {
+                    stop();
+                }
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOG.log(Level.WARNING, "Failed to serve request", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops this daemon. A request being served is finished first.
+     */
+    public void stop() {
+        IOUtils.closeQuietly(serverSocket);
+        if (!tokenFile.delete() && tokenFile.exists()) {
+            LOG.warning("Failed to delete the token file " + tokenFile);
+        }
+    }
+
+    /* package */ void setRequestTimeout(int requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Returns the file where the daemon listening on the given port writes
+     * its token.
+     */
+    static File tokenFile(File tokenDirectory, int port) {
+        return new File(tokenDirectory, "daemon-" + port + ".token");
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder token = new StringBuilder(2 * bytes.length);
+        for (byte b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Writes the file so that only the current user can read it, in a
+     * directory only this user can list, if the file system supports it.
+     */
+    private static void writePrivately(File file, byte[] content) throws IOException {
+        Path directory = file.getParentFile().toPath();
+        Path path = file.toPath();
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            if (!Files.isDirectory(directory)) {
+                Files.createDirectories(directory,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            }
+            // the file is created with its permissions, so that it's never readable by others
+            Files.deleteIfExists(path);
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(path);
+            Files.createFile(path);
+            if (!(file.setReadable(false, false) && file.setReadable(true, true)
+                    && file.setWritable(false, false) && file.setWritable(true, true))) {
+                throw new IOException("Failed to restrict the permissions of " + file);
+            }
+        }
+        Files.write(path, content);
+    }
+
+    /**
+     * Serves a single request.
+     *
+     * @return false if the request was a stop request
+     */
+    private boolean handle(Socket socket) throws IOException {
+        // a client which doesn't send its request doesn't hold up the daemon
+        socket.setSoTimeout(requestTimeout);
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        DataOutputStream response = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        Writer messages = new OutputStreamWriter(DaemonProtocol.frames(response, DaemonProtocol.MESSAGE),
+                StandardCharsets.UTF_8);
+
+        String clientToken = reader.readLine();
+        if (clientToken == null || !MessageDigest.isEqual(token, clientToken.getBytes(StandardCharsets.UTF_8))) {
+            LOG.warning("Rejected a request with an invalid token");
+            messages.write("Invalid token, see " + tokenFile + PMD.EOL);
+            messages.flush();
+            DaemonProtocol.writeStatus(response, PMDCommandLineInterface.ERROR_STATUS);
+            return true;
+        }
+
+        List<String> args = new ArrayList<>();
+        for (String line = reader.readLine(); line != null && !line.isEmpty(); line = reader.readLine()) {
+            args.add(line);
+        }
+
+        boolean stopRequest = args.size() == 1 && STOP_REQUEST.equals(args.get(0));
+        int status = stopRequest ? 0 : run(args.toArray(new String[0]), response, messages);
+        messages.flush();
+        DaemonProtocol.writeStatus(response, status);
+        return !stopRequest;
+    }
+
+    private int run(String[] args, DataOutputStream response, Writer messages) throws IOException {
+        // like the command line, the report is encoded with the default charset
+        Writer report = new OutputStreamWriter(DaemonProtocol.frames(response, DaemonProtocol.REPORT),
+                Charset.defaultCharset());
+        PMDParameters params = new PMDParameters();
+        JCommander jcommander = new JCommander(params);
+        jcommander.setProgramName(PMDCommandLineInterface.PROG_NAME);
+        try {
+            jcommander.parse(args);
+        } catch (ParameterException e) {
+            messages.write(errorMessage(e) + PMD.EOL);
+            return PMDCommandLineInterface.ERROR_STATUS;
+        }
+        if (params.isHelp()) {
+            StringBuilder usage = new StringBuilder();
+            jcommander.usage(usage);
+            report.write(usage.toString());
+            report.flush();
+            return PMDCommandLineInterface.ERROR_STATUS;
+        }
+
+        if (params.isBenchmark()) {
+            TimeTracker.startGlobalTracking();
+        }
+        try {
+            PMDConfiguration configuration = params.toConfiguration();
+            configuration.setClassLoader(classLoader(params.getAuxclasspath(), configuration.getClassLoader()));
+
+            // closing the report only flushes it
+            int violations = PMD.doPMD(configuration, ruleSetFactory(configuration), report);
+            if (violations > 0 && configuration.isFailOnViolation()) {
+                return PMDCommandLineInterface.VIOLATIONS_FOUND;
+            }
+            return 0;
+        } catch (RuntimeException e) {
+            LOG.log(Level.FINE, "Exception during processing", e);
+            report.flush();
+            messages.write(errorMessage(e) + PMD.EOL);
+            return PMDCommandLineInterface.ERROR_STATUS;
+        } finally {
+            if (params.isBenchmark()) {
+                // the benchmark report goes to the standard error of the client, like on the command line
+                new TextTimingReportRenderer().render(TimeTracker.stopGlobalTracking(), messages);
+            }
+        }
+    }
+
+    /**
+     * Returns the message of the exception for the client, which some
+     * exceptions don't have.
+     */
+    private static String errorMessage(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : "Exception during processing: " + e;
+    }
+
+    /**
+     * Returns the class loader created for the same auxiliary classpath by a
+     * previous request, if any, and if none of the files of the classpath
+     * changed since, so that its type resolution caches are used again.
+     * Otherwise, the given new class loader is kept for later requests.
+     */
+    private ClassLoader classLoader(String auxclasspath, ClassLoader newClassLoader) {
+        if (auxclasspath == null) {
+            return newClassLoader;
+        }
+        String stamp = classpathStamp(newClassLoader);
+        ClassLoader classLoader = classLoaders.get(auxclasspath);
+        if (classLoader != null && stamp.equals(classpathStamps.get(auxclasspath))) {
+            IOUtil.tryCloseClassLoader(newClassLoader);
+            return classLoader;
+        }
+        if (classLoader != null) {
+            // e.g. a jar was rebuilt, its classes are loaded again
+            IOUtil.tryCloseClassLoader(classLoader);
+        }
+        classLoaders.put(auxclasspath, newClassLoader);
+        classpathStamps.put(auxclasspath, stamp);
+        return newClassLoader;
+    }
+
+    /**
+     * Returns the number, total size and last modification time of the files
+     * of each entry of the classpath of the class loader. Those of a directory
+     * include the files of its subdirectories.
+     */
+    private static String classpathStamp(ClassLoader classLoader) {
+        StringBuilder stamp = new StringBuilder();
+        if (!(classLoader instanceof URLClassLoader)) {
+            return stamp.toString();
+        }
+        for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+            // the number of files, their total size and their last modification time
+            final long[] files = new long[3];
+            try {
+                Files.walkFileTree(Paths.get(url.toURI()), new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        files[0]++;
+                        files[1] += attributes.size();
+                        files[2] = Math.max(files[2], attributes.lastModifiedTime().toMillis());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+                // a missing or remote entry, whose changes aren't tracked
+                LOG.log(Level.FINE, "Can't track the changes of the classpath entry " + url, e);
+            }
+            stamp.append(url).append(',').append(files[0]).append(',').append(files[1]).append(',')
+                    .append(files[2]).append(';');
+        }
+        return stamp.toString();
+    }
+
+    private CachingRuleSetFactory ruleSetFactory(PMDConfiguration configuration) {
+        String key = configuration.getMinimumPriority() + "," + configuration.isRuleSetFactoryCompatibilityEnabled();
+        CachingRuleSetFactory factory = ruleSetFactories.get(key);
+        if (factory == null) {
+            factory = new CachingRuleSetFactory(new ResourceLoader(), configuration.getMinimumPriority(),
+                    configuration.isRuleSetFactoryCompatibilityEnabled());
+            ruleSetFactories.put(key, factory);
+        }
+        return factory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        if (args.length == 2 && "-port".equals(args[0])) {
+            port = Integer.parseInt(args[1]);
+        } else if (args.length != 0) {
+            System.err.println("Usage: " + PMDDaemon.class.getName() + " [-port <port>]");
+            PMDCommandLineInterface.setStatusCodeOrExit(PMDCommandLineInterface.ERROR_STATUS);
+            return;
+        }
+
+        PMDDaemon daemon = new PMDDaemon(port);
+        LOG.info("PMD daemon listening on port " + daemon.getPort());
+        daemon.serve();
+    }
+}
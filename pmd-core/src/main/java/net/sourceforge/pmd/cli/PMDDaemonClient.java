@@ -0,0 +1,222 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+import net.sourceforge.pmd.util.FileUtil;
+
+/**
+ * Thin client of a {@link PMDDaemon}. It takes the usual PMD command line
+ * arguments, sends them to the daemon, and prints the report it gets back.
+ * The exit status is the one PMD would have exited with.
+ *
+ * <p>Relative paths of the sources, rulesets, file list, cache and auxiliary
+ * classpath are resolved against the working directory of the client, and
+ * the entries of the file list are sent as source paths. The report file
+ * is written by the client.
+ *
+ * <p>The client authenticates with the token the daemon wrote in the home
+ * directory of the user, see {@link PMDDaemon}.
+ *
+ * <p>Usage: {@code PMDDaemonClient [-port <port>] <pmd arguments>}, or
+ * {@code PMDDaemonClient [-port <port>] -stopdaemon} to stop the daemon.
+ *
+ * @since 6.4.0
+ */
+public final class PMDDaemonClient {
+
+    private PMDDaemonClient() { }
+
+    public static void main(String[] args) {
+        PMDCommandLineInterface.setStatusCodeOrExit(run(args));
+    }
+
+    /**
+     * Runs PMD with the given arguments on the daemon.
+     *
+     * @param args The PMD command line arguments, optionally preceded by
+     *             {@code -port <port>}
+     *
+     * @return The status PMD would have exited with
+     */
+    public static int run(String[] args) {
+        int port = PMDDaemon.DEFAULT_PORT;
+        int first = 0;
+        if (args.length >= 2 && "-port".equals(args[0])) {
+            port = Integer.parseInt(args[1]);
+            first = 2;
+        }
+
+        List<String> request = new ArrayList<>();
+        try {
+            String token = readToken(PMDDaemon.DEFAULT_TOKEN_DIRECTORY, port);
+            String reportFile = toRequest(args, first, request);
+            // the report is written as the daemon encoded it
+            OutputStream report = reportFile == null ? System.out
+                    : new BufferedOutputStream(new FileOutputStream(reportFile));
+            try {
+                return send(port, token, request, report, new OutputStreamWriter(System.err));
+            } finally {
+                // don't close the standard output
+                if (reportFile != null) {
+                    report.close();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return PMDCommandLineInterface.ERROR_STATUS;
+        }
+    }
+
+    /**
+     * Reads the token of the daemon listening on the given port.
+     *
+     * @throws IOException If the token file can't be read, e.g. if there's no daemon
+     */
+    static String readToken(File tokenDirectory, int port) throws IOException {
+        File tokenFile = PMDDaemon.tokenFile(tokenDirectory, port);
+        if (!tokenFile.isFile()) {
+            throw new IOException("No PMD daemon token found in " + tokenFile + ", is the daemon running?");
+        }
+        return new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends a request to the daemon, and writes the report and the messages
+     * of the response.
+     *
+     * @param report   Where to write the bytes of the report
+     * @param messages Where to write the messages, e.g. the errors
+     *
+     * @return The status of the response
+     */
+    static int send(int port, String token, List<String> request, OutputStream report, Writer messages)
+            throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            writer.write(token);
+            writer.write('\n');
+            for (String arg : request) {
+                writer.write(arg);
+                writer.write('\n');
+            }
+            writer.write('\n');
+            writer.flush();
+
+            return DaemonProtocol.read(new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+                    report, messages);
+        }
+    }
+
+    /**
+     * Turns the command line arguments into a request for the daemon.
+     *
+     * @return The report file, or null if the report goes to the standard output
+     */
+    static String toRequest(String[] args, int first, List<String> request) throws IOException {
+        List<String> sources = new ArrayList<>();
+        String reportFile = null;
+
+        int i = first;
+        while (i < args.length) {
+            String arg = args[i];
+            i++;
+            if (i == args.length) {
+                request.add(arg);
+                break;
+            }
+            String value = args[i];
+            switch (arg) {
+            case "-dir":
+            case "-d":
+                for (String path : value.split(",")) {
+                    sources.add(absolute(path));
+                }
+                break;
+            case "-filelist":
+                for (String path : FileUtil.readFilelist(new File(value)).split(",")) {
+                    if (!path.isEmpty()) {
+                        sources.add(absolute(path));
+                    }
+                }
+                break;
+            case "-reportfile":
+            case "-r":
+                reportFile = value;
+                break;
+            case "-rulesets":
+            case "-R":
+                request.add(arg);
+                request.add(rulesets(value));
+                break;
+            case "-cache":
+                request.add(arg);
+                request.add(absolute(value));
+                break;
+            case "-auxclasspath":
+                request.add(arg);
+                request.add(auxclasspath(value));
+                break;
+            default:
+                request.add(arg);
+                // other options and their values are passed as is
+                continue;
+            }
+            i++;
+        }
+
+        if (!sources.isEmpty()) {
+            request.add("-d");
+            request.add(StringUtils.join(sources, ','));
+        }
+        return reportFile;
+    }
+
+    private static String absolute(String path) {
+        return new File(path).getAbsolutePath();
+    }
+
+    /**
+     * Resolves the ruleset references which are existing files, and keeps
+     * the others, e.g. built-in rulesets.
+     */
+    private static String rulesets(String rulesets) {
+        List<String> resolved = new ArrayList<>();
+        for (String ruleset : rulesets.split(",")) {
+            resolved.add(new File(ruleset).exists() ? absolute(ruleset) : ruleset);
+        }
+        return StringUtils.join(resolved, ',');
+    }
+
+    private static String auxclasspath(String auxclasspath) {
+        if (auxclasspath.startsWith("file:")) {
+            return auxclasspath;
+        }
+        List<String> resolved = new ArrayList<>();
+        for (String entry : auxclasspath.split(File.pathSeparator)) {
+            resolved.add(absolute(entry));
+        }
+        return StringUtils.join(resolved, File.pathSeparator);
+    }
+}
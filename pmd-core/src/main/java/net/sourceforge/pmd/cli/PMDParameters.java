@@ -11,6 +11,7 @@ import java.util.Properties;
 
 import net.sourceforge.pmd.PMDConfiguration;
 import net.sourceforge.pmd.RulePriority;
+import net.sourceforge.pmd.benchmark.TimingReportRendererFactory;
 import net.sourceforge.pmd.lang.LanguageRegistry;
 import net.sourceforge.pmd.lang.LanguageVersion;
 
@@ -52,10 +53,35 @@ public class PMDParameters {
             validateWith = PositiveInteger.class)
     private int threads = 1;
 
+    // hidden until a built-in rule supports it
+    @Parameter(names = "-concurrentrules", hidden = true,
+            description = "Number of lines from which the rules supporting it are applied concurrently to a file; default is 0, which disables it.")
+    private int concurrentRules = 0;
+
+    @Parameter(names = "-filetimeout",
+            description = "Time budget in milliseconds of the analysis of a single file; default is 0, which disables it.")
+    private long fileTimeout = 0;
+
+    @Parameter(names = "-ruletimeout",
+            description = "Time budget in milliseconds of a single rule on a single file; default is 0, which disables it.")
+    private long ruleTimeout = 0;
+
     @Parameter(names = { "-benchmark", "-b" },
             description = "Benchmark mode - output a benchmark report upon completion; default to System.err.")
     private boolean benchmark = false;
 
+    @Parameter(names = "-benchmarkformat",
+            description = "Format of the benchmark report: text, csv (one row per operation), csvfiles (one row per file) or json.",
+            validateValueWith = BenchmarkFormatValidator.class)
+    private String benchmarkFormat = "text";
+
+    @Parameter(names = "-benchmarkresources",
+            description = "Also measure the CPU time and the memory allocated by each operation in benchmark mode.")
+    private boolean benchmarkResources = false;
+
+    @Parameter(names = "-benchmarkfile", description = "Sends the benchmark report to a file; default to System.err.")
+    private String benchmarkFile = null;
+
     @Parameter(names = { "-stress", "-S" }, description = "Performs a stress test.")
     private boolean stress = false;
 
@@ -106,6 +132,9 @@ public class PMDParameters {
     @Parameter(names = "-no-cache", description = "Explicitly disable incremental analysis. The '-cache' option is ignored if this switch is present in the command line.")
     private boolean noCache = false;
 
+    @Parameter(names = "-watch", description = "Keep running after the analysis, and analyze again the files which are created or modified.")
+    private boolean watch = false;
+
     // this has to be a public static class, so that JCommander can use it!
     public static class PropertyConverter implements IStringConverter<Properties> {
 
@@ -138,6 +167,18 @@ public class PMDParameters {
         }
     }
 
+    // this has to be a public static class, so that JCommander can use it!
+    public static class BenchmarkFormatValidator implements IValueValidator<String> {
+
+        @Override
+        public void validate(String name, String value) throws ParameterException {
+            if (!TimingReportRendererFactory.FORMATS.contains(value)) {
+                throw new ParameterException("Benchmark format must be one of " + TimingReportRendererFactory.FORMATS
+                        + ", " + value + " is not valid");
+            }
+        }
+    }
+
     /** @deprecated Will be removed in 7.0.0 */
     @Deprecated
     public static class RulePriorityConverter implements IStringConverter<RulePriority> {
@@ -188,6 +229,9 @@ public class PMDParameters {
         configuration.setStressTest(this.isStress());
         configuration.setSuppressMarker(this.getSuppressmarker());
         configuration.setThreads(this.getThreads());
+        configuration.setConcurrentRulesThreshold(this.getConcurrentRules());
+        configuration.setFileTimeoutMillis(this.getFileTimeout());
+        configuration.setRuleTimeoutMillis(this.getRuleTimeout());
         configuration.setFailOnViolation(this.isFailOnViolation());
         configuration.setAnalysisCacheLocation(this.cacheLocation);
         configuration.setIgnoreIncrementalAnalysis(this.isIgnoreIncrementalAnalysis());
@@ -211,6 +255,11 @@ public class PMDParameters {
     }
 
 
+    public boolean isWatch() {
+        return watch;
+    }
+
+
     /**
      * {@link #toConfiguration()}.
      * @deprecated To be removed in 7.0.0. Use the instance method {@link #toConfiguration()}.
@@ -236,10 +285,34 @@ public class PMDParameters {
         return threads;
     }
 
+    public int getConcurrentRules() {
+        return concurrentRules;
+    }
+
+    public long getFileTimeout() {
+        return fileTimeout;
+    }
+
+    public long getRuleTimeout() {
+        return ruleTimeout;
+    }
+
     public boolean isBenchmark() {
         return benchmark;
     }
 
+    public String getBenchmarkFormat() {
+        return benchmarkFormat;
+    }
+
+    public boolean isBenchmarkResources() {
+        return benchmarkResources;
+    }
+
+    public String getBenchmarkFile() {
+        return benchmarkFile;
+    }
+
     public boolean isStress() {
         return stress;
     }
@@ -0,0 +1,276 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import net.sourceforge.pmd.PMD;
+import net.sourceforge.pmd.PMDConfiguration;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RuleSets;
+import net.sourceforge.pmd.RulesetsFactoryUtils;
+import net.sourceforge.pmd.lang.Language;
+import net.sourceforge.pmd.lang.LanguageFilenameFilter;
+import net.sourceforge.pmd.renderers.Renderer;
+import net.sourceforge.pmd.util.IOUtil;
+import net.sourceforge.pmd.util.ResourceLoader;
+import net.sourceforge.pmd.util.datasource.DataSource;
+import net.sourceforge.pmd.util.datasource.FileDataSource;
+
+/**
+ * Watch mode: analyzes the configured sources, then keeps watching them and
+ * analyzes again the files which are created or modified. The rulesets and
+ * the analysis cache stay in memory between the analyses.
+ *
+ * <p>Changes are collected until no other change happens during the debounce
+ * delay, so that a burst of saves leads to a single analysis. The report of
+ * each analysis only covers the changed files, and is rendered with the
+ * configured renderer. When the rulesets change, or when changes were lost
+ * by the file system, all the files are analyzed again.
+ *
+ * <p>Only the source directories and files given as input paths are watched.
+ *
+ * @since 6.4.0
+ */
+public class PMDWatcher {
+
+    /** Default time without any change before the changed files are analyzed. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    private static final Logger LOG = Logger.getLogger(PMDWatcher.class.getName());
+
+    private final PMDConfiguration configuration;
+    private final long debounceMillis;
+    private final CachingRuleSetFactory ruleSetFactory;
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final List<Path> rootDirectories = new ArrayList<>();
+    private final Set<Path> rootFiles = new HashSet<>();
+
+    private LanguageFilenameFilter languageFilter;
+    private long ruleSetsChecksum;
+
+    /**
+     * Creates a watcher for the sources of the given configuration.
+     *
+     * @param configuration  The configuration, with input paths
+     * @param debounceMillis Time without any change before the changed
+     *                       files are analyzed
+     *
+     * @throws IOException If the file system can't be watched
+     */
+    public PMDWatcher(PMDConfiguration configuration, long debounceMillis) throws IOException {
+        if (configuration.getInputPaths() == null) {
+            throw new IllegalArgumentException("The watch mode needs source directories or files (-dir or -d).");
+        }
+        this.configuration = configuration;
+        this.debounceMillis = debounceMillis;
+        this.ruleSetFactory = new CachingRuleSetFactory(new ResourceLoader(), configuration.getMinimumPriority(),
+                configuration.isRuleSetFactoryCompatibilityEnabled());
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Analyzes all the files, then the changed files until {@link #stop()}
+     * is called.
+     *
+     * @throws IOException If the sources can't be watched
+     * @throws InterruptedException If interrupted while waiting for changes
+     */
+    public void watch() throws IOException, InterruptedException {
+        for (String input : configuration.getInputPaths().split(",")) {
+            Path path = Paths.get(input).toAbsolutePath().normalize();
+            if (Files.isDirectory(path)) {
+                rootDirectories.add(path);
+                registerAll(path, null);
+            } else {
+                rootFiles.add(path);
+                register(path.getParent());
+            }
+        }
+
+        analyzeAll();
+
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+                boolean lostChanges = false;
+                while (key != null) {
+                    lostChanges |= collect(key, changed);
+                    key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                }
+                analyzeChanges(changed, lostChanges);
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOG.fine("Watch mode stopped");
+        }
+    }
+
+    /**
+     * Stops watching. An analysis in progress is finished first.
+     */
+    public void stop() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to stop watching", e);
+        }
+    }
+
+    private void analyzeChanges(Set<Path> changed, boolean lostChanges) {
+        try {
+            if (lostChanges || rulesetsChanged()) {
+                analyzeAll();
+                return;
+            }
+
+            List<DataSource> files = new ArrayList<>();
+            for (Path path : changed) {
+                File file = path.toFile();
+                if (file.isFile() && languageFilter.accept(file.getParentFile(), file.getName())) {
+                    files.add(new FileDataSource(file));
+                }
+            }
+            if (!files.isEmpty()) {
+                analyze(files);
+            }
+        } catch (RuntimeException e) {
+            // keep watching, the next change may fix the problem
+            LOG.log(Level.SEVERE, "Analysis failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void analyzeAll() {
+        RuleSets ruleSets = RulesetsFactoryUtils.getRuleSets(configuration.getRuleSets(), ruleSetFactory);
+        ruleSetsChecksum = ruleSets.getChecksum();
+        Set<Language> languages = PMD.getApplicableLanguages(configuration, ruleSets);
+        languageFilter = new LanguageFilenameFilter(languages);
+        analyze(PMD.getApplicableFiles(configuration, languages));
+    }
+
+    private boolean rulesetsChanged() {
+        return RulesetsFactoryUtils.getRuleSets(configuration.getRuleSets(), ruleSetFactory)
+                .getChecksum() != ruleSetsChecksum;
+    }
+
+    private void analyze(List<DataSource> files) {
+        try {
+            Renderer renderer = configuration.createRenderer();
+            Writer writer = StringUtils.isBlank(configuration.getReportFile())
+                    ? new NonClosingWriter(IOUtil.createWriter())
+                    : IOUtil.createWriter(configuration.getReportFile());
+            renderer.setWriter(writer);
+            renderer.start();
+            PMD.processFiles(configuration, ruleSetFactory, files, new RuleContext(),
+                    Collections.singletonList(renderer));
+            renderer.end();
+            renderer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        LOG.info("Analyzed " + files.size() + " file(s)");
+    }
+
+    /**
+     * Adds the changed files of the key to the set, and starts watching the
+     * new directories.
+     *
+     * @return true if changes were lost
+     */
+    private boolean collect(WatchKey key, Set<Path> changed) throws IOException {
+        boolean lostChanges = false;
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                lostChanges = true;
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (!isWatched(path)) {
+                continue;
+            }
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                // files may have been created before the directory was registered
+                registerAll(path, changed);
+            } else {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return lostChanges;
+    }
+
+    private boolean isWatched(Path path) {
+        if (rootFiles.contains(path)) {
+            return true;
+        }
+        for (Path root : rootDirectories) {
+            if (path.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers the directory and its subdirectories, adding their files to
+     * the given set, if any.
+     */
+    private void registerAll(Path start, final Set<Path> files) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                register(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (files != null) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(Path directory) throws IOException {
+        directories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), directory);
+    }
+}
@@ -30,7 +30,8 @@ public class ParserOptions {
             return false;
         }
         final ParserOptions that = (ParserOptions) obj;
-        return this.suppressMarker.equals(that.suppressMarker);
+        return this.suppressMarker == null ? that.suppressMarker == null
+                : this.suppressMarker.equals(that.suppressMarker);
     }
 
     @Override
@@ -5,6 +5,7 @@
 package net.sourceforge.pmd.lang.ast;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -23,6 +24,7 @@ import net.sourceforge.pmd.PMDVersion;
 import net.sourceforge.pmd.lang.ast.xpath.Attribute;
 import net.sourceforge.pmd.lang.ast.xpath.DocumentNavigator;
 import net.sourceforge.pmd.lang.dfa.DataFlowNode;
+import net.sourceforge.pmd.lang.dfa.LazyDataFlowNode;
 
 
 /**
@@ -32,6 +34,12 @@ public abstract class AbstractNode implements Node {
 
     private static final Logger LOG = Logger.getLogger(AbstractNode.class.getName());
 
+    private static final int DATA_FLOW_NODE = 0;
+    private static final int USER_DATA = 1;
+    private static final int TYPE_INDEX = 2;
+    /** The first index of the {@linkplain #getExtra(int) extras} available to subclasses. */
+    protected static final int FIRST_SUBCLASS_EXTRA = 3;
+
 
     protected Node parent;
     protected Node[] children;
@@ -43,8 +51,14 @@ public abstract class AbstractNode implements Node {
     protected int endLine;
     protected int beginColumn = -1;
     protected int endColumn;
-    private DataFlowNode dataFlowNode;
-    private Object userData;
+    /**
+     * The attributes set on few nodes, e.g. the data flow node, which are
+     * kept out of the nodes to make them smaller. Allocated when the first
+     * of them is set.
+     */
+    private Object[] extras;
+    /** The number of the node in the {@link NodeTypeIndex} of its AST. */
+    /* package */ int typeIndexNumber;
     protected GenericToken firstToken;
     protected GenericToken lastToken;
 
@@ -87,6 +101,7 @@ public abstract class AbstractNode implements Node {
 
     @Override
     public void jjtAddChild(Node child, int index) {
+        dropTypeIndex();
         if (children == null) {
             children = new Node[index + 1];
         } else if (index >= children.length) {
@@ -184,18 +199,53 @@ public abstract class AbstractNode implements Node {
 
     @Override
     public DataFlowNode getDataFlowNode() {
-        if (this.dataFlowNode == null) {
+        DataFlowNode dataFlowNode = (DataFlowNode) getExtra(DATA_FLOW_NODE);
+        if (dataFlowNode == null) {
             if (this.parent != null) {
-                return parent.getDataFlowNode();
+                DataFlowNode inherited = parent.getDataFlowNode();
+                // asking the parent may have built a graph which covers this node
+                dataFlowNode = (DataFlowNode) getExtra(DATA_FLOW_NODE);
+                return dataFlowNode == null ? inherited : dataFlowNode;
             }
             return null; // TODO wise?
         }
+        if (dataFlowNode instanceof LazyDataFlowNode) {
+            return ((LazyDataFlowNode) dataFlowNode).build();
+        }
         return dataFlowNode;
     }
 
     @Override
     public void setDataFlowNode(DataFlowNode dataFlowNode) {
-        this.dataFlowNode = dataFlowNode;
+        setExtra(DATA_FLOW_NODE, dataFlowNode);
+    }
+
+    /**
+     * Returns an attribute set on few nodes.
+     *
+     * @param index The index of the attribute, subclasses use the indexes
+     *              from {@link #FIRST_SUBCLASS_EXTRA}
+     * @return The attribute, or null if it was not set
+     */
+    protected Object getExtra(int index) {
+        return extras != null && index < extras.length ? extras[index] : null;
+    }
+
+    /**
+     * Sets an attribute set on few nodes, which is stored out of the node.
+     *
+     * @param index The index of the attribute, subclasses use the indexes
+     *              from {@link #FIRST_SUBCLASS_EXTRA}
+     * @param value The attribute, null to clear it
+     */
+    protected void setExtra(int index, Object value) {
+        if (extras == null || index >= extras.length) {
+            if (value == null) {
+                return;
+            }
+            extras = extras == null ? new Object[index + 1] : Arrays.copyOf(extras, index + 1);
+        }
+        extras[index] = value;
     }
 
 
@@ -256,20 +306,99 @@ public abstract class AbstractNode implements Node {
     @Override
     public <T> List<T> findDescendantsOfType(Class<T> targetType) {
         List<T> list = new ArrayList<>();
-        findDescendantsOfType(this, targetType, list, false);
+        findDescendantsOfType(targetType, list, false);
         return list;
     }
 
     // TODO : Add to Node interface in 7.0.0
     public <T> List<T> findDescendantsOfType(final Class<T> targetType, final boolean crossBoundaries) {
         final List<T> list = new ArrayList<>();
-        findDescendantsOfType(this, targetType, list, crossBoundaries);
+        findDescendantsOfType(targetType, list, crossBoundaries);
         return list;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>In a complete AST, i.e. below a {@link RootNode}, the descendants
+     * are looked up in an index of the nodes by type, shared by the queries
+     * on all the nodes of the AST. The index is built by {@link #buildTypeIndex()}
+     * before the rules are applied, or else on the first query.
+     */
     @Override
     public <T> void findDescendantsOfType(Class<T> targetType, List<T> results, boolean crossBoundaries) {
-        findDescendantsOfType(this, targetType, results, crossBoundaries);
+        NodeTypeIndex index = getTypeIndex();
+        if (index == null || !index.findDescendantsOfType(this, targetType, results, crossBoundaries)) {
+            findDescendantsOfType(this, targetType, results, crossBoundaries);
+        }
+    }
+
+    /**
+     * Builds the index of the nodes by type of this AST, used by the
+     * {@linkplain #findDescendantsOfType(Class, List, boolean) descendant queries}.
+     * This is called on the root node before the rules are applied, so that
+     * the rules applied concurrently share a fully built index, instead of
+     * racing to build it on their first query. The index is built again
+     * lazily if the AST is modified, which is only safe when the AST is not
+     * queried concurrently.
+     */
+    public void buildTypeIndex() {
+        getTypeIndex();
+    }
+
+    /**
+     * Returns the number of this node in the preorder numbering of its AST,
+     * which is assigned with the {@linkplain #buildTypeIndex() type index}.
+     * The descendants of the node are numbered from this number + 1 to
+     * {@link #getSubtreeEndNumber()}.
+     *
+     * @return The number, or -1 if this node is not in a complete AST
+     */
+    public int getPreorderNumber() {
+        NodeTypeIndex index = getTypeIndex();
+        return index == null ? -1 : index.numberOf(this);
+    }
+
+    /**
+     * Returns the {@linkplain #getPreorderNumber() preorder number} of the
+     * last node of the subtree of this node, i.e. of this node if it has no
+     * children.
+     *
+     * @return The number, or -1 if this node is not in a complete AST
+     */
+    public int getSubtreeEndNumber() {
+        NodeTypeIndex index = getTypeIndex();
+        int number = index == null ? -1 : index.numberOf(this);
+        return number < 0 ? -1 : index.subtreeEnd(number);
+    }
+
+    /**
+     * Returns the type index of the AST, built if needed, or null if this
+     * node is not in a complete AST.
+     */
+    private NodeTypeIndex getTypeIndex() {
+        AbstractNode root = getTopNode();
+        if (root.parent != null || !(root instanceof RootNode)) {
+            return null;
+        }
+        NodeTypeIndex index = (NodeTypeIndex) root.getExtra(TYPE_INDEX);
+        if (index == null) {
+            index = NodeTypeIndex.build(root);
+            root.setExtra(TYPE_INDEX, index);
+        }
+        return index;
+    }
+
+    private void dropTypeIndex() {
+        getTopNode().setExtra(TYPE_INDEX, null);
+    }
+
+    private AbstractNode getTopNode() {
+        AbstractNode top = this;
+        while (top.parent instanceof AbstractNode) {
+            top = (AbstractNode) top.parent;
+        }
+        return top;
     }
 
     private static <T> void findDescendantsOfType(Node node, Class<T> targetType, List<T> results,
@@ -435,13 +564,13 @@ public abstract class AbstractNode implements Node {
 
     @Override
     public Object getUserData() {
-        return userData;
+        return getExtra(USER_DATA);
     }
 
 
     @Override
     public void setUserData(Object userData) {
-        this.userData = userData;
+        setExtra(USER_DATA, userData);
     }
 
     public GenericToken jjtGetFirstToken() {
@@ -475,6 +604,7 @@ public abstract class AbstractNode implements Node {
     @Override
     public void removeChildAtIndex(final int childIndex) {
         if (0 <= childIndex && childIndex < jjtGetNumChildren()) {
+            dropTypeIndex();
             // Remove the child at the given index
             children = ArrayUtils.remove(children, childIndex);
             // Update the remaining & left-shifted children indexes
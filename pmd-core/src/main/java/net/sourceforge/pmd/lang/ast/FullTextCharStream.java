@@ -0,0 +1,213 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.ast;
+
+import java.io.CharArrayReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A {@link CharStream} over the whole decoded text of a source, which is
+ * read at once. Unlike the streams generated by JavaCC, it doesn't track
+ * the line and column of each character read: they are computed when asked,
+ * from a table of the offsets of the lines. The images of the short tokens
+ * are shared across files, see {@link TokenImagePool}.
+ *
+ * <p>The lines and columns are the ones of the JavaCC streams: lines end
+ * with {@code \n}, {@code \r} or {@code \r\n}, and tabs move to the next tab
+ * stop. Java unicode escapes are not decoded, see
+ * {@link #withJavaUnicodeEscapes(Reader)}.
+ */
+public class FullTextCharStream implements CharStream {
+
+    private static final int DEFAULT_TAB_SIZE = 8;
+
+    private final char[] text;
+    private final int tabSize;
+
+    /** The offset of the first character of each line. */
+    private int[] lineOffsets = new int[64];
+    private int lineCount;
+    /** The lines with tabs, whose columns are computed character by character. */
+    private final BitSet linesWithTabs = new BitSet();
+    /** The line of the last position asked, as tokens are mostly asked in order. */
+    private int lastLine;
+
+    private int tokenBegin = -1;
+    private int position = -1;
+
+    public FullTextCharStream(Reader reader) {
+        this(reader, DEFAULT_TAB_SIZE);
+    }
+
+    public FullTextCharStream(Reader reader, int tabSize) {
+        this(read(reader), tabSize);
+    }
+
+    public FullTextCharStream(char[] text, int tabSize) {
+        this.text = text;
+        this.tabSize = tabSize;
+        indexLines();
+    }
+
+    /**
+     * Returns a stream for a source which may contain Java unicode escapes,
+     * i.e. a backslash, a {@code u} and four hexadecimal digits. The few
+     * sources which contain escapes are read by a {@link JavaCharStream},
+     * which decodes them.
+     *
+     * @param reader The source
+     *
+     * @return The stream
+     */
+    public static CharStream withJavaUnicodeEscapes(Reader reader) {
+        char[] text = read(reader);
+        if (mayContainUnicodeEscape(text)) {
+            return new JavaCharStream(new CharArrayReader(text));
+        }
+        return new FullTextCharStream(text, DEFAULT_TAB_SIZE);
+    }
+
+    private static char[] read(Reader reader) {
+        try {
+            return IOUtils.toCharArray(reader);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static boolean mayContainUnicodeEscape(char[] text) {
+        for (int i = 0; i < text.length - 1; i++) {
+            if (text[i] == '\\' && text[i + 1] == 'u') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void indexLines() {
+        addLine(0);
+        for (int i = 0; i < text.length; i++) {
+            char c = text[i];
+            if (c == '\t') {
+                linesWithTabs.set(lineCount - 1);
+            } else if (c == '\n' || c == '\r' && (i + 1 == text.length || text[i + 1] != '\n')) {
+                addLine(i + 1);
+            }
+        }
+    }
+
+    private void addLine(int offset) {
+        if (lineCount == lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, lineCount * 2);
+        }
+        lineOffsets[lineCount++] = offset;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        if (position + 1 >= text.length) {
+            throw new EOFException();
+        }
+        position++;
+        return text[position];
+    }
+
+    @Override
+    public char BeginToken() throws IOException {
+        // at the end of the text, the token starts on the last character
+        tokenBegin = position;
+        char c = readChar();
+        tokenBegin = position;
+        return c;
+    }
+
+    @Override
+    public void backup(int amount) {
+        position -= amount;
+    }
+
+    @Override
+    public String GetImage() {
+        return TokenImagePool.get(text, tokenBegin, position - tokenBegin + 1);
+    }
+
+    @Override
+    public char[] GetSuffix(int len) {
+        return Arrays.copyOfRange(text, position - len + 1, position + 1);
+    }
+
+    @Override
+    public void Done() {
+        // nothing to release, the text is needed by the positions
+    }
+
+    @Override
+    @Deprecated
+    public int getColumn() {
+        return getEndColumn();
+    }
+
+    @Override
+    @Deprecated
+    public int getLine() {
+        return getEndLine();
+    }
+
+    @Override
+    public int getEndColumn() {
+        return columnAt(position);
+    }
+
+    @Override
+    public int getEndLine() {
+        return lineAt(position);
+    }
+
+    @Override
+    public int getBeginColumn() {
+        return columnAt(tokenBegin);
+    }
+
+    @Override
+    public int getBeginLine() {
+        return lineAt(tokenBegin);
+    }
+
+    private int lineAt(int offset) {
+        return offset < 0 ? 1 : lineIndex(offset) + 1;
+    }
+
+    private int columnAt(int offset) {
+        if (offset < 0) {
+            return 0;
+        }
+        int line = lineIndex(offset);
+        int lineOffset = lineOffsets[line];
+        if (!linesWithTabs.get(line)) {
+            return offset - lineOffset + 1;
+        }
+        int column = 0;
+        for (int i = lineOffset; i <= offset; i++) {
+            column += text[i] == '\t' ? tabSize - column % tabSize : 1;
+        }
+        return column;
+    }
+
+    private int lineIndex(int offset) {
+        if (offset >= lineOffsets[lastLine]
+                && (lastLine + 1 == lineCount || offset < lineOffsets[lastLine + 1])) {
+            return lastLine;
+        }
+        int index = Arrays.binarySearch(lineOffsets, 0, lineCount, offset);
+        lastLine = index < 0 ? -index - 2 : index;
+        return lastLine;
+    }
+}
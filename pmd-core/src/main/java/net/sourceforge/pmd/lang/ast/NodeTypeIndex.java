@@ -0,0 +1,158 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.ast;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the nodes of an AST by type, built for the root node before the
+ * rules are applied, and shared by the queries of all the rules on the file.
+ * The index is immutable once built, so the rules applied concurrently may
+ * query it.
+ *
+ * <p>The nodes are numbered in preorder, so that the descendants of a node
+ * are numbered from the number of the node + 1 to the end of its subtree.
+ * The descendants of some type are then a range of the sorted numbers of
+ * the nodes of that type, found with a binary search.
+ *
+ * <p>The index is dropped when the AST is modified.
+ */
+final class NodeTypeIndex {
+
+    /** The index of ASTs with nodes which are not {@link AbstractNode}s. */
+    /* package */ static final NodeTypeIndex UNAVAILABLE = new NodeTypeIndex(0);
+
+    private final AbstractNode[] nodes;
+    /** The number of the last node of the subtree of each node. */
+    private final int[] subtreeEnds;
+    /** The number of the nearest find boundary ancestor of each node, -1 if none. */
+    private final int[] boundaryAncestors;
+    private final Map<Class<?>, Numbers> numbersByType = new HashMap<>();
+    private int size;
+
+    private NodeTypeIndex(int nodeCount) {
+        nodes = new AbstractNode[nodeCount];
+        subtreeEnds = new int[nodeCount];
+        boundaryAncestors = new int[nodeCount];
+    }
+
+    /**
+     * Indexes the AST of the given root.
+     *
+     * @return The index, {@link #UNAVAILABLE} if the AST can't be indexed
+     */
+    /* package */ static NodeTypeIndex build(AbstractNode root) {
+        int nodeCount = count(root);
+        if (nodeCount < 0) {
+            return UNAVAILABLE;
+        }
+        NodeTypeIndex index = new NodeTypeIndex(nodeCount);
+        index.add(root, -1);
+        return index;
+    }
+
+    /**
+     * Returns the number of nodes of the subtree, or -1 if some are not
+     * {@link AbstractNode}s.
+     */
+    private static int count(AbstractNode node) {
+        int count = 1;
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            Node child = node.jjtGetChild(i);
+            int childCount = child instanceof AbstractNode ? count((AbstractNode) child) : -1;
+            if (childCount < 0) {
+                return -1;
+            }
+            count += childCount;
+        }
+        return count;
+    }
+
+    private void add(AbstractNode node, int boundaryAncestor) {
+        int number = size++;
+        nodes[number] = node;
+        boundaryAncestors[number] = boundaryAncestor;
+        node.typeIndexNumber = number;
+
+        Numbers numbers = numbersByType.get(node.getClass());
+        if (numbers == null) {
+            numbers = new Numbers();
+            numbersByType.put(node.getClass(), numbers);
+        }
+        numbers.add(number);
+
+        int childBoundaryAncestor = node.isFindBoundary() ? number : boundaryAncestor;
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            add((AbstractNode) node.jjtGetChild(i), childBoundaryAncestor);
+        }
+        subtreeEnds[number] = size - 1;
+    }
+
+    /**
+     * Returns the preorder number of the node, or -1 if it is not indexed.
+     */
+    /* package */ int numberOf(AbstractNode node) {
+        int number = node.typeIndexNumber;
+        return number < size && nodes[number] == node ? number : -1;
+    }
+
+    /**
+     * Returns the number of the last node of the subtree of the node with the
+     * given number.
+     */
+    /* package */ int subtreeEnd(int number) {
+        return subtreeEnds[number];
+    }
+
+    /**
+     * Adds the descendants of the node which have exactly the given type to
+     * the results, in preorder, like {@link AbstractNode#findDescendantsOfType(Class, List, boolean)}.
+     *
+     * @return false if the node is not indexed, the results are then unchanged
+     */
+    /* package */ <T> boolean findDescendantsOfType(AbstractNode node, Class<T> targetType, List<T> results,
+            boolean crossFindBoundaries) {
+        int number = numberOf(node);
+        if (number < 0) {
+            return false;
+        }
+
+        Numbers numbers = numbersByType.get(targetType);
+        if (numbers == null) {
+            return true;
+        }
+        int end = subtreeEnds[number];
+        int first = Arrays.binarySearch(numbers.values, 0, numbers.size, number + 1);
+        if (first < 0) {
+            first = -first - 1;
+        }
+        for (int i = first; i < numbers.size && numbers.values[i] <= end; i++) {
+            int descendant = numbers.values[i];
+            // the nearest boundary is either above the node, or between the node and the descendant
+            if (crossFindBoundaries || boundaryAncestors[descendant] <= number) {
+                results.add(targetType.cast(nodes[descendant]));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The sorted numbers of the nodes of a type.
+     */
+    private static final class Numbers {
+        private int[] values = new int[4];
+        private int size;
+
+        /* default */ void add(int number) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = number;
+        }
+    }
+}
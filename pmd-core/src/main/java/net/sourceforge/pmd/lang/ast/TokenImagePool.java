@@ -0,0 +1,74 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.ast;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A pool of the images of short tokens, shared by all the files and threads,
+ * so that the identifiers found in many files, e.g. {@code String} or
+ * {@code equals}, are allocated once, and retained once by the ASTs.
+ *
+ * <p>The pool is a lock-free, direct-mapped cache of fixed size: an image is
+ * stored in the single slot chosen by its hash code, and a miss replaces the
+ * image stored there before, however often it was used. It never grows. The
+ * images which collide on a slot evict each other, and only the last one
+ * written stays in the pool, so an image is only shared while no other image
+ * of the same slot has been seen since.
+ */
+final class TokenImagePool {
+
+    /** Longer images are mostly literals and comments, which are seldom repeated. */
+    private static final int MAX_LENGTH = 64;
+    private static final int SLOT_BITS = 14;
+
+    private static final AtomicReferenceArray<String> SLOTS = new AtomicReferenceArray<>(1 << SLOT_BITS);
+
+    private TokenImagePool() {
+    }
+
+    /**
+     * Returns the string of the given characters, from the pool if it
+     * contains it.
+     *
+     * @param text   The characters
+     * @param offset The offset of the image in the characters
+     * @param length The length of the image
+     *
+     * @return The image
+     */
+    /* package */ static String get(char[] text, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(text, offset, length);
+        }
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + text[i];
+        }
+        // spread the high bits like HashMap, as the slots use the low bits
+        int slot = (hash ^ hash >>> 16) & (SLOTS.length() - 1);
+
+        String pooled = SLOTS.get(slot);
+        if (pooled != null && regionEquals(pooled, text, offset, length)) {
+            return pooled;
+        }
+        String image = new String(text, offset, length);
+        SLOTS.set(slot, image);
+        return image;
+    }
+
+    private static boolean regionEquals(String pooled, char[] text, int offset, int length) {
+        if (pooled.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (pooled.charAt(i) != text[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -108,7 +108,8 @@ public class AttributeAxisIterator implements Iterator<Attribute> {
         = new HashSet<>(Arrays.<Class<?>>asList(Integer.TYPE, Boolean.TYPE, Double.TYPE, String.class, Long.TYPE, Character.TYPE, Float.TYPE));
     
     private static final Set<String> FILTERED_OUT_NAMES 
-        = new HashSet<>(Arrays.asList("toString", "getClass", "getXPathNodeName", "getTypeNameNode", "hashCode", "getImportedNameNode", "getScope"));
+        = new HashSet<>(Arrays.asList("toString", "getClass", "getXPathNodeName", "getTypeNameNode", "hashCode", "getImportedNameNode", "getScope",
+                "getPreorderNumber", "getSubtreeEndNumber"));
     
     protected boolean isAttributeAccessor(Method method) {
         String methodName = method.getName();
@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
 
 /**
  * @author daniels
@@ -30,6 +31,8 @@ public abstract class NodeIterator implements Iterator<Node> {
         if (node == null) {
             throw new NoSuchElementException();
         }
+        // XPath queries may run for long on large files
+        AnalysisWatchdog.checkTimeout();
         Node ret = node;
         node = getNextNode(node);
         return ret;
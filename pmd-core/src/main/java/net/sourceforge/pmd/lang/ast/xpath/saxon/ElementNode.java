@@ -5,6 +5,7 @@
 package net.sourceforge.pmd.lang.ast.xpath.saxon;
 
 import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
 
 import net.sf.saxon.om.Axis;
 import net.sf.saxon.om.AxisIterator;
@@ -104,6 +105,8 @@ public class ElementNode extends AbstractNodeInfo {
     @SuppressWarnings("PMD.MissingBreakInSwitch")
     @Override
     public AxisIterator iterateAxis(byte axisNumber) {
+        // XPath queries may run for long on large files
+        AnalysisWatchdog.checkTimeout();
         switch (axisNumber) {
         case Axis.ANCESTOR:
             return new Navigator.AncestorEnumeration(this, false);
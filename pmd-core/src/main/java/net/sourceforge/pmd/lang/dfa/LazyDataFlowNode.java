@@ -0,0 +1,128 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.dfa;
+
+import java.util.List;
+
+import net.sourceforge.pmd.benchmark.TimeTracker;
+import net.sourceforge.pmd.benchmark.TimedOperation;
+import net.sourceforge.pmd.benchmark.TimedOperationCategory;
+import net.sourceforge.pmd.lang.VisitorStarter;
+import net.sourceforge.pmd.lang.ast.Node;
+
+/**
+ * Placeholder data flow node attached to a method-like node whose data flow
+ * graph has not been built yet. The graph is built with the given builder the
+ * first time it is needed, which replaces this placeholder on the node.
+ *
+ * <p>{@link net.sourceforge.pmd.lang.ast.AbstractNode#getDataFlowNode()}
+ * never returns a placeholder, so rules only ever see the built graph.
+ * Calls made directly on this object are delegated to the built node.
+ *
+ * @since 6.4.0
+ */
+public class LazyDataFlowNode implements DataFlowNode {
+
+    private final Node node;
+    private final VisitorStarter builder;
+    private DataFlowNode built;
+
+    /**
+     * Creates a placeholder for the given node.
+     *
+     * @param node    The method-like node the graph is built for
+     * @param builder Builds the data flow graph when started on the node
+     */
+    public LazyDataFlowNode(Node node, VisitorStarter builder) {
+        this.node = node;
+        this.builder = builder;
+    }
+
+    /**
+     * Builds the data flow graph of the node, if that was not done already.
+     *
+     * @return The data flow node now attached to the node
+     */
+    public DataFlowNode build() {
+        if (built == null) {
+            try (TimedOperation to = TimeTracker.startOperation(TimedOperationCategory.DFA)) {
+                node.setDataFlowNode(null);
+                builder.start(node);
+            }
+            built = node.getDataFlowNode();
+        }
+        return built;
+    }
+
+    @Override
+    public List<VariableAccess> getVariableAccess() {
+        return build().getVariableAccess();
+    }
+
+    @Override
+    public int getLine() {
+        return build().getLine();
+    }
+
+    @Override
+    public int getIndex() {
+        return build().getIndex();
+    }
+
+    @Override
+    public boolean isType(NodeType type) {
+        return build().isType(type);
+    }
+
+    @Override
+    public void setType(NodeType type) {
+        build().setType(type);
+    }
+
+    @Override
+    public List<DataFlowNode> getChildren() {
+        return build().getChildren();
+    }
+
+    @Override
+    public List<DataFlowNode> getParents() {
+        return build().getParents();
+    }
+
+    @Override
+    public List<DataFlowNode> getFlow() {
+        return build().getFlow();
+    }
+
+    @Override
+    public Node getNode() {
+        return node;
+    }
+
+    @Override
+    public void setVariableAccess(List<VariableAccess> variableAccess) {
+        build().setVariableAccess(variableAccess);
+    }
+
+    @Override
+    public void addPathToChild(DataFlowNode child) {
+        build().addPathToChild(child);
+    }
+
+    @Override
+    public boolean removePathToChild(DataFlowNode child) {
+        return build().removePathToChild(child);
+    }
+
+    @Override
+    public void reverseParentPathsTo(DataFlowNode destination) {
+        build().reverseParentPathsTo(destination);
+    }
+
+    @Override
+    public String toString() {
+        return built == null ? "Lazy node (not built)" : built.toString();
+    }
+}
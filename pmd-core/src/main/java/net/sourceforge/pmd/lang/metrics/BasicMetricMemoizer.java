@@ -4,13 +4,13 @@
 
 package net.sourceforge.pmd.lang.metrics;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sourceforge.pmd.lang.ast.Node;
 
 /**
- * Basic implementation of a metric memoizer.
+ * Basic implementation of a metric memoizer. It is safe to use from several threads.
  *
  * @param <N> Type of node on which the memoized metric can be computed
  *
@@ -20,7 +20,7 @@ import net.sourceforge.pmd.lang.ast.Node;
 public class BasicMetricMemoizer<N extends Node> implements MetricMemoizer<N> {
 
 
-    private final Map<ParameterizedMetricKey<N>, Double> memo = new HashMap<>();
+    private final Map<ParameterizedMetricKey<N>, Double> memo = new ConcurrentHashMap<>();
 
 
     @Override
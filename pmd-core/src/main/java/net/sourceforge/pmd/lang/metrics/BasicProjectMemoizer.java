@@ -4,9 +4,13 @@
 
 package net.sourceforge.pmd.lang.metrics;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.WeakHashMap;
 
+import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.ast.QualifiableNode;
 import net.sourceforge.pmd.lang.ast.QualifiedName;
 
@@ -14,7 +18,9 @@ import net.sourceforge.pmd.lang.ast.QualifiedName;
  * Simple implementation of a project memoizer. Memoizers are accessible in constant time, provided the QualifiedName's
  * hashCode is well distributed.
  *
- * <p>This implementation takes care of recollecting irrelevant memoizers by storing them in {@link WeakHashMap}.
+ * <p>This implementation takes care of recollecting irrelevant memoizers by storing them in {@link WeakHashMap}s.
+ * The memoizers are spread over several independently locked segments, so that threads analysing different files
+ * rarely contend on the same lock.
  *
  * @param <T> Type of type declaration nodes of the language
  * @param <O> Type of operation declaration nodes of the language
@@ -25,39 +31,67 @@ import net.sourceforge.pmd.lang.ast.QualifiedName;
 public abstract class BasicProjectMemoizer<T extends QualifiableNode, O extends QualifiableNode>
     implements ProjectMemoizer<T, O> {
 
-    private Map<QualifiedName, MetricMemoizer<T>> classes = new WeakHashMap<>();
-    private Map<QualifiedName, MetricMemoizer<O>> operations = new WeakHashMap<>();
+    /** Number of segments of each map, must be a power of two. */
+    private static final int SEGMENT_COUNT = 16;
+
+    private final List<Map<QualifiedName, MetricMemoizer<T>>> classes = createSegments();
+    private final List<Map<QualifiedName, MetricMemoizer<O>>> operations = createSegments();
 
-    private final Object classesSynchronizer = new Object();
-    private final Object operationsSynchronizer = new Object();
 
     /** Clears all memoizers. Used for tests. */
     public void reset() {
-        classes.clear();
-        operations.clear();
+        clearSegments(classes);
+        clearSegments(operations);
     }
 
 
     @Override
     public MetricMemoizer<O> getOperationMemoizer(QualifiedName qname) {
-        synchronized (operationsSynchronizer) {
-            if (!operations.containsKey(qname)) {
-                operations.put(qname, new BasicMetricMemoizer<O>());
-            }
-        }
-
-        return operations.get(qname);
+        return getOrCreateMemoizer(operations, qname);
     }
 
 
     @Override
     public MetricMemoizer<T> getClassMemoizer(QualifiedName qname) {
-        synchronized (classesSynchronizer) {
-            if (!classes.containsKey(qname)) {
-                classes.put(qname, new BasicMetricMemoizer<T>());
+        return getOrCreateMemoizer(classes, qname);
+    }
+
+
+    private static <N extends Node> MetricMemoizer<N> getOrCreateMemoizer(
+            List<Map<QualifiedName, MetricMemoizer<N>>> segments, QualifiedName qname) {
+        Map<QualifiedName, MetricMemoizer<N>> segment = segmentFor(segments, qname);
+        synchronized (segment) {
+            MetricMemoizer<N> memoizer = segment.get(qname);
+            if (memoizer == null) {
+                memoizer = new BasicMetricMemoizer<>();
+                segment.put(qname, memoizer);
             }
+            return memoizer;
+        }
+    }
+
+
+    private static <V> Map<QualifiedName, V> segmentFor(List<Map<QualifiedName, V>> segments, QualifiedName qname) {
+        int hash = Objects.hashCode(qname);
+        hash ^= hash >>> 16; // the low bits select the segment
+        return segments.get(hash & (SEGMENT_COUNT - 1));
+    }
+
+
+    private static <V> List<Map<QualifiedName, V>> createSegments() {
+        List<Map<QualifiedName, V>> segments = new ArrayList<>(SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments.add(new WeakHashMap<QualifiedName, V>());
         }
+        return segments;
+    }
+
 
-        return classes.get(qname);
+    private static <V> void clearSegments(List<Map<QualifiedName, V>> segments) {
+        for (Map<QualifiedName, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
     }
 }
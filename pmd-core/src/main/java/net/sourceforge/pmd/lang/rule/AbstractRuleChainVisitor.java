@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import net.sourceforge.pmd.Report;
 import net.sourceforge.pmd.Rule;
 import net.sourceforge.pmd.RuleContext;
 import net.sourceforge.pmd.RuleSet;
@@ -20,6 +21,8 @@ import net.sourceforge.pmd.benchmark.TimeTracker;
 import net.sourceforge.pmd.benchmark.TimedOperation;
 import net.sourceforge.pmd.benchmark.TimedOperationCategory;
 import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.processor.AnalysisTimeoutException;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
 
 /**
  * This is a base class for RuleChainVisitor implementations which extracts
@@ -78,11 +81,13 @@ public abstract class AbstractRuleChainVisitor implements RuleChainVisitor {
                     if (!RuleSet.applies(rule, ctx.getLanguageVersion())) {
                         continue;
                     }
+                    AnalysisWatchdog.startRule(rule.getName());
                     try (TimedOperation rcto = TimeTracker.startOperation(TimedOperationCategory.RULECHAIN_RULE, rule.getName())) {
                         final List<String> nodeNames = rule.getRuleChainVisits();
                         for (int j = 0; j < nodeNames.size(); j++) {
                             List<Node> ns = nodeNameToNodes.get(nodeNames.get(j));
                             for (Node node : ns) {
+                                AnalysisWatchdog.checkTimeout();
                                 // Visit with underlying Rule, not the RuleReference
                                 Rule actualRule = rule;
                                 while (actualRule instanceof RuleReference) {
@@ -93,6 +98,14 @@ public abstract class AbstractRuleChainVisitor implements RuleChainVisitor {
                             visits += ns.size();
                         }
                         rcto.close(visits);
+                    } catch (AnalysisTimeoutException e) {
+                        // a timeout of the file stops its analysis, the one of a rule only this rule
+                        if (e.isFileTimeout() || !ctx.isIgnoreExceptions()) {
+                            throw e;
+                        }
+                        ctx.getReport().addError(new Report.ProcessingError(e, ctx.getSourceCodeFilename()));
+                    } finally {
+                        AnalysisWatchdog.finishRule();
                     }
                 }
             }
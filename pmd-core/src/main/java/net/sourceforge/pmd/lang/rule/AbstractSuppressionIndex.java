@@ -0,0 +1,179 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.lang.ast.AbstractNode;
+import net.sourceforge.pmd.lang.ast.Node;
+
+/**
+ * Index of the nodes of a file which suppress violations, e.g. with a
+ * SuppressWarnings annotation. A rule is suppressed at a node if the node or
+ * one of its ancestors suppresses it.
+ *
+ * <p>The index is built once per file, at the first lookup, by collecting the
+ * suppressing nodes. If there are some, they are located with the
+ * {@linkplain AbstractNode#getPreorderNumber() preorder numbering} of the
+ * AST: the subtree of a node is the range of numbers from the node to its
+ * last descendant. A lookup binary searches the last suppressing node which
+ * starts before the node, and then only follows the links to the enclosing
+ * suppressing nodes, instead of walking up the ancestors of the node.
+ * Whether a suppressing node suppresses a rule is only computed once per rule
+ * name. The suppressing nodes are collected and numbered again if the AST is
+ * modified.
+ *
+ * <p>The index is thread-safe, as the rules of a file may be applied
+ * concurrently.
+ */
+public abstract class AbstractSuppressionIndex {
+
+    private final Node root;
+
+    /** The suppressing nodes, in document order, guarded by this index. */
+    private List<Suppressor> suppressors;
+    /** The number of the last node of the tree when the suppressors were collected. */
+    private int numberedEnd;
+
+    /**
+     * Creates the index of the tree.
+     *
+     * @param root The root of the tree
+     */
+    protected AbstractSuppressionIndex(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns true if the node may suppress some rules. This is only called
+     * once per node when the index is built, and should be cheap.
+     */
+    protected abstract boolean canSuppress(Node node);
+
+    /**
+     * Returns true if the node suppresses the rule. This is only called for
+     * the nodes which {@link #canSuppress(Node) may suppress rules}.
+     */
+    protected abstract boolean suppresses(Node node, Rule rule);
+
+    /**
+     * Returns true if the rule is suppressed at the node, by the node itself
+     * or by one of its ancestors.
+     *
+     * @param node A node of the tree
+     * @param rule The rule
+     */
+    public boolean isSuppressed(Node node, Rule rule) {
+        List<Suppressor> suppressors = getSuppressors();
+        if (suppressors.isEmpty()) {
+            return false;
+        }
+
+        int number = node instanceof AbstractNode ? ((AbstractNode) node).getPreorderNumber() : -1;
+        if (number < 0 || suppressors.get(0).first < 0) {
+            // not a numbered node, e.g. added after the index was built
+            return isSuppressedByAncestors(node, rule);
+        }
+        // the suppressors which contain the node all enclose the last one starting before it
+        for (Suppressor suppressor = lastStartingBefore(suppressors, number); suppressor != null;
+                suppressor = suppressor.parent) {
+            if (number <= suppressor.last && suppressor.suppresses(rule)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the last suppressor whose node has a number lower or equal to
+     * the given one, null if none.
+     */
+    private static Suppressor lastStartingBefore(List<Suppressor> suppressors, int number) {
+        int low = 0;
+        int high = suppressors.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (suppressors.get(middle).first <= number) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high < 0 ? null : suppressors.get(high);
+    }
+
+    private boolean isSuppressedByAncestors(Node node, Rule rule) {
+        for (Node current = node; current != null; current = current.jjtGetParent()) {
+            if (canSuppress(current) && suppresses(current, rule)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized List<Suppressor> getSuppressors() {
+        int end = getEndNumber();
+        if (suppressors == null || numberedEnd != end) {
+            // first lookup, or the tree was renumbered after a modification
+            List<Suppressor> found = new ArrayList<>();
+            collectSuppressors(root, null, found);
+            suppressors = found.isEmpty() ? Collections.<Suppressor>emptyList() : found;
+            numberedEnd = end;
+        }
+        return suppressors;
+    }
+
+    private int getEndNumber() {
+        return root instanceof AbstractNode ? ((AbstractNode) root).getSubtreeEndNumber() : -1;
+    }
+
+    private void collectSuppressors(Node node, Suppressor enclosing, List<Suppressor> found) {
+        Suppressor current = enclosing;
+        if (canSuppress(node)) {
+            // added before the descendants, to keep the document order
+            current = new Suppressor(node, enclosing);
+            found.add(current);
+        }
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            collectSuppressors(node.jjtGetChild(i), current, found);
+        }
+    }
+
+    private final class Suppressor {
+        private final Node node;
+        /** The closest suppressor among the ancestors of the node, null if none. */
+        private final Suppressor parent;
+        /** The preorder numbers of the node and of its last descendant, -1 if not numbered. */
+        private final int first;
+        private final int last;
+        private final Map<String, Boolean> suppressedRules = new HashMap<>();
+
+        Suppressor(Node node, Suppressor parent) {
+            this.node = node;
+            this.parent = parent;
+            if (node instanceof AbstractNode) {
+                first = ((AbstractNode) node).getPreorderNumber();
+                last = ((AbstractNode) node).getSubtreeEndNumber();
+            } else {
+                first = -1;
+                last = -1;
+            }
+        }
+
+        synchronized boolean suppresses(Rule rule) {
+            Boolean result = suppressedRules.get(rule.getName());
+            if (result == null) {
+                result = AbstractSuppressionIndex.this.suppresses(node, rule);
+                suppressedRules.put(rule.getName(), result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.rule;
+
+/**
+ * Marker interface for rules which can be applied to a file concurrently with
+ * the other rules, see {@link net.sourceforge.pmd.PMDConfiguration#getConcurrentRulesThreshold()}.
+ *
+ * <p>Such a rule must not modify the AST, and must only use what was computed
+ * before the rules are applied, e.g. the symbol table, qualified names and
+ * types. In particular, it must not use the data flow graph, which is built on
+ * demand. The rule instance itself is never used by several threads at once,
+ * and reports its violations as usual.
+ *
+ * <p>Rule chain rules are always applied sequentially.
+ *
+ * @since 6.4.0
+ */
+public interface ConcurrentRule {
+}
@@ -6,6 +6,7 @@ package net.sourceforge.pmd.lang.symboltable;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -20,6 +21,10 @@ public abstract class AbstractScope implements Scope {
     private Scope parent;
     /** Stores the name declaration already sorted by class. */
     private Map<Class<? extends NameDeclaration>, Map<NameDeclaration, List<NameOccurrence>>> nameDeclarations = new LinkedHashMap<>();
+    /** Stores the name declarations by image, so that a name is found without comparing it to every declaration. */
+    private Map<String, List<NameDeclaration>> nameDeclarationsByImage = new HashMap<>();
+    /** All the name declarations, merged when first asked after a declaration is added. */
+    private Map<NameDeclaration, List<NameOccurrence>> allNameDeclarations;
 
     @Override
     public Scope getParent() {
@@ -31,15 +36,61 @@ public abstract class AbstractScope implements Scope {
         this.parent = parent;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The map is unmodifiable, and shared by the calls until a declaration
+     * is added.
+     */
     @Override
     public Map<NameDeclaration, List<NameOccurrence>> getDeclarations() {
-        Map<NameDeclaration, List<NameOccurrence>> result = new LinkedHashMap<>();
-        for (Map<NameDeclaration, List<NameOccurrence>> e : nameDeclarations.values()) {
-            result.putAll(e);
+        if (allNameDeclarations == null) {
+            Map<NameDeclaration, List<NameOccurrence>> result = new LinkedHashMap<>();
+            for (Map<NameDeclaration, List<NameOccurrence>> e : nameDeclarations.values()) {
+                result.putAll(e);
+            }
+            allNameDeclarations = Collections.unmodifiableMap(result);
+        }
+        return allNameDeclarations;
+    }
+
+    /**
+     * Gets the declarations of this scope with the given image, in the order
+     * they were added. The list is the one of the scope, and must not be
+     * modified.
+     *
+     * @param image
+     *            the image of the declarations
+     * @return the declarations, an empty list if there are none
+     */
+    public List<NameDeclaration> getDeclarationsByImage(String image) {
+        List<NameDeclaration> result = nameDeclarationsByImage.get(image);
+        if (result == null) {
+            return Collections.emptyList();
         }
         return result;
     }
 
+    /**
+     * Finds the first declaration of the given type with the given image,
+     * like an {@link ImageFinderFunction} applied to
+     * {@link #getDeclarations(Class)}.
+     *
+     * @param clazz
+     *            the type of the declaration
+     * @param image
+     *            the image of the declaration
+     * @return the declaration, or <code>null</code> if there's none
+     */
+    public <T extends NameDeclaration> T findDeclarationByImage(Class<T> clazz, String image) {
+        for (NameDeclaration declaration : getDeclarationsByImage(image)) {
+            if (clazz.isInstance(declaration)) {
+                return clazz.cast(declaration);
+            }
+        }
+        return null;
+    }
+
     @Override
     public <T extends NameDeclaration> Map<T, List<NameOccurrence>> getDeclarations(Class<T> clazz) {
         @SuppressWarnings("unchecked")
@@ -52,12 +103,7 @@ public abstract class AbstractScope implements Scope {
 
     @Override
     public boolean contains(NameOccurrence occ) {
-        for (NameDeclaration d : getDeclarations().keySet()) {
-            if (d.getImage().equals(occ.getImage())) {
-                return true;
-            }
-        }
-        return false;
+        return occ.getImage() != null && !getDeclarationsByImage(occ.getImage()).isEmpty();
     }
 
     @Override
@@ -67,7 +113,17 @@ public abstract class AbstractScope implements Scope {
             declarationsPerClass = new LinkedHashMap<>();
             nameDeclarations.put(declaration.getClass(), declarationsPerClass);
         }
+        // an equal declaration already added stays the key
+        if (!declarationsPerClass.containsKey(declaration)) {
+            List<NameDeclaration> declarationsPerImage = nameDeclarationsByImage.get(declaration.getImage());
+            if (declarationsPerImage == null) {
+                declarationsPerImage = new ArrayList<>(1);
+                nameDeclarationsByImage.put(declaration.getImage(), declarationsPerImage);
+            }
+            declarationsPerImage.add(declaration);
+        }
         declarationsPerClass.put(declaration, new ArrayList<NameOccurrence>());
+        allNameDeclarations = null;
     }
 
     @SuppressWarnings("unchecked")
@@ -86,10 +142,10 @@ public abstract class AbstractScope implements Scope {
     @Override
     public Set<NameDeclaration> addNameOccurrence(NameOccurrence occurrence) {
         Set<NameDeclaration> result = new HashSet<>();
-        for (Map.Entry<NameDeclaration, List<NameOccurrence>> e : getDeclarations().entrySet()) {
-            if (e.getKey().getImage().equals(occurrence.getImage())) {
-                result.add(e.getKey());
-                e.getValue().add(occurrence);
+        if (occurrence.getImage() != null) {
+            for (NameDeclaration declaration : getDeclarationsByImage(occurrence.getImage())) {
+                result.add(declaration);
+                nameDeclarations.get(declaration.getClass()).get(declaration).add(occurrence);
             }
         }
         return result;
@@ -0,0 +1,31 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.processor;
+
+/**
+ * Thrown by {@link AnalysisWatchdog#checkTimeout()} when the analysis of a
+ * file, or a rule applied to it, exceeded its time budget.
+ */
+public class AnalysisTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean fileTimeout;
+
+    /* package */ AnalysisTimeoutException(String message, boolean fileTimeout) {
+        super(message);
+        this.fileTimeout = fileTimeout;
+    }
+
+    /**
+     * Returns whether the whole file exceeded its budget, in which case its
+     * analysis must be stopped, rather than a single rule.
+     *
+     * @return True for the budget of the file, false for the budget of a rule
+     */
+    public boolean isFileTimeout() {
+        return fileTimeout;
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.processor;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Enforces the time budgets of the analysis of a file and of each rule
+ * applied to it, so that a pathological file can't block a thread forever.
+ *
+ * <p>The analysis of a file is registered with
+ * {@link #startFile(String, long, long)}, and a watchdog thread marks it as
+ * timed out once it exceeds a budget. The analysis is stopped cooperatively,
+ * when the next call to {@link #checkTimeout()} throws an
+ * {@link AnalysisTimeoutException}. Such calls are placed in the loops which
+ * may run for long, e.g. the traversal of the AST by visitors and XPath
+ * queries, so they only cost a thread local lookup and an atomic read.
+ *
+ * <p>The threads which help analyze a file, e.g. by applying rules
+ * concurrently, {@link #join(Budget) join} its budget: the budget of the file
+ * is shared, and each thread has its own rule budget.
+ *
+ * <p>The budgets are enforced with a granularity of {@value #CHECK_INTERVAL_MILLIS} ms.
+ */
+public final class AnalysisWatchdog {
+
+    /** Interval between two checks of the budgets by the watchdog thread. */
+    public static final long CHECK_INTERVAL_MILLIS = 50;
+
+    private static final Logger LOG = Logger.getLogger(AnalysisWatchdog.class.getName());
+
+    private static final ThreadLocal<Watch> CURRENT = new ThreadLocal<>();
+    private static final Set<Watch> ACTIVE = Collections.newSetFromMap(new ConcurrentHashMap<Watch, Boolean>());
+    private static Thread watchdogThread;
+
+    private AnalysisWatchdog() {
+        throw new AssertionError("Can't instantiate utility class");
+    }
+
+    /**
+     * Starts enforcing budgets on the analysis of a file by the current thread.
+     * Does nothing if both budgets are 0.
+     *
+     * @param fileName         The name of the file, for the messages
+     * @param fileBudgetMillis The budget of the whole file, 0 for none
+     * @param ruleBudgetMillis The budget of each rule on the file, 0 for none
+     */
+    public static void startFile(String fileName, long fileBudgetMillis, long ruleBudgetMillis) {
+        if (fileBudgetMillis <= 0 && ruleBudgetMillis <= 0) {
+            return;
+        }
+        ensureWatchdogStarted();
+        join(new Budget(fileName, fileBudgetMillis, ruleBudgetMillis));
+    }
+
+    /**
+     * Returns the budget of the file analyzed by the current thread, to be
+     * {@link #join(Budget) joined} by the threads which help analyze it.
+     *
+     * @return The budget, or null if the file has none
+     */
+    public static Budget currentBudget() {
+        Watch watch = CURRENT.get();
+        return watch == null ? null : watch.budget;
+    }
+
+    /**
+     * Starts enforcing the budget of a file analyzed by another thread on the
+     * current thread, until {@link #finishFile()} is called. The budgets the
+     * current thread enforced before are enforced again after that.
+     *
+     * @param budget The budget, see {@link #currentBudget()}, or null for none
+     */
+    public static void join(Budget budget) {
+        if (budget == null) {
+            return;
+        }
+        Watch watch = new Watch(budget, CURRENT.get());
+        CURRENT.set(watch);
+        ACTIVE.add(watch);
+    }
+
+    /**
+     * Stops enforcing the budgets of the file analyzed by the current thread.
+     */
+    public static void finishFile() {
+        Watch watch = CURRENT.get();
+        if (watch != null) {
+            ACTIVE.remove(watch);
+            if (watch.previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(watch.previous);
+            }
+        }
+    }
+
+    /**
+     * Starts the budget of a rule, if the file analyzed by the current thread
+     * has a rule budget.
+     *
+     * @param ruleName The name of the rule
+     */
+    public static void startRule(String ruleName) {
+        Watch watch = CURRENT.get();
+        if (watch != null) {
+            watch.startRule(ruleName);
+        }
+    }
+
+    /**
+     * Stops the budget of the current rule. A rule timeout which wasn't
+     * noticed by the rule is forgotten.
+     */
+    public static void finishRule() {
+        Watch watch = CURRENT.get();
+        if (watch != null) {
+            watch.finishRule();
+        }
+    }
+
+    /**
+     * Checks whether the analysis of the current thread exceeded a budget.
+     *
+     * @throws AnalysisTimeoutException If it did
+     */
+    public static void checkTimeout() {
+        Watch watch = CURRENT.get();
+        if (watch != null) {
+            AnalysisTimeoutException timeout = watch.budget.timeout.get();
+            if (timeout == null) {
+                timeout = watch.ruleTimeout.get();
+            }
+            if (timeout != null) {
+                // created by the watchdog thread, thrown with the stack trace of the analysis
+                throw new AnalysisTimeoutException(timeout.getMessage(), timeout.isFileTimeout());
+            }
+        }
+    }
+
+    private static synchronized void ensureWatchdogStarted() {
+        if (watchdogThread != null) {
+            return;
+        }
+        watchdogThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        Thread.sleep(CHECK_INTERVAL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    for (Watch watch : ACTIVE) {
+                        watch.check(now);
+                    }
+                }
+            }
+        }, "PMD Analysis Watchdog");
+        watchdogThread.setDaemon(true);
+        watchdogThread.start();
+    }
+
+    /**
+     * The budgets of the analysis of a file, shared by the threads which
+     * analyze it. The deadline is in {@link System#nanoTime()} units.
+     */
+    public static final class Budget {
+        private final String fileName;
+        private final long fileBudgetMillis;
+        private final long fileDeadline;
+        private final long ruleBudgetNanos;
+        /* default */ final AtomicReference<AnalysisTimeoutException> timeout = new AtomicReference<>();
+
+        /* default */ Budget(String fileName, long fileBudgetMillis, long ruleBudgetMillis) {
+            this.fileName = fileName;
+            this.fileBudgetMillis = fileBudgetMillis;
+            this.fileDeadline = fileBudgetMillis > 0
+                    ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fileBudgetMillis) : Long.MAX_VALUE;
+            this.ruleBudgetNanos = TimeUnit.MILLISECONDS.toNanos(ruleBudgetMillis);
+        }
+
+        /* default */ void check(long now) {
+            if (fileDeadline != Long.MAX_VALUE && now - fileDeadline > 0 && timeout.get() == null) {
+                AnalysisTimeoutException e = new AnalysisTimeoutException("Analysis of " + fileName
+                        + " exceeded its budget of " + fileBudgetMillis + " ms", true);
+                // logged once, even if several threads analyze the file
+                if (timeout.compareAndSet(null, e)) {
+                    LOG.warning(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * The budget of a file enforced on a thread, with the deadline of the
+     * rule applied by this thread, in {@link System#nanoTime()} units.
+     */
+    private static final class Watch {
+        /* default */ final Budget budget;
+        /** The budgets enforced by the thread before joining this one. */
+        /* default */ final Watch previous;
+        private String ruleName;
+        private long ruleDeadline = Long.MAX_VALUE;
+        /* default */ final AtomicReference<AnalysisTimeoutException> ruleTimeout = new AtomicReference<>();
+
+        /* default */ Watch(Budget budget, Watch previous) {
+            this.budget = budget;
+            this.previous = previous;
+        }
+
+        /* default */ synchronized void startRule(String name) {
+            if (budget.ruleBudgetNanos > 0) {
+                ruleName = name;
+                ruleDeadline = System.nanoTime() + budget.ruleBudgetNanos;
+            }
+        }
+
+        /* default */ synchronized void finishRule() {
+            ruleDeadline = Long.MAX_VALUE;
+            ruleTimeout.set(null);
+        }
+
+        /* default */ synchronized void check(long now) {
+            budget.check(now);
+            if (budget.timeout.get() == null && ruleTimeout.get() == null && ruleDeadline != Long.MAX_VALUE
+                    && now - ruleDeadline > 0) {
+                AnalysisTimeoutException e = new AnalysisTimeoutException("Rule " + ruleName
+                        + " exceeded its budget of " + TimeUnit.NANOSECONDS.toMillis(budget.ruleBudgetNanos)
+                        + " ms on " + budget.fileName, false);
+                LOG.warning(e.getMessage());
+                ruleTimeout.set(e);
+            }
+        }
+    }
+}
@@ -4,6 +4,9 @@
 
 package net.sourceforge.pmd.processor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
@@ -14,16 +17,23 @@ import java.util.concurrent.Executors;
 import net.sourceforge.pmd.PMDConfiguration;
 import net.sourceforge.pmd.Report;
 import net.sourceforge.pmd.renderers.Renderer;
+import net.sourceforge.pmd.util.datasource.DataSource;
+import net.sourceforge.pmd.util.datasource.FileDataSource;
+import net.sourceforge.pmd.util.datasource.ZipDataSource;
 
 
 /**
  * @author Romain Pelisse &lt;belaran@gmail.com&gt;
  */
 public class MultiThreadProcessor extends AbstractPMDProcessor {
+    /** Maximum number of reports waiting for each renderer when rendering concurrently. */
+    private static final int RENDERER_QUEUE_CAPACITY = 64;
+
     private final ExecutorService executor;
     private final CompletionService<Report> completionService;
 
-    private long submittedTasks = 0L;
+    /** Analyses in the order of the files, submitted all at once when collecting the reports. */
+    private final List<PmdRunnable> pending = new ArrayList<>();
 
     public MultiThreadProcessor(final PMDConfiguration configuration) {
         super(configuration);
@@ -34,30 +44,135 @@ public class MultiThreadProcessor extends AbstractPMDProcessor {
 
     @Override
     protected void runAnalysis(PmdRunnable runnable) {
-        completionService.submit(runnable);
-        submittedTasks++;
+        pending.add(runnable);
+    }
+
+    /**
+     * Submits the pending analyses, the largest files first, so that a few big files
+     * don't end up being analysed alone while the other threads are idle.
+     *
+     * @return The number of submitted analyses
+     */
+    private int submitPending() {
+        final List<DataSource> files = new ArrayList<>(pending.size());
+        for (final PmdRunnable runnable : pending) {
+            files.add(runnable.getDataSource());
+        }
+
+        final List<Integer> order = configuration.isStressTest() ? sequence(files.size()) : largestFirst(files);
+        for (final int index : order) {
+            completionService.submit(pending.get(index));
+        }
+        final int submitted = pending.size();
+        pending.clear();
+        return submitted;
+    }
+
+    /**
+     * Returns the indexes of the files, ordered by decreasing size. Files with the
+     * same size, or whose size is unknown, keep their order.
+     */
+    static List<Integer> largestFirst(final List<DataSource> files) {
+        final long[] sizes = new long[files.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = estimatedSize(files.get(i));
+        }
+
+        final List<Integer> order = sequence(sizes.length);
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer left, Integer right) {
+                return Long.compare(sizes[right], sizes[left]);
+            }
+        });
+        return order;
+    }
+
+    private static long estimatedSize(final DataSource file) {
+        if (file instanceof FileDataSource) {
+            return ((FileDataSource) file).getSize();
+        } else if (file instanceof ZipDataSource) {
+            return Math.max(0L, ((ZipDataSource) file).getSize());
+        }
+        return 0L;
+    }
+
+    private static List<Integer> sequence(final int size) {
+        final List<Integer> sequence = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sequence.add(i);
+        }
+        return sequence;
     }
 
     @Override
     protected void collectReports(List<Renderer> renderers) {
+        if (renderers.size() > 1) {
+            collectReportsConcurrently(renderers);
+            return;
+        }
+
+        final int submitted = submitPending();
         try {
-            for (int i = 0; i < submittedTasks; i++) {
+            // render as soon as the analyses complete, so that no finished report waits in memory
+            for (int i = 0; i < submitted; i++) {
                 final Report report = completionService.take().get();
                 super.renderReports(renderers, report);
             }
         } catch (final InterruptedException ie) {
             Thread.currentThread().interrupt();
         } catch (final ExecutionException ee) {
-            final Throwable t = ee.getCause();
-            if (t instanceof RuntimeException) {
-                throw (RuntimeException) t;
-            } else if (t instanceof Error) {
-                throw (Error) t;
-            } else {
-                throw new IllegalStateException("PmdRunnable exception", t);
+            rethrowCause(ee);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hands the reports over to one thread per renderer, so that the renderers work concurrently
+     * and the slowest one doesn't hold up the others.
+     */
+    private void collectReportsConcurrently(List<Renderer> renderers) {
+        final List<RendererThread> rendererThreads = new ArrayList<>(renderers.size());
+        for (final Renderer renderer : renderers) {
+            final RendererThread thread = new RendererThread(renderer, RENDERER_QUEUE_CAPACITY);
+            thread.start();
+            rendererThreads.add(thread);
+        }
+
+        final int submitted = submitPending();
+        try {
+            for (int i = 0; i < submitted; i++) {
+                final Report report = completionService.take().get();
+                // sort the violations once, before the renderer threads iterate over them
+                report.iterator();
+                for (final RendererThread thread : rendererThreads) {
+                    thread.render(report);
+                }
+            }
+            for (final RendererThread thread : rendererThreads) {
+                thread.finish();
             }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException ee) {
+            rethrowCause(ee);
         } finally {
             executor.shutdownNow();
+            for (final RendererThread thread : rendererThreads) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private static void rethrowCause(final ExecutionException ee) {
+        final Throwable t = ee.getCause();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else {
+            throw new IllegalStateException("PmdRunnable exception", t);
         }
     }
 }
@@ -44,6 +44,10 @@ public class PmdRunnable implements Callable<Report> {
         this.sourceCodeProcessor = sourceCodeProcessor;
     }
 
+    /* default */ DataSource getDataSource() {
+        return dataSource;
+    }
+
     public static void reset() {
         LOCAL_THREAD_CONTEXT.remove();
     }
@@ -57,7 +61,17 @@ public class PmdRunnable implements Callable<Report> {
     @Override
     public Report call() {
         TimeTracker.initThread();
-        
+        TimeTracker.startFile(fileName);
+        try {
+            return analyze();
+        } finally {
+            // even after an Error, the next file on this thread starts afresh
+            TimeTracker.finishFile();
+            TimeTracker.finishThread();
+        }
+    }
+
+    private Report analyze() {
         ThreadContext tc = LOCAL_THREAD_CONTEXT.get();
         if (tc == null) {
             tc = new ThreadContext(new RuleSets(ruleSets), new RuleContext(ruleContext));
@@ -83,9 +97,6 @@ public class PmdRunnable implements Callable<Report> {
         } catch (RuntimeException re) {
             addError(report, re, "RuntimeException during processing of " + fileName);
         }
-
-        TimeTracker.finishThread();
-        
         return report;
     }
 
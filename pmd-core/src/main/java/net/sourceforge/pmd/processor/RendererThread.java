@@ -0,0 +1,100 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.processor;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.benchmark.TimeTracker;
+import net.sourceforge.pmd.benchmark.TimedOperation;
+import net.sourceforge.pmd.benchmark.TimedOperationCategory;
+import net.sourceforge.pmd.renderers.Renderer;
+
+/**
+ * Renders file reports with a single renderer on a dedicated thread, in the
+ * order they were handed over. This lets several renderers work concurrently,
+ * and keeps a slow renderer from holding up the others.
+ *
+ * <p>Reports are handed over through a bounded queue, so that a renderer which
+ * can't keep up eventually slows down the collection of reports instead of
+ * letting them pile up in memory.
+ */
+class RendererThread extends Thread {
+
+    private static final Report END_OF_REPORTS = new Report();
+
+    private final Renderer renderer;
+    private final BlockingQueue<Report> reports;
+    // only read by other threads after join()
+    private Throwable failure;
+
+    RendererThread(Renderer renderer, int capacity) {
+        super("PmdRenderer " + renderer.getName());
+        setDaemon(true);
+        this.renderer = renderer;
+        this.reports = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Queues a report for rendering, blocking while the queue is full.
+     *
+     * @param report The report to render
+     *
+     * @throws InterruptedException If interrupted while waiting
+     */
+    void render(Report report) throws InterruptedException {
+        reports.put(report);
+    }
+
+    /**
+     * Waits until all the queued reports have been rendered.
+     *
+     * @throws InterruptedException If interrupted while waiting
+     * @throws RuntimeException If the renderer failed
+     * @throws Error If the renderer failed with an error
+     */
+    void finish() throws InterruptedException {
+        reports.put(END_OF_REPORTS);
+        join();
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    @Override
+    public void run() {
+        TimeTracker.initThread();
+
+        try {
+            for (Report report = reports.take(); report != END_OF_REPORTS; report = reports.take()) { // NOPMD sentinel
+                // after a failure, keep draining the queue so that producers don't block forever
+                if (failure == null) {
+                    renderReport(report);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            TimeTracker.finishThread();
+        }
+    }
+
+    private void renderReport(Report report) {
+        try (TimedOperation to = TimeTracker.startOperation(TimedOperationCategory.REPORTING)) {
+            renderer.renderFileReport(report);
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        } catch (Error e) { // NOPMD keep draining, the error is rethrown by finish()
+            failure = e;
+        }
+    }
+}
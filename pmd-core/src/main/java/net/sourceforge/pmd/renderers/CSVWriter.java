@@ -9,6 +9,8 @@ import java.io.Writer;
 import java.util.Iterator;
 import java.util.List;
 
+import net.sourceforge.pmd.util.IOUtil;
+
 /**
  * A generic writer that formats input items into rows and columns per the
  * provided column descriptors.
@@ -18,10 +20,17 @@ import java.util.List;
  */
 public class CSVWriter<T extends Object> {
 
+    /** Size from which the buffered rows are written out. */
+    private static final int FLUSH_THRESHOLD = 8192;
+
     private final String separator; // e.g., the comma
     private final String lineSeparator; // cr
     private final List<ColumnDescriptor<T>> columns;
 
+    // reused for all rows, flushed to the writer in large chunks
+    private final StringBuilder buf = new StringBuilder(FLUSH_THRESHOLD + 512);
+    private final char[] chunk = new char[FLUSH_THRESHOLD];
+
     public CSVWriter(List<ColumnDescriptor<T>> theColumns, String theSeparator, String theLineSeparator) {
         columns = theColumns;
         separator = theSeparator;
@@ -29,7 +38,6 @@ public class CSVWriter<T extends Object> {
     }
 
     public void writeTitles(Writer writer) throws IOException {
-        StringBuilder buf = new StringBuilder(300);
         for (int i = 0; i < columns.size() - 1; i++) {
             quoteAndCommify(buf, columns.get(i).title);
         }
@@ -37,20 +45,17 @@ public class CSVWriter<T extends Object> {
         quote(buf, columns.get(columns.size() - 1).title);
 
         buf.append(lineSeparator);
-        writer.write(buf.toString());
+        IOUtil.writeAndClear(writer, buf, chunk);
     }
 
     public void writeData(Writer writer, Iterator<T> items) throws IOException {
 
         int count = 1;
 
-        StringBuilder buf = new StringBuilder(300);
-
         T rv;
         final int lastColumnIdx = columns.size() - 1;
 
         while (items.hasNext()) {
-            buf.setLength(0);
             rv = items.next();
 
             for (int i = 0; i < lastColumnIdx; i++) {
@@ -60,9 +65,12 @@ public class CSVWriter<T extends Object> {
             quote(buf, columns.get(lastColumnIdx).accessor.get(count, rv, separator));
 
             buf.append(lineSeparator);
-            writer.write(buf.toString());
+            if (buf.length() >= FLUSH_THRESHOLD) {
+                IOUtil.writeAndClear(writer, buf, chunk);
+            }
             count++;
         }
+        IOUtil.writeAndClear(writer, buf, chunk);
     }
 
     private void quote(StringBuilder buffer, String s) {
@@ -0,0 +1,246 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.renderers;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.RuleViolation;
+import net.sourceforge.pmd.util.IOUtil;
+
+/**
+ * Renderer to a compact format meant to be stored and rendered later with any
+ * other renderer, see {@link CompactReportReader}. This is faster to write and
+ * to read back than XML, and several such reports, e.g. from sharded runs, can
+ * be merged into one.
+ *
+ * <p>The format is line based. Every string (file name, message, rule name...)
+ * is written only once, on a {@code s} line, and referenced afterwards by its
+ * index in the order of definition. Rules are defined the same way on {@code r}
+ * lines. The other lines are violations ({@code v}), suppressed violations
+ * ({@code n}), processing errors ({@code e}) and configuration errors
+ * ({@code c}). Fields are separated by tabs, and an empty field stands for
+ * {@code null}. The format is pure ASCII, other characters are escaped.
+ *
+ * @since 6.4.0
+ */
+public class CompactRenderer extends AbstractIncrementingRenderer {
+
+    public static final String NAME = "compact";
+
+    /** First line of every compact report, including the format version. */
+    static final String HEADER = "#pmd-compact 1";
+
+    static final char STRING = 's';
+    static final char RULE = 'r';
+    static final char VIOLATION = 'v';
+    static final char SUPPRESSED = 'n';
+    static final char ERROR = 'e';
+    static final char CONFIG_ERROR = 'c';
+
+    static final char SEPARATOR = '\t';
+
+    /** Size from which the buffered lines are written out. */
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private final StringBuilder buf = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private final char[] chunk = new char[FLUSH_THRESHOLD];
+
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final Map<Rule, Integer> ruleIndex = new IdentityHashMap<>();
+
+    public CompactRenderer() {
+        super(NAME, "Compact format, which can be rendered later with another format.");
+    }
+
+    @Override
+    public String defaultFileExtension() {
+        return "pmd";
+    }
+
+    @Override
+    public void start() throws IOException {
+        stringIndex.clear();
+        ruleIndex.clear();
+        buf.append(HEADER).append('\n');
+        IOUtil.writeAndClear(getWriter(), buf, chunk);
+    }
+
+    @Override
+    public void renderFileReport(Report report) throws IOException {
+        super.renderFileReport(report);
+        if (!showSuppressedViolations) {
+            // always stored, the renderer used later decides whether to show them
+            suppressed.addAll(report.getSuppressedRuleViolations());
+        }
+    }
+
+    @Override
+    public void renderFileViolations(Iterator<RuleViolation> violations) throws IOException {
+        while (violations.hasNext()) {
+            RuleViolation rv = violations.next();
+            String[] strings = {rv.getFilename(), rv.getDescription(), rv.getPackageName(), rv.getClassName(),
+                rv.getMethodName(), rv.getVariableName(), };
+            int[] indexes = stringIndexes(strings);
+            int rule = ruleIndex(rv.getRule());
+
+            buf.append(VIOLATION);
+            appendViolation(rv, rule, indexes);
+            buf.append('\n');
+
+            if (buf.length() >= FLUSH_THRESHOLD) {
+                IOUtil.writeAndClear(getWriter(), buf, chunk);
+            }
+        }
+        IOUtil.writeAndClear(getWriter(), buf, chunk);
+    }
+
+    @Override
+    public void end() throws IOException {
+        for (Report.SuppressedViolation s : suppressed) {
+            RuleViolation rv = s.getRuleViolation();
+            String[] strings = {rv.getFilename(), rv.getDescription(), rv.getPackageName(), rv.getClassName(),
+                rv.getMethodName(), rv.getVariableName(), s.getUserMessage(), };
+            int[] indexes = stringIndexes(strings);
+            int rule = ruleIndex(rv.getRule());
+
+            buf.append(SUPPRESSED);
+            appendViolation(rv, rule, indexes);
+            buf.append(SEPARATOR).append(s.suppressedByNOPMD() ? '1' : '0');
+            appendIndex(indexes[6]);
+            buf.append('\n');
+        }
+
+        for (Report.ProcessingError pe : errors) {
+            int[] indexes = stringIndexes(new String[] {pe.getFile(), pe.getMsg(), pe.getDetail()});
+            buf.append(ERROR);
+            appendIndex(indexes[0]);
+            appendIndex(indexes[1]);
+            appendIndex(indexes[2]);
+            buf.append('\n');
+        }
+
+        for (Report.ConfigurationError ce : configErrors) {
+            int rule = ruleIndex(ce.rule());
+            int issue = stringIndexes(new String[] {ce.issue()})[0];
+            buf.append(CONFIG_ERROR);
+            appendIndex(rule);
+            appendIndex(issue);
+            buf.append('\n');
+        }
+
+        IOUtil.writeAndClear(getWriter(), buf, chunk);
+    }
+
+    private void appendViolation(RuleViolation rv, int rule, int[] indexes) {
+        appendIndex(rule);
+        appendIndex(indexes[0]);
+        appendIndex(indexes[1]);
+        buf.append(SEPARATOR).append(rv.getBeginLine());
+        buf.append(SEPARATOR).append(rv.getBeginColumn());
+        buf.append(SEPARATOR).append(rv.getEndLine());
+        buf.append(SEPARATOR).append(rv.getEndColumn());
+        for (int i = 2; i < 6; i++) {
+            appendIndex(indexes[i]);
+        }
+    }
+
+    private void appendIndex(int index) {
+        buf.append(SEPARATOR);
+        if (index >= 0) {
+            buf.append(index);
+        }
+    }
+
+    /**
+     * Returns the indexes of the given strings, defining those which were
+     * not seen yet. The definitions are appended to the buffer, which must
+     * hence not contain a partial line. Null strings get the index -1.
+     */
+    private int[] stringIndexes(String[] strings) {
+        int[] indexes = new int[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            indexes[i] = stringIndex(strings[i]);
+        }
+        return indexes;
+    }
+
+    private int stringIndex(String string) {
+        if (string == null) {
+            return -1;
+        }
+        Integer index = stringIndex.get(string);
+        if (index == null) {
+            index = stringIndex.size();
+            stringIndex.put(string, index);
+            buf.append(STRING).append(SEPARATOR);
+            appendEscaped(buf, string);
+            buf.append('\n');
+        }
+        return index;
+    }
+
+    private int ruleIndex(Rule rule) {
+        Integer index = ruleIndex.get(rule);
+        if (index == null) {
+            int[] indexes = stringIndexes(new String[] {rule.getName(), rule.getRuleSetName(),
+                rule.getExternalInfoUrl(), rule.getSince(), rule.getDescription(), });
+            index = ruleIndex.size();
+            ruleIndex.put(rule, index);
+            buf.append(RULE);
+            appendIndex(indexes[0]);
+            appendIndex(indexes[1]);
+            buf.append(SEPARATOR).append(rule.getPriority().getPriority());
+            appendIndex(indexes[2]);
+            appendIndex(indexes[3]);
+            appendIndex(indexes[4]);
+            buf.append('\n');
+        }
+        return index;
+    }
+
+    /**
+     * Appends the string with backslashes, tabs and line breaks escaped, so
+     * that it fits on a single field. Non-ASCII characters are written as
+     * Java-like unicode escapes, so that the report doesn't depend on the
+     * encoding of the writer.
+     */
+    static void appendEscaped(StringBuilder buffer, String string) {
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+            case '\\':
+                buffer.append("\\\\");
+                break;
+            case '\t':
+                buffer.append("\\t");
+                break;
+            case '\n':
+                buffer.append("\\n");
+                break;
+            case '\r':
+                buffer.append("\\r");
+                break;
+            default:
+                if (c < 0x80) {
+                    buffer.append(c);
+                } else {
+                    buffer.append("\\u");
+                    String hex = Integer.toHexString(c);
+                    for (int j = hex.length(); j < 4; j++) {
+                        buffer.append('0');
+                    }
+                    buffer.append(hex);
+                }
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.renderers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RulePriority;
+import net.sourceforge.pmd.RuleViolation;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.AbstractRule;
+import net.sourceforge.pmd.util.IOUtil;
+
+/**
+ * Reads back reports written by the {@link CompactRenderer}, so that they can
+ * be rendered with any other renderer without analysing the sources again.
+ * Several compact reports can be read into the same report to merge them.
+ *
+ * <p>The rules of the violations are restored with their name, ruleset name,
+ * priority, external info URL, since version and description. Their
+ * properties and examples are not stored.
+ *
+ * <p>This class can also be run from the command line:
+ * <pre>
+ * CompactReportReader &lt;format&gt; &lt;output file or -&gt; &lt;compact report&gt;...
+ * </pre>
+ *
+ * @since 6.4.0
+ */
+public final class CompactReportReader {
+
+    private final Report report;
+    private final List<String> strings = new ArrayList<>();
+    private final List<Rule> rules = new ArrayList<>();
+
+    private String[] fields = new String[16];
+    private int fieldCount;
+    private final StringBuilder unescaped = new StringBuilder();
+
+    private CompactReportReader(Report report) {
+        this.report = report;
+    }
+
+    /**
+     * Reads a compact report.
+     *
+     * @param reader The compact report
+     *
+     * @return The report
+     *
+     * @throws IOException If the report can't be read or is malformed
+     */
+    public static Report read(Reader reader) throws IOException {
+        Report report = new Report();
+        read(reader, report);
+        return report;
+    }
+
+    /**
+     * Reads a compact report and adds its content to the given report.
+     *
+     * @param reader The compact report
+     * @param report The report to add the violations and errors to
+     *
+     * @throws IOException If the report can't be read or is malformed
+     */
+    public static void read(Reader reader, Report report) throws IOException {
+        new CompactReportReader(report).readAll(new BufferedReader(reader));
+    }
+
+    /**
+     * Renders a report read back with this class, as if it was the only file
+     * report of an analysis.
+     *
+     * @param report   The report
+     * @param renderer The renderer, with its writer set
+     *
+     * @throws IOException If rendering fails
+     */
+    public static void render(Report report, Renderer renderer) throws IOException {
+        renderer.start();
+        renderer.renderFileReport(report);
+        renderer.end();
+        renderer.flush();
+    }
+
+    private void readAll(BufferedReader lines) throws IOException {
+        String line = lines.readLine();
+        if (!CompactRenderer.HEADER.equals(line)) {
+            throw new IOException("Not a compact PMD report, or unsupported version: " + line);
+        }
+
+        int lineNumber = 1;
+        for (line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                readLine(line);
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed compact PMD report at line " + lineNumber + ": " + line, e);
+            }
+        }
+    }
+
+    private void readLine(String line) {
+        split(line);
+        switch (line.charAt(0)) {
+        case CompactRenderer.STRING:
+            strings.add(unescape(fields[1]));
+            break;
+        case CompactRenderer.RULE:
+            rules.add(new StoredRule(string(1), string(2), RulePriority.valueOf(number(3)), string(4), string(5),
+                    string(6)));
+            break;
+        case CompactRenderer.VIOLATION:
+            report.addRuleViolation(violation());
+            break;
+        case CompactRenderer.SUPPRESSED:
+            report.addSuppressedViolation(new Report.SuppressedViolation(violation(), number(12) == 1, string(13)));
+            break;
+        case CompactRenderer.ERROR:
+            report.addError(new Report.ProcessingError(new StoredError(string(2), string(3)), string(1)));
+            break;
+        case CompactRenderer.CONFIG_ERROR:
+            report.addConfigError(new Report.ConfigurationError(rules.get(number(1)), string(2)));
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown line type");
+        }
+    }
+
+    private RuleViolation violation() {
+        return new StoredRuleViolation(rules.get(number(1)), string(2), string(3), number(4), number(5), number(6),
+                number(7), string(8), string(9), string(10), string(11));
+    }
+
+    private void split(String line) {
+        fieldCount = 0;
+        int start = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == CompactRenderer.SEPARATOR) {
+                if (fieldCount == fields.length) {
+                    String[] larger = new String[fields.length * 2];
+                    System.arraycopy(fields, 0, larger, 0, fields.length);
+                    fields = larger;
+                }
+                fields[fieldCount++] = line.substring(start, i);
+                start = i + 1;
+            }
+        }
+    }
+
+    private String field(int index) {
+        if (index >= fieldCount) {
+            throw new IllegalArgumentException("Missing field " + index);
+        }
+        return fields[index];
+    }
+
+    private int number(int index) {
+        return Integer.parseInt(field(index));
+    }
+
+    private String string(int index) {
+        String field = field(index);
+        return field.isEmpty() ? null : strings.get(Integer.parseInt(field));
+    }
+
+    private String unescape(String field) {
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        unescaped.setLength(0);
+        int i = 0;
+        while (i < field.length()) {
+            char c = field.charAt(i++);
+            if (c == '\\') {
+                c = field.charAt(i++);
+                switch (c) {
+                case 't':
+                    c = '\t';
+                    break;
+                case 'n':
+                    c = '\n';
+                    break;
+                case 'r':
+                    c = '\r';
+                    break;
+                case 'u':
+                    c = (char) Integer.parseInt(field.substring(i, i + 4), 16);
+                    i += 4;
+                    break;
+                default:
+                    // backslash
+                    break;
+                }
+            }
+            unescaped.append(c);
+        }
+        return unescaped.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: " + CompactReportReader.class.getName()
+                    + " <format> <output file or -> <compact report>...");
+            System.err.println("Renders one or more compact reports, merged, in the given format.");
+            return;
+        }
+
+        Report report = new Report();
+        for (int i = 2; i < args.length; i++) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(args[i]), StandardCharsets.US_ASCII)) {
+                read(reader, report);
+            }
+        }
+
+        Renderer renderer = RendererFactory.createRenderer(args[0], new Properties());
+        renderer.setWriter(IOUtil.createWriter("-".equals(args[1]) ? null : args[1]));
+        render(report, renderer);
+    }
+
+    /**
+     * Surrogate for a rule of a stored report.
+     */
+    private static final class StoredRule extends AbstractRule {
+
+        StoredRule(String name, String ruleSetName, RulePriority priority, String externalInfoUrl, String since,
+                String description) {
+            setName(name);
+            setRuleSetName(ruleSetName);
+            setPriority(priority);
+            setExternalInfoUrl(externalInfoUrl);
+            setSince(since);
+            setDescription(description);
+        }
+
+        @Override
+        public void apply(List<? extends Node> nodes, RuleContext ctx) {
+            // stored rules are never applied
+        }
+    }
+
+    /**
+     * Processing error of a stored report, whose stack trace is the stored
+     * detail.
+     */
+    private static final class StoredError extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String detail;
+
+        StoredError(String message, String detail) {
+            super(message);
+            this.detail = detail;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+        @Override
+        public void printStackTrace(PrintWriter s) {
+            if (detail != null) {
+                s.print(detail);
+            }
+        }
+    }
+
+    /**
+     * Violation of a stored report.
+     */
+    private static final class StoredRuleViolation implements RuleViolation {
+
+        private final Rule rule;
+        private final String filename;
+        private final String description;
+        private final int beginLine;
+        private final int beginColumn;
+        private final int endLine;
+        private final int endColumn;
+        private final String packageName;
+        private final String className;
+        private final String methodName;
+        private final String variableName;
+
+        StoredRuleViolation(Rule rule, String filename, String description, int beginLine, int beginColumn,
+                int endLine, int endColumn, String packageName, String className, String methodName,
+                String variableName) {
+            this.rule = rule;
+            this.filename = filename;
+            this.description = description;
+            this.beginLine = beginLine;
+            this.beginColumn = beginColumn;
+            this.endLine = endLine;
+            this.endColumn = endColumn;
+            this.packageName = packageName;
+            this.className = className;
+            this.methodName = methodName;
+            this.variableName = variableName;
+        }
+
+        @Override
+        public Rule getRule() {
+            return rule;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public boolean isSuppressed() {
+            return false;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public int getBeginLine() {
+            return beginLine;
+        }
+
+        @Override
+        public int getBeginColumn() {
+            return beginColumn;
+        }
+
+        @Override
+        public int getEndLine() {
+            return endLine;
+        }
+
+        @Override
+        public int getEndColumn() {
+            return endColumn;
+        }
+
+        @Override
+        public String getPackageName() {
+            return packageName;
+        }
+
+        @Override
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
+
+        @Override
+        public String getVariableName() {
+            return variableName;
+        }
+    }
+}
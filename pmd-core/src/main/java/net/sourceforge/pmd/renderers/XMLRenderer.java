@@ -8,13 +8,17 @@ import java.io.IOException;
 import java.io.Writer;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import net.sourceforge.pmd.PMD;
 import net.sourceforge.pmd.PMDVersion;
 import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.Rule;
 import net.sourceforge.pmd.RuleViolation;
 import net.sourceforge.pmd.properties.StringProperty;
+import net.sourceforge.pmd.util.IOUtil;
 import net.sourceforge.pmd.util.StringUtil;
 
 /**
@@ -26,8 +30,18 @@ public class XMLRenderer extends AbstractIncrementingRenderer {
 
     public static final StringProperty ENCODING = new StringProperty("encoding",
             "XML encoding format, defaults to UTF-8.", "UTF-8", 0);
+    /** Size from which the buffered violations are written out. */
+    private static final int FLUSH_THRESHOLD = 8192;
+
     private boolean useUTF8 = false;
 
+    // reused for all violations, flushed to the writer in large chunks
+    private final StringBuilder buf = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private final char[] chunk = new char[FLUSH_THRESHOLD];
+
+    // escaped attributes which only depend on the rule, see ruleAttributes
+    private final Map<Rule, String[]> escapedRuleAttributes = new IdentityHashMap<>();
+
     public XMLRenderer() {
         super(NAME, "XML format.");
         definePropertyDescriptor(ENCODING);
@@ -49,27 +63,25 @@ public class XMLRenderer extends AbstractIncrementingRenderer {
         if ("utf-8".equalsIgnoreCase(encoding)) {
             useUTF8 = true;
         }
+        escapedRuleAttributes.clear();
 
         Writer writer = getWriter();
-        StringBuilder buf = new StringBuilder(500);
         buf.append("<?xml version=\"1.0\" encoding=\"" + encoding + "\"?>").append(PMD.EOL);
         createVersionAttr(buf);
         createTimestampAttr(buf);
         // FIXME: elapsed time not available until the end of the processing
         // buf.append(createTimeElapsedAttr(report));
         buf.append('>').append(PMD.EOL);
-        writer.write(buf.toString());
+        IOUtil.writeAndClear(writer, buf, chunk);
     }
 
     @Override
     public void renderFileViolations(Iterator<RuleViolation> violations) throws IOException {
         Writer writer = getWriter();
-        StringBuilder buf = new StringBuilder(500);
         String filename = null;
 
         // rule violations
         while (violations.hasNext()) {
-            buf.setLength(0);
             RuleViolation rv = violations.next();
             if (!rv.getFilename().equals(filename)) {
                 // New File
@@ -87,39 +99,58 @@ public class XMLRenderer extends AbstractIncrementingRenderer {
             buf.append("\" endline=\"").append(rv.getEndLine());
             buf.append("\" begincolumn=\"").append(rv.getBeginColumn());
             buf.append("\" endcolumn=\"").append(rv.getEndColumn());
-            buf.append("\" rule=\"");
-            StringUtil.appendXmlEscaped(buf, rv.getRule().getName(), useUTF8);
-            buf.append("\" ruleset=\"");
-            StringUtil.appendXmlEscaped(buf, rv.getRule().getRuleSetName(), useUTF8);
-            buf.append('"');
+            String[] ruleAttributes = ruleAttributes(rv.getRule());
+            buf.append('"').append(ruleAttributes[0]);
             maybeAdd("package", rv.getPackageName(), buf);
             maybeAdd("class", rv.getClassName(), buf);
             maybeAdd("method", rv.getMethodName(), buf);
             maybeAdd("variable", rv.getVariableName(), buf);
-            maybeAdd("externalInfoUrl", rv.getRule().getExternalInfoUrl(), buf);
-            buf.append(" priority=\"");
-            buf.append(rv.getRule().getPriority().getPriority());
-            buf.append("\">").append(PMD.EOL);
+            buf.append(ruleAttributes[1]);
             StringUtil.appendXmlEscaped(buf, rv.getDescription(), useUTF8);
 
             buf.append(PMD.EOL);
             buf.append("</violation>");
             buf.append(PMD.EOL);
-            writer.write(buf.toString());
+            if (buf.length() >= FLUSH_THRESHOLD) {
+                IOUtil.writeAndClear(writer, buf, chunk);
+            }
         }
         if (filename != null) { // Not first file ?
-            writer.write("</file>");
-            writer.write(PMD.EOL);
+            buf.append("</file>").append(PMD.EOL);
+        }
+        IOUtil.writeAndClear(writer, buf, chunk);
+    }
+
+    /**
+     * Returns the escaped attributes of the violation element which only
+     * depend on the rule, computed once per rule. The first part goes right
+     * after the position attributes, and the second part closes the start tag.
+     */
+    private String[] ruleAttributes(Rule rule) {
+        String[] attributes = escapedRuleAttributes.get(rule);
+        if (attributes == null) {
+            StringBuilder head = new StringBuilder(100);
+            head.append(" rule=\"");
+            StringUtil.appendXmlEscaped(head, rule.getName(), useUTF8);
+            head.append("\" ruleset=\"");
+            StringUtil.appendXmlEscaped(head, rule.getRuleSetName(), useUTF8);
+            head.append('"');
+
+            StringBuilder tail = new StringBuilder(100);
+            maybeAdd("externalInfoUrl", rule.getExternalInfoUrl(), tail);
+            tail.append(" priority=\"").append(rule.getPriority().getPriority()).append("\">").append(PMD.EOL);
+
+            attributes = new String[] {head.toString(), tail.toString()};
+            escapedRuleAttributes.put(rule, attributes);
         }
+        return attributes;
     }
 
     @Override
     public void end() throws IOException {
         Writer writer = getWriter();
-        StringBuilder buf = new StringBuilder(500);
         // errors
         for (Report.ProcessingError pe : errors) {
-            buf.setLength(0);
             buf.append("<error ").append("filename=\"");
             StringUtil.appendXmlEscaped(buf, pe.getFile(), useUTF8);
             buf.append("\" msg=\"");
@@ -127,13 +158,12 @@ public class XMLRenderer extends AbstractIncrementingRenderer {
             buf.append("\">").append(PMD.EOL);
             buf.append("<![CDATA[").append(pe.getDetail()).append("]]>").append(PMD.EOL);
             buf.append("</error>").append(PMD.EOL);
-            writer.write(buf.toString());
+            IOUtil.writeAndClear(writer, buf, chunk);
         }
 
         // suppressed violations
         if (showSuppressedViolations) {
             for (Report.SuppressedViolation s : suppressed) {
-                buf.setLength(0);
                 buf.append("<suppressedviolation ").append("filename=\"");
                 StringUtil.appendXmlEscaped(buf, s.getRuleViolation().getFilename(), useUTF8);
                 buf.append("\" suppressiontype=\"");
@@ -143,19 +173,18 @@ public class XMLRenderer extends AbstractIncrementingRenderer {
                 buf.append("\" usermsg=\"");
                 StringUtil.appendXmlEscaped(buf, s.getUserMessage() == null ? "" : s.getUserMessage(), useUTF8);
                 buf.append("\"/>").append(PMD.EOL);
-                writer.write(buf.toString());
+                IOUtil.writeAndClear(writer, buf, chunk);
             }
         }
         
         // config errors
         for (final Report.ConfigurationError ce : configErrors) {
-            buf.setLength(0);
             buf.append("<configerror ").append("rule=\"");
             StringUtil.appendXmlEscaped(buf, ce.rule().getName(), useUTF8);
             buf.append("\" msg=\"");
             StringUtil.appendXmlEscaped(buf, ce.issue(), useUTF8);
             buf.append("\"/>").append(PMD.EOL);
-            writer.write(buf.toString());
+            IOUtil.writeAndClear(writer, buf, chunk);
         }
 
         writer.write("</pmd>" + PMD.EOL);
@@ -7,11 +7,20 @@ package net.sourceforge.pmd.util;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -23,16 +32,16 @@ import org.apache.commons.lang3.StringUtils;
 import net.sourceforge.pmd.util.datasource.DataSource;
 import net.sourceforge.pmd.util.datasource.FileDataSource;
 import net.sourceforge.pmd.util.datasource.ZipDataSource;
-import net.sourceforge.pmd.util.filter.AndFilter;
 import net.sourceforge.pmd.util.filter.Filter;
 import net.sourceforge.pmd.util.filter.Filters;
-import net.sourceforge.pmd.util.filter.OrFilter;
 
 /**
  * This is a utility class for working with Files.
  */
 public final class FileUtil {
 
+    private static final Logger LOG = Logger.getLogger(FileUtil.class.getName());
+
     private FileUtil() {
     }
 
@@ -95,10 +104,13 @@ public final class FileUtil {
     private static List<DataSource> collect(List<DataSource> dataSources, String fileLocation,
             FilenameFilter filenameFilter) {
         File file = new File(fileLocation);
-        if (!file.exists()) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
             throw new RuntimeException("File " + file.getName() + " doesn't exist");
         }
-        if (!file.isDirectory()) {
+        if (!attributes.isDirectory()) {
             if (fileLocation.endsWith(".zip") || fileLocation.endsWith(".jar")) {
                 ZipFile zipFile;
                 try {
@@ -114,23 +126,86 @@ public final class FileUtil {
                     throw new RuntimeException("Archive file " + file.getName() + " can't be opened");
                 }
             } else {
-                dataSources.add(new FileDataSource(file));
+                dataSources.add(new FileDataSource(file, attributes.size()));
             }
         } else {
             // Match files, or directories which are not excluded.
             // FUTURE Make the excluded directories be some configurable option
-            Filter<File> filter = new OrFilter<>(Filters.toFileFilter(filenameFilter),
-                    new AndFilter<>(Filters.getDirectoryFilter(), Filters.toNormalizedFileFilter(
-                            Filters.buildRegexFilterExcludeOverInclude(null, Collections.singletonList("SCCS")))));
-            FileFinder finder = new FileFinder();
-            List<File> files = finder.findFilesFrom(file, Filters.toFilenameFilter(filter), true);
-            for (File f : files) {
-                dataSources.add(new FileDataSource(f));
+            Filter<File> directoryFilter = Filters.toNormalizedFileFilter(
+                    Filters.buildRegexFilterExcludeOverInclude(null, Collections.singletonList("SCCS")));
+            ForkJoinPool pool = new ForkJoinPool();
+            try {
+                dataSources.addAll(pool.invoke(new DirectoryScan(file, filenameFilter, directoryFilter)));
+            } finally {
+                pool.shutdown();
             }
         }
         return dataSources;
     }
 
+    /**
+     * Collects the matching files of a directory hierarchy. Subdirectories are
+     * scanned in parallel, which matters mostly on network file systems, where
+     * listing a directory is slow. Excluded directories are not entered at all,
+     * and the attributes of every entry are read only once. The data sources
+     * keep the size of the files, which orders the analyses.
+     *
+     * <p>The files of a directory come before the files of its subdirectories,
+     * which come in the order they were listed.
+     */
+    private static final class DirectoryScan extends RecursiveTask<List<FileDataSource>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final FilenameFilter filenameFilter;
+        private final Filter<File> directoryFilter;
+
+        DirectoryScan(File directory, FilenameFilter filenameFilter, Filter<File> directoryFilter) {
+            this.directory = directory;
+            this.filenameFilter = filenameFilter;
+            this.directoryFilter = directoryFilter;
+        }
+
+        @Override
+        protected List<FileDataSource> compute() {
+            List<FileDataSource> files = new ArrayList<>();
+            List<DirectoryScan> subdirectories = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory.toPath())) {
+                for (Path entry : entries) {
+                    File file = entry.toFile();
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        // e.g. a broken link, which is no directory
+                        attributes = null;
+                    }
+
+                    if (attributes != null && attributes.isDirectory()) {
+                        if (directoryFilter.filter(file)) {
+                            DirectoryScan scan = new DirectoryScan(file, filenameFilter, directoryFilter);
+                            scan.fork();
+                            subdirectories.add(scan);
+                        }
+                    } else if (filenameFilter.accept(directory, file.getName())) {
+                        files.add(attributes == null ? new FileDataSource(file)
+                                : new FileDataSource(file, attributes.size()));
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // unreadable directories are skipped, as File.list does
+                LOG.log(Level.FINE, "Skipping unreadable directory " + directory, e);
+            }
+
+            for (DirectoryScan scan : subdirectories) {
+                files.addAll(scan.join());
+            }
+            return files;
+        }
+    }
+
     /**
      * Handy method to find a certain pattern into a file. While this method
      * lives in the FileUtils, it was designed with with unit test in mind (to
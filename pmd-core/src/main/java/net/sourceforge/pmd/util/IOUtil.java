@@ -37,6 +37,28 @@ public final class IOUtil {
         }
     }
 
+    /**
+     * Writes the contents of the buffer to the writer, then empties the buffer.
+     * The characters are copied through the given chunk array instead of an
+     * intermediate String, so that the same buffers can be reused for every
+     * write.
+     *
+     * @param writer The writer to write to
+     * @param buffer The characters to write
+     * @param chunk  Scratch array used for the copy, of any non-zero length
+     *
+     * @throws IOException If the writer fails
+     */
+    public static void writeAndClear(Writer writer, StringBuilder buffer, char[] chunk) throws IOException {
+        final int length = buffer.length();
+        for (int start = 0; start < length; start += chunk.length) {
+            final int end = Math.min(length, start + chunk.length);
+            buffer.getChars(start, end, chunk, 0);
+            writer.write(chunk, 0, end - start);
+        }
+        buffer.setLength(0);
+    }
+
     public static Reader skipBOM(Reader source) {
         Reader in = new BufferedReader(source);
         try {
@@ -18,14 +18,31 @@ public class FileDataSource implements DataSource {
 
     private static final String FILE_SEPARATOR = System.getProperty("file.separator");
 
+    private static final long UNKNOWN_SIZE = -1L;
+
     private File file;
+    private final long size;
 
     /**
      * @param file
      *            the file to read
      */
     public FileDataSource(File file) {
+        this(file, UNKNOWN_SIZE);
+    }
+
+    /**
+     * Creates a data source whose size is already known, e.g. from the
+     * attributes read when listing its directory.
+     *
+     * @param file
+     *            the file to read
+     * @param size
+     *            the size of the file, in bytes
+     */
+    public FileDataSource(File file, long size) {
         this.file = file;
+        this.size = size;
     }
 
     @Override
@@ -33,6 +50,16 @@ public class FileDataSource implements DataSource {
         return new FileInputStream(file);
     }
 
+    /**
+     * Returns the size of the file, in bytes. The file is only read if its
+     * size wasn't given when creating the data source.
+     *
+     * @return The size of the file, or 0 if it doesn't exist
+     */
+    public long getSize() {
+        return size == UNKNOWN_SIZE ? file.length() : size;
+    }
+
     @Override
     public String getNiceFileName(boolean shortNames, String inputFileName) {
         return glomName(shortNames, inputFileName, file);
@@ -32,6 +32,15 @@ public class ZipDataSource implements DataSource {
         return zipFile.getInputStream(zipEntry);
     }
 
+    /**
+     * Returns the uncompressed size of the entry, in bytes.
+     *
+     * @return The size of the entry, or -1 if it is not known
+     */
+    public long getSize() {
+        return zipEntry.getSize();
+    }
+
     @Override
     public String getNiceFileName(boolean shortNames, String inputFileName) {
         // FIXME: this could probably be done better
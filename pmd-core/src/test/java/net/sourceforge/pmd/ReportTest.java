@@ -166,6 +166,25 @@ public class ReportTest implements ThreadSafeReportListener {
         assertEquals(2, treeCount);
     }
 
+    @Test
+    public void testViolationsAddedAfterIterationAreSorted() {
+        Report r = new Report();
+        RuleContext ctx = new RuleContext();
+        ctx.setSourceCodeFilename("foo");
+        Rule rule = new MockRule("name", "desc", "msg", "rulesetname");
+        r.addRuleViolation(new ParametricRuleViolation<>(rule, ctx, getNode(30, 5, true), rule.getMessage()));
+        r.addRuleViolation(new ParametricRuleViolation<>(rule, ctx, getNode(10, 5, true), rule.getMessage()));
+        assertEquals(11, r.iterator().next().getBeginLine());
+        assertEquals(2, r.treeSize());
+
+        r.addRuleViolation(new ParametricRuleViolation<>(rule, ctx, getNode(1, 5, true), rule.getMessage()));
+        Iterator<RuleViolation> violations = r.iterator();
+        assertEquals(2, violations.next().getBeginLine());
+        assertEquals(11, violations.next().getBeginLine());
+        assertEquals(31, violations.next().getBeginLine());
+        assertEquals(3, r.treeSize());
+    }
+
     private static Node getNode(int line, int column) {
         DummyNode s = new DummyNode(2);
         DummyNode parent = new DummyNode(1);
@@ -0,0 +1,112 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.sourceforge.pmd.properties.PropertyDescriptor;
+import net.sourceforge.pmd.util.ResourceLoader;
+
+public class RuleSetSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        RuleSets original = new RuleSetFactory()
+                .createRuleSets("net/sourceforge/pmd/TestRuleset1.xml,rulesets/dummy/basic.xml");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RuleSetSnapshot.write(original, out);
+        List<RuleSet> read = RuleSetSnapshot.read(new ByteArrayInputStream(out.toByteArray()), RulePriority.LOW);
+
+        assertEquals(original.getAllRuleSets().length, read.size());
+        for (int i = 0; i < read.size(); i++) {
+            assertSameRuleSet(original.getAllRuleSets()[i], read.get(i));
+        }
+    }
+
+    @Test
+    public void testSnapshotFileAsRuleset() throws Exception {
+        RuleSets original = new RuleSetFactory().createRuleSets("net/sourceforge/pmd/TestRuleset1.xml");
+        File snapshot = folder.newFile("rules" + RuleSetSnapshot.FILE_EXTENSION);
+        try (OutputStream out = new FileOutputStream(snapshot)) {
+            RuleSetSnapshot.write(original, out);
+        }
+
+        RuleSets read = new RuleSetFactory().createRuleSets(snapshot.getAbsolutePath());
+        assertEquals(1, read.getAllRuleSets().length);
+        assertSameRuleSet(original.getAllRuleSets()[0], read.getAllRuleSets()[0]);
+
+        // the minimum priority of the factory applies
+        RuleSets filtered = new RuleSetFactory(new ResourceLoader(), RulePriority.HIGH, false, true)
+                .createRuleSets(snapshot.getAbsolutePath());
+        assertEquals(0, filtered.ruleCount());
+    }
+
+    @Test
+    public void testMinimumPriority() throws Exception {
+        RuleSets original = new RuleSetFactory().createRuleSets("net/sourceforge/pmd/TestRuleset1.xml");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RuleSetSnapshot.write(original, out);
+
+        List<RuleSet> read = RuleSetSnapshot.read(new ByteArrayInputStream(out.toByteArray()), RulePriority.HIGH);
+        assertEquals(0, read.get(0).size());
+    }
+
+    @Test
+    public void testNotASnapshot() {
+        try {
+            RuleSetSnapshot.read(new ByteArrayInputStream("<?xml version=\"1.0\"?>".getBytes()), RulePriority.LOW);
+            fail("Expected an IOException");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private static void assertSameRuleSet(RuleSet expected, RuleSet actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getFileName(), actual.getFileName());
+        assertEquals(expected.getChecksum(), actual.getChecksum());
+        assertEquals(expected.getExcludePatterns(), actual.getExcludePatterns());
+        assertEquals(expected.getIncludePatterns(), actual.getIncludePatterns());
+        assertEquals(expected.size(), actual.size());
+
+        for (net.sourceforge.pmd.Rule expectedRule : expected.getRules()) {
+            net.sourceforge.pmd.Rule actualRule = actual.getRuleByName(expectedRule.getName());
+            assertEquals(expectedRule.getRuleClass(), actualRule.getRuleClass());
+            assertEquals(expectedRule.getLanguage(), actualRule.getLanguage());
+            assertEquals(expectedRule.getPriority(), actualRule.getPriority());
+            assertEquals(expectedRule.getMessage(), actualRule.getMessage());
+            assertEquals(expectedRule.getDescription(), actualRule.getDescription());
+            assertEquals(expectedRule.getExternalInfoUrl(), actualRule.getExternalInfoUrl());
+            assertEquals(expectedRule.getRuleSetName(), actualRule.getRuleSetName());
+            assertEquals(expectedRule.isDeprecated(), actualRule.isDeprecated());
+            assertEquals(expectedRule.getExamples(), actualRule.getExamples());
+
+            assertEquals(expectedRule.getPropertyDescriptors().size(), actualRule.getPropertyDescriptors().size());
+            for (PropertyDescriptor<?> descriptor : expectedRule.getPropertyDescriptors()) {
+                PropertyDescriptor<?> actualDescriptor = actualRule.getPropertyDescriptor(descriptor.name());
+                assertEquals(descriptor.isDefinedExternally(), actualDescriptor.isDefinedExternally());
+                assertEquals(expectedRule.getProperty(descriptor), actualRule.getProperty(actualDescriptor));
+            }
+        }
+    }
+}
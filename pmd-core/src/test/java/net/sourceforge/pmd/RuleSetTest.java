@@ -14,6 +14,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -24,11 +25,16 @@ import org.junit.Test;
 
 import net.sourceforge.pmd.Report.ProcessingError;
 import net.sourceforge.pmd.RuleSet.RuleSetBuilder;
+import net.sourceforge.pmd.benchmark.FileTiming;
+import net.sourceforge.pmd.benchmark.TimeTracker;
+import net.sourceforge.pmd.benchmark.TimedOperationCategory;
+import net.sourceforge.pmd.benchmark.TimingReport;
 import net.sourceforge.pmd.lang.Dummy2LanguageModule;
 import net.sourceforge.pmd.lang.DummyLanguageModule;
 import net.sourceforge.pmd.lang.LanguageRegistry;
 import net.sourceforge.pmd.lang.ast.DummyNode;
 import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.ConcurrentRule;
 import net.sourceforge.pmd.lang.rule.MockRule;
 import net.sourceforge.pmd.lang.rule.RuleReference;
 import net.sourceforge.pmd.util.CollectionUtil;
@@ -476,6 +482,83 @@ public class RuleSetTest {
         assertNotSame(rule, ruleSet2.getRuleByName("FooRule1"));
     }
 
+    @Test
+    public void concurrentRulesAreAppliedOnOtherThreads() {
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        Rule sequentialRule = new FooRule();
+        sequentialRule.setName("SequentialRule");
+        Rule concurrentRule = new ConcurrentFooRule(threads);
+        concurrentRule.setName("ConcurrentRule");
+        Rule failingRule = new ConcurrentFooRule(null);
+        failingRule.setName("FailingRule");
+        RuleSets ruleSets = new RuleSets(createRuleSetBuilder("concurrentRules")
+                .addRule(sequentialRule).addRule(concurrentRule).addRule(failingRule).build());
+
+        RuleContext ctx = new RuleContext();
+        ctx.setReport(new Report());
+        ctx.setSourceCodeFilename("Foo.dummy");
+        ctx.setLanguageVersion(LanguageRegistry.getLanguage(DummyLanguageModule.NAME).getDefaultVersion());
+        ruleSets.applyConcurrently(makeCompilationUnits(), ctx, LanguageRegistry.getLanguage(DummyLanguageModule.NAME));
+
+        assertEquals("Violations", 2, ctx.getReport().size());
+        assertEquals("Errors", 1, CollectionUtil.toList(ctx.getReport().errors()).size());
+        assertEquals(1, threads.size());
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void concurrentRulesAreTimedWithTheirFile() {
+        Rule concurrentRule = new SleepingConcurrentRule();
+        concurrentRule.setName("SleepingRule");
+        RuleSets ruleSets = new RuleSets(createRuleSetBuilder("concurrentRules").addRule(concurrentRule).build());
+
+        RuleContext ctx = new RuleContext();
+        ctx.setReport(new Report());
+        ctx.setSourceCodeFilename("Foo.dummy");
+        ctx.setLanguageVersion(LanguageRegistry.getLanguage(DummyLanguageModule.NAME).getDefaultVersion());
+        TimeTracker.startGlobalTracking();
+        TimeTracker.startFile("Foo.dummy");
+        try {
+            ruleSets.applyConcurrently(makeCompilationUnits(), ctx,
+                    LanguageRegistry.getLanguage(DummyLanguageModule.NAME));
+        } finally {
+            TimeTracker.finishFile();
+        }
+        TimingReport report = TimeTracker.stopGlobalTracking();
+
+        List<FileTiming> files = report.getFileTimings();
+        assertEquals(1, files.size());
+        assertEquals("Foo.dummy", files.get(0).getFileName());
+        assertTrue(files.get(0).getSelfTimeNanos(TimedOperationCategory.RULE) >= 20000000);
+    }
+
+    private static class SleepingConcurrentRule extends FooRule implements ConcurrentRule {
+        @Override
+        public void apply(List<? extends Node> nodes, RuleContext ctx) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.apply(nodes, ctx);
+        }
+    }
+
+    private static class ConcurrentFooRule extends FooRule implements ConcurrentRule {
+        private final Set<Thread> threads;
+
+        ConcurrentFooRule(Set<Thread> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public void apply(List<? extends Node> nodes, RuleContext ctx) {
+            // fails without a set of threads
+            threads.add(Thread.currentThread());
+            super.apply(nodes, ctx);
+        }
+    }
+
     private void verifyRuleSet(RuleSet ruleset, int size, Set<RuleViolation> values) {
 
         RuleContext context = new RuleContext();
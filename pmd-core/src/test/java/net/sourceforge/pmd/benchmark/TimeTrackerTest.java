@@ -0,0 +1,108 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import net.sourceforge.pmd.benchmark.TimeTracker.TimedResult;
+
+public class TimeTrackerTest {
+
+    private static byte[] allocated;
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getTotalCount());
+        assertEquals(1000000, histogram.getMaxValue());
+        assertWithinPrecision(500000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(990000, histogram.getValueAtPercentile(99));
+        assertEquals(1000000, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        for (long value : new long[] {0, 7, 8, 15, 16, 1000, 123456789, Long.MAX_VALUE}) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.highestValueInBucket(index) >= value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueInBucket(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testFileTimings() throws Exception {
+        TimeTracker.startGlobalTracking();
+        for (String file : new String[] {"Fast.java", "Slow.java"}) {
+            TimeTracker.startFile(file);
+            try (TimedOperation to = TimeTracker.startOperation(TimedOperationCategory.RULE, "SomeRule")) {
+                Thread.sleep("Slow.java".equals(file) ? 20 : 1);
+            }
+            TimeTracker.finishFile();
+        }
+        final TimingReport report = TimeTracker.stopGlobalTracking();
+
+        final List<FileTiming> files = report.getFileTimings();
+        assertEquals(2, files.size());
+        assertEquals("Fast.java", files.get(0).getFileName());
+        assertTrue(files.get(1).getSelfTimeNanos(TimedOperationCategory.RULE) >= 20000000);
+        assertTrue(files.get(1).getTotalTimeNanos() >= files.get(1).getSelfTimeNanos(TimedOperationCategory.RULE));
+
+        final TimedResult rule = report.getLabeledMeasurements(TimedOperationCategory.RULE).get("SomeRule");
+        assertEquals(2, rule.latencies.getTotalCount());
+        final List<Map.Entry<String, Long>> slowest = rule.getSlowestFiles();
+        assertEquals("Slow.java", slowest.get(0).getKey());
+        assertEquals("Fast.java", slowest.get(1).getKey());
+
+        final StringWriter json = new StringWriter();
+        new JsonTimingReportRenderer().render(report, json);
+        assertTrue(json.toString().contains("\"slowestFiles\""));
+        assertTrue(json.toString().contains("\"file\": \"Slow.java\""));
+
+        final StringWriter csv = new StringWriter();
+        new CsvFileTimingReportRenderer().render(report, csv);
+        assertEquals(3, csv.toString().split("\\r?\\n").length);
+    }
+
+    @Test
+    public void testCpuAndAllocations() {
+        TimeTracker.startGlobalTracking(true);
+        try (TimedOperation to = TimeTracker.startOperation(TimedOperationCategory.RULE)) {
+            try (TimedOperation rto = TimeTracker.startOperation(TimedOperationCategory.RULE, "AllocatingRule")) {
+                allocated = new byte[1 << 20];
+            }
+        }
+        final TimingReport report = TimeTracker.stopGlobalTracking();
+        assumeTrue(report.isResourcesTracked());
+
+        final TimedResult rule = report.getLabeledMeasurements(TimedOperationCategory.RULE).get("AllocatingRule");
+        assertTrue(rule.selfAllocatedBytes.get() >= allocated.length);
+        assertTrue(rule.totalCpuNanos.get() > 0);
+
+        // the nested operation is not accounted to the outer one
+        final TimedResult total = report.getUnlabeledMeasurements(TimedOperationCategory.RULE);
+        assertTrue(total.totalAllocatedBytes.get() >= allocated.length);
+        assertTrue(total.selfAllocatedBytes.get() < allocated.length);
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected / 8);
+    }
+}
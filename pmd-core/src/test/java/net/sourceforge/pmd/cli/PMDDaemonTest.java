@@ -0,0 +1,183 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.sourceforge.pmd.PMD;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.AbstractRule;
+
+import com.beust.jcommander.JCommander;
+
+public class PMDDaemonTest {
+
+    private static final String SOURCES = "src/test/resources/net/sourceforge/pmd/cli/src";
+    private static final List<String> REQUEST = Arrays.asList("-d", SOURCES, "-f", "text", "-R",
+            "rulesets/PMDDaemonTest/violation.xml", "-no-cache", "-shortnames");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File tokenDirectory;
+    private PMDDaemon daemon;
+    private Thread thread;
+
+    @Before
+    public void startDaemon() throws IOException {
+        tokenDirectory = new File(tempFolder.getRoot(), "tokens");
+        daemon = new PMDDaemon(0, tokenDirectory);
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                daemon.serve();
+            }
+        });
+        thread.start();
+    }
+
+    @After
+    public void stopDaemon() throws InterruptedException {
+        daemon.stop();
+        thread.join();
+    }
+
+    @Test
+    public void testRequestsGiveTheSameReport() throws IOException {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        StringWriter messages = new StringWriter();
+        assertEquals(PMDCommandLineInterface.VIOLATIONS_FOUND, send(REQUEST, first, messages));
+        assertTrue(first.toString().contains("somefile.dummy"));
+        assertEquals("", messages.toString());
+
+        // the rulesets are taken from the cache
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        assertEquals(PMDCommandLineInterface.VIOLATIONS_FOUND, send(REQUEST, second, messages));
+        assertArrayEquals(first.toByteArray(), second.toByteArray());
+    }
+
+    @Test
+    public void testReportIsPassedThroughAsIs() throws IOException {
+        PMDParameters params = new PMDParameters();
+        new JCommander(params).parse(REQUEST.toArray(new String[0]));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PMD.doPMD(params.toConfiguration(), new RuleSetFactory(),
+                new OutputStreamWriter(expected, Charset.defaultCharset()));
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        send(REQUEST, report, new StringWriter());
+        assertArrayEquals(expected.toByteArray(), report.toByteArray());
+    }
+
+    @Test
+    public void testBenchmarkGoesToTheMessages() throws IOException {
+        List<String> request = new ArrayList<>(REQUEST);
+        request.add("-benchmark");
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        StringWriter messages = new StringWriter();
+        assertEquals(PMDCommandLineInterface.VIOLATIONS_FOUND, send(request, report, messages));
+
+        ByteArrayOutputStream withoutBenchmark = new ByteArrayOutputStream();
+        send(REQUEST, withoutBenchmark, new StringWriter());
+        assertArrayEquals(withoutBenchmark.toByteArray(), report.toByteArray());
+        assertTrue(messages.toString().contains("Summary"));
+    }
+
+    @Test
+    public void testInvalidArguments() throws IOException {
+        StringWriter messages = new StringWriter();
+        int status = send(Arrays.asList("-unknown"), new ByteArrayOutputStream(), messages);
+        assertEquals(PMDCommandLineInterface.ERROR_STATUS, status);
+        assertFalse(messages.toString().isEmpty());
+    }
+
+    @Test
+    public void testInvalidToken() throws IOException {
+        StringWriter messages = new StringWriter();
+        int status = PMDDaemonClient.send(daemon.getPort(), "guessed", REQUEST, new ByteArrayOutputStream(), messages);
+        assertEquals(PMDCommandLineInterface.ERROR_STATUS, status);
+        assertTrue(messages.toString().startsWith("Invalid token"));
+    }
+
+    @Test
+    public void testTokenIsPrivate() throws IOException {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        File tokenFile = PMDDaemon.tokenFile(tokenDirectory, daemon.getPort());
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile.toPath())));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenDirectory.toPath())));
+
+        daemon.stop();
+        assertFalse(tokenFile.exists());
+    }
+
+    @Test
+    public void testSilentClientTimesOut() throws IOException {
+        daemon.setRequestTimeout(100);
+        try (Socket silent = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            assertEquals(PMDCommandLineInterface.ERROR_STATUS,
+                    send(Arrays.asList("-unknown"), new ByteArrayOutputStream(), new StringWriter()));
+        }
+    }
+
+    @Test
+    public void testStopRequest() throws Exception {
+        assertEquals(0, send(Arrays.asList(PMDDaemon.STOP_REQUEST), new ByteArrayOutputStream(), new StringWriter()));
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void testPathsAreResolvedByTheClient() throws IOException {
+        List<String> request = new ArrayList<>();
+        String reportFile = PMDDaemonClient.toRequest(new String[] {"-port", "1234", "-R", "rulesets/dummy/basic.xml",
+            "-filelist", "src/test/resources/net/sourceforge/pmd/cli/filelist.txt", "-d", SOURCES, "-f", "xml", },
+            2, request);
+
+        assertNull(reportFile);
+        String sources = new File(SOURCES + "/somefile.dummy").getAbsolutePath() + ","
+                + new File(SOURCES + "/anotherfile.dummy").getAbsolutePath() + "," + new File(SOURCES).getAbsolutePath();
+        assertEquals(Arrays.asList("-R", "rulesets/dummy/basic.xml", "-f", "xml", "-d", sources), request);
+    }
+
+    private int send(List<String> request, ByteArrayOutputStream report, StringWriter messages) throws IOException {
+        return PMDDaemonClient.send(daemon.getPort(), PMDDaemonClient.readToken(tokenDirectory, daemon.getPort()),
+                request, report, messages);
+    }
+
+    public static class ViolationRule extends AbstractRule {
+        @Override
+        public void apply(List<? extends Node> nodes, RuleContext ctx) {
+            addViolation(ctx, nodes.get(0));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.cli;
+
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.sourceforge.pmd.PMDConfiguration;
+
+public class PMDWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 60000)
+    public void testChangedFilesAreAnalyzedAgain() throws Exception {
+        File sources = folder.newFolder("src");
+        write(new File(sources, "first.dummy"));
+        File report = new File(folder.getRoot(), "report.txt");
+
+        PMDConfiguration configuration = new PMDConfiguration();
+        configuration.setInputPaths(sources.getPath());
+        configuration.setRuleSets("rulesets/PMDDaemonTest/violation.xml");
+        configuration.setReportFormat("text");
+        configuration.setReportFile(report.getPath());
+        configuration.setIgnoreIncrementalAnalysis(true);
+
+        final PMDWatcher watcher = new PMDWatcher(configuration, 50);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    watcher.watch();
+                } catch (IOException | InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+
+        try {
+            waitForReport(report, "first.dummy");
+
+            // files of new directories are analyzed too
+            File directory = new File(sources, "sub");
+            directory.mkdir();
+            write(new File(directory, "second.dummy"));
+
+            String content = waitForReport(report, "second.dummy");
+            assertFalse(content.contains("first.dummy"));
+        } finally {
+            watcher.stop();
+            thread.join();
+        }
+    }
+
+    private static void write(File file) throws IOException {
+        Files.write(file.toPath(), "Some file for testing".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String waitForReport(File report, String expected) throws IOException, InterruptedException {
+        while (true) {
+            if (report.exists()) {
+                String content = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+                if (content.contains(expected)) {
+                    return content;
+                }
+            }
+            Thread.sleep(50);
+        }
+    }
+}
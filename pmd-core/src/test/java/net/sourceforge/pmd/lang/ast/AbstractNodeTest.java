@@ -229,6 +229,19 @@ public class AbstractNodeTest {
     }
 
 
+    @Test
+    public void testUserDataAndDataFlowNodeAreIndependent() {
+        DummyNode node = new DummyNode(nextId());
+        assertNull(node.getUserData());
+
+        node.setUserData("data");
+        assertEquals("data", node.getUserData());
+        assertNull(node.getDataFlowNode());
+
+        node.setUserData(null);
+        assertNull(node.getUserData());
+    }
+
     @Test
     public void testDeprecatedAttributeXPathQuery() throws JaxenException {
         class MyRootNode extends DummyNode implements RootNode {
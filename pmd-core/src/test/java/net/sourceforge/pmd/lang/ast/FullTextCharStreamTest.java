@@ -0,0 +1,82 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.ast;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+public class FullTextCharStreamTest {
+
+    @Test
+    public void testPositionsAreTheOnesOfSimpleCharStream() throws IOException {
+        assertSameTokens("class Foo {\n\tint\ta;\r\n  \t\tString b = \"\\t\";\r}\n\n");
+        assertSameTokens("\n\r\r\n\t");
+        assertSameTokens("a");
+    }
+
+    @Test
+    public void testImagesAreShared() throws IOException {
+        CharStream first = new FullTextCharStream(new StringReader("equals"));
+        CharStream second = new FullTextCharStream(new StringReader("a.equals"));
+        String image = readToken(first, 6);
+        readToken(second, 2);
+
+        assertEquals("equals", image);
+        assertSame(image, readToken(second, 6));
+    }
+
+    private static String readToken(CharStream stream, int length) throws IOException {
+        stream.BeginToken();
+        for (int i = 1; i < length; i++) {
+            stream.readChar();
+        }
+        return stream.GetImage();
+    }
+
+    @Test
+    public void testJavaUnicodeEscapes() throws IOException {
+        assertTrue(FullTextCharStream.withJavaUnicodeEscapes(new StringReader("int a;")) instanceof FullTextCharStream);
+
+        CharStream stream = FullTextCharStream.withJavaUnicodeEscapes(new StringReader("\\u0041"));
+        assertEquals('A', stream.BeginToken());
+    }
+
+    /**
+     * Reads the text with both streams in tokens of three characters, the
+     * last one backed up.
+     */
+    private static void assertSameTokens(String text) throws IOException {
+        CharStream expected = new SimpleCharStream(new StringReader(text));
+        CharStream actual = new FullTextCharStream(new StringReader(text));
+        try {
+            while (true) {
+                assertEquals(expected.BeginToken(), actual.BeginToken());
+                for (int i = 0; i < 2; i++) {
+                    assertEquals(expected.readChar(), actual.readChar());
+                }
+                expected.backup(1);
+                actual.backup(1);
+
+                assertEquals(expected.GetImage(), actual.GetImage());
+                assertArrayEquals(expected.GetSuffix(1), actual.GetSuffix(1));
+                assertEquals(expected.getBeginLine(), actual.getBeginLine());
+                assertEquals(expected.getBeginColumn(), actual.getBeginColumn());
+                assertEquals(expected.getEndLine(), actual.getEndLine());
+                assertEquals(expected.getEndColumn(), actual.getEndColumn());
+            }
+        } catch (IOException e) {
+            // end of the text
+            assertEquals(expected.getEndLine(), actual.getEndLine());
+            assertEquals(expected.getEndColumn(), actual.getEndColumn());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.ast;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class NodeTypeIndexTest {
+
+    private DummyRootNode root;
+    private DummyNode child;
+    private DummyNode boundary;
+    private DummyNode first;
+    private DummyNode second;
+    private DummyNode third;
+
+    @Before
+    public void setUpTree() {
+        // root
+        //   child
+        //     first
+        //     boundary
+        //       second
+        //   third
+        root = new DummyRootNode();
+        child = new DummyNode(1);
+        first = new DummyNodeWithDeprecatedAttribute(2);
+        boundary = new DummyNode(3, true);
+        second = new DummyNodeWithDeprecatedAttribute(4);
+        third = new DummyNodeWithDeprecatedAttribute(5);
+        addChild(root, child);
+        addChild(child, first);
+        addChild(child, boundary);
+        addChild(boundary, second);
+        addChild(root, third);
+    }
+
+    @Test
+    public void testFindDescendantsOfType() {
+        assertEquals(Arrays.asList(first, second, third),
+                root.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class, true));
+        assertEquals(Arrays.asList(first, third), root.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+        assertEquals(Arrays.asList(first, second),
+                child.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class, true));
+        assertEquals(Collections.singletonList(first),
+                child.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+        // the boundary itself doesn't stop the search
+        assertEquals(Collections.singletonList(second),
+                boundary.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+        assertEquals(Arrays.asList(child, boundary), root.findDescendantsOfType(DummyNode.class, true));
+        assertEquals(Collections.emptyList(), third.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+    }
+
+    @Test
+    public void testIndexIsDroppedWhenTheTreeChanges() {
+        assertEquals(Arrays.asList(first, third), root.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+
+        DummyNode added = new DummyNodeWithDeprecatedAttribute(6);
+        addChild(third, added);
+        assertEquals(Arrays.asList(first, third, added),
+                root.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+
+        child.remove();
+        assertEquals(Arrays.asList(third, added), root.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+        // the removed subtree is searched without the index
+        assertEquals(Collections.singletonList(first),
+                child.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+    }
+
+    @Test
+    public void testPreorderNumbers() {
+        assertEquals(0, root.getPreorderNumber());
+        assertEquals(5, root.getSubtreeEndNumber());
+        assertEquals(1, child.getPreorderNumber());
+        assertEquals(4, child.getSubtreeEndNumber());
+        assertEquals(4, second.getPreorderNumber());
+        assertEquals(4, second.getSubtreeEndNumber());
+        assertEquals(5, third.getPreorderNumber());
+
+        child.remove();
+        assertEquals(-1, child.getPreorderNumber());
+        assertEquals(1, third.getPreorderNumber());
+    }
+
+    @Test
+    public void testIndexBuiltAheadKeepsTheUserData() {
+        root.setUserData("data");
+        root.buildTypeIndex();
+        root.setUserData("other data");
+        assertEquals(Arrays.asList(first, third), root.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class));
+        assertEquals("other data", root.getUserData());
+    }
+
+    @Test
+    public void testConcurrentQueriesOnIndexBuiltAhead() throws Exception {
+        root.buildTypeIndex();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<DummyNodeWithDeprecatedAttribute>>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(new Callable<List<DummyNodeWithDeprecatedAttribute>>() {
+                    @Override
+                    public List<DummyNodeWithDeprecatedAttribute> call() {
+                        return child.findDescendantsOfType(DummyNodeWithDeprecatedAttribute.class, true);
+                    }
+                }));
+            }
+            for (Future<List<DummyNodeWithDeprecatedAttribute>> result : results) {
+                assertEquals(Arrays.asList(first, second), result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void addChild(Node parent, Node child) {
+        parent.jjtAddChild(child, parent.jjtGetNumChildren());
+        child.jjtSetParent(parent);
+    }
+
+    private static class DummyRootNode extends DummyNode implements RootNode {
+        DummyRootNode() {
+            super(0);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.rule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.lang.ast.DummyNode;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.ast.RootNode;
+
+public class AbstractSuppressionIndexTest {
+
+    private static final Rule FOO = new MockRule("Foo", "", "", "");
+    private static final Rule BAR = new MockRule("Bar", "", "", "");
+
+    private DummyNode root;
+    private DummyNode suppressing;
+    private DummyNode suppressed;
+    private DummyNode sibling;
+    private DummyIndex index;
+
+    @Before
+    public void setUp() {
+        root = new DummyRootNode();
+        suppressing = addChild(root);
+        DummyNode child = addChild(suppressing);
+        suppressed = addChild(child);
+        sibling = addChild(root);
+        addChild(sibling);
+
+        index = new DummyIndex(root);
+        index.suppressions.put(suppressing, "Foo");
+    }
+
+    @Test
+    public void testSuppressedInTheSubtree() {
+        assertTrue(index.isSuppressed(suppressing, FOO));
+        assertTrue(index.isSuppressed(suppressed, FOO));
+        assertFalse(index.isSuppressed(suppressed, BAR));
+        assertFalse(index.isSuppressed(sibling, FOO));
+        assertFalse(index.isSuppressed(sibling.jjtGetChild(0), FOO));
+        assertFalse(index.isSuppressed(root, FOO));
+    }
+
+    @Test
+    public void testNestedSuppressions() {
+        DummyNode inner = addChild(suppressing);
+        DummyNode innerChild = addChild(inner);
+        DummyNode afterInner = addChild(suppressing);
+        DummyNode siblingChild = addChild(sibling);
+        index.suppressions.put(inner, "Bar");
+        index.suppressions.put(siblingChild, "Bar");
+
+        assertTrue(index.isSuppressed(innerChild, FOO));
+        assertTrue(index.isSuppressed(innerChild, BAR));
+        // after the subtree of the inner suppressor, only the enclosing one applies
+        assertTrue(index.isSuppressed(afterInner, FOO));
+        assertFalse(index.isSuppressed(afterInner, BAR));
+        assertFalse(index.isSuppressed(sibling.jjtGetChild(0), BAR));
+        assertTrue(index.isSuppressed(siblingChild, BAR));
+        assertFalse(index.isSuppressed(siblingChild, FOO));
+    }
+
+    @Test
+    public void testSuppressionsAreComputedOncePerRule() {
+        index.isSuppressed(suppressed, FOO);
+        index.isSuppressed(suppressing, FOO);
+        index.isSuppressed(suppressed, BAR);
+        assertEquals(2, index.calls);
+    }
+
+    @Test
+    public void testNodeAddedAfterTheIndex() {
+        index.isSuppressed(root, FOO);
+        assertTrue(index.isSuppressed(addChild(suppressed), FOO));
+        assertFalse(index.isSuppressed(addChild(sibling), FOO));
+    }
+
+    @Test
+    public void testTreeWithoutRoot() {
+        DummyNode top = new DummyNode(0);
+        DummyNode child = addChild(top);
+        DummyIndex unnumbered = new DummyIndex(top);
+        unnumbered.suppressions.put(child, "Foo");
+        assertTrue(unnumbered.isSuppressed(addChild(child), FOO));
+        assertFalse(unnumbered.isSuppressed(top, FOO));
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return index.isSuppressed(suppressed, FOO) && !index.isSuppressed(sibling, FOO);
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, index.calls);
+    }
+
+    private static DummyNode addChild(DummyNode parent) {
+        DummyNode child = new DummyNode(0);
+        parent.jjtAddChild(child, parent.jjtGetNumChildren());
+        child.jjtSetParent(parent);
+        return child;
+    }
+
+    private static class DummyRootNode extends DummyNode implements RootNode {
+        DummyRootNode() {
+            super(0);
+        }
+    }
+
+    private static class DummyIndex extends AbstractSuppressionIndex {
+        private final Map<Node, String> suppressions = new HashMap<>();
+        private int calls;
+
+        DummyIndex(Node root) {
+            super(root);
+        }
+
+        @Override
+        protected boolean canSuppress(Node node) {
+            return suppressions.containsKey(node);
+        }
+
+        @Override
+        protected boolean suppresses(Node node, Rule rule) {
+            calls++;
+            return suppressions.get(node).equals(rule.getName());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.RuleSets;
+import net.sourceforge.pmd.lang.Language;
+import net.sourceforge.pmd.lang.LanguageRegistry;
+import net.sourceforge.pmd.lang.ast.DummyNode;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.AbstractRule;
+import net.sourceforge.pmd.lang.rule.ConcurrentRule;
+
+public class AnalysisWatchdogTest {
+
+    @After
+    public void finishFile() {
+        AnalysisWatchdog.finishFile();
+    }
+
+    @Test
+    public void testNoBudget() {
+        AnalysisWatchdog.startFile("Foo.java", 0, 0);
+        AnalysisWatchdog.startRule("SomeRule");
+        AnalysisWatchdog.checkTimeout();
+        AnalysisWatchdog.finishRule();
+    }
+
+    @Test
+    public void testFileTimeout() {
+        AnalysisWatchdog.startFile("Foo.java", 10, 0);
+        AnalysisTimeoutException e = spinUntilTimeout();
+        assertTrue(e.isFileTimeout());
+        assertTrue(e.getMessage().contains("Foo.java"));
+
+        // still timed out after the rule
+        AnalysisWatchdog.finishRule();
+        try {
+            AnalysisWatchdog.checkTimeout();
+            fail("Expected a timeout");
+        } catch (AnalysisTimeoutException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRuleTimeout() {
+        AnalysisWatchdog.startFile("Foo.java", 0, 10);
+        AnalysisWatchdog.startRule("SlowRule");
+        AnalysisTimeoutException e = spinUntilTimeout();
+        assertFalse(e.isFileTimeout());
+        assertTrue(e.getMessage().contains("SlowRule"));
+
+        // the next rule has its own budget
+        AnalysisWatchdog.finishRule();
+        AnalysisWatchdog.startRule("FastRule");
+        AnalysisWatchdog.checkTimeout();
+        AnalysisWatchdog.finishRule();
+    }
+
+    @Test
+    public void testRuleTimeoutIsReportedAsError() {
+        SpinningRule other = rule(new SpinningRule(), "Other");
+        other.spin = false;
+        RuleSets ruleSets = ruleSets(rule(new SpinningRule(), "Spinning"), other);
+
+        AnalysisWatchdog.startFile("Foo.dummy", 0, 10);
+        RuleContext ctx = applyToDummyFile(ruleSets, false);
+
+        assertOnlyError(ctx, "Spinning");
+        assertTrue("The other rule was not applied", other.applied);
+    }
+
+    @Test
+    public void testRuleChainRuleTimeoutIsReportedAsError() {
+        SpinningRule spinning = rule(new SpinningRule(), "Spinning");
+        spinning.addRuleChainVisit("dummyNode");
+        SpinningRule other = rule(new SpinningRule(), "Other");
+        other.addRuleChainVisit("dummyNode");
+        other.spin = false;
+        RuleSets ruleSets = ruleSets(spinning, other);
+
+        AnalysisWatchdog.startFile("Foo.dummy", 0, 10);
+        RuleContext ctx = applyToDummyFile(ruleSets, false);
+
+        assertOnlyError(ctx, "Spinning");
+        assertTrue("The other rule was not applied", other.applied);
+    }
+
+    @Test
+    public void testConcurrentRuleTimeoutIsReportedAsError() {
+        SpinningRule other = rule(new SpinningRule(), "Other");
+        other.spin = false;
+        RuleSets ruleSets = ruleSets(rule(new ConcurrentSpinningRule(), "Spinning"), other);
+
+        AnalysisWatchdog.startFile("Foo.dummy", 0, 10);
+        RuleContext ctx = applyToDummyFile(ruleSets, true);
+
+        assertOnlyError(ctx, "Spinning");
+        assertTrue("The other rule was not applied", other.applied);
+    }
+
+    @Test
+    public void testConcurrentRuleFileTimeout() {
+        RuleSets ruleSets = ruleSets(rule(new ConcurrentSpinningRule(), "Spinning"));
+
+        AnalysisWatchdog.startFile("Foo.dummy", 10, 0);
+        try {
+            applyToDummyFile(ruleSets, true);
+            fail("Expected a timeout");
+        } catch (AnalysisTimeoutException e) {
+            assertTrue(e.isFileTimeout());
+        }
+        // the budget of the file is still enforced on the analyzing thread
+        assertTrue(spinUntilTimeout().isFileTimeout());
+    }
+
+    private static <T extends SpinningRule> T rule(T rule, String name) {
+        rule.setName(name);
+        rule.setLanguage(LanguageRegistry.getLanguage("Dummy"));
+        return rule;
+    }
+
+    private static RuleSets ruleSets(SpinningRule... rules) {
+        RuleSetFactory factory = new RuleSetFactory();
+        RuleSets ruleSets = new RuleSets();
+        for (SpinningRule rule : rules) {
+            ruleSets.addRuleSet(factory.createSingleRuleRuleSet(rule));
+        }
+        return ruleSets;
+    }
+
+    private static RuleContext applyToDummyFile(RuleSets ruleSets, boolean concurrently) {
+        Language dummy = LanguageRegistry.getLanguage("Dummy");
+        RuleContext ctx = new RuleContext();
+        ctx.setSourceCodeFilename("Foo.dummy");
+        ctx.setLanguageVersion(dummy.getDefaultVersion());
+
+        List<Node> nodes = Collections.<Node>singletonList(new DummyNode(1));
+        if (concurrently) {
+            ruleSets.applyConcurrently(nodes, ctx, dummy);
+        } else {
+            ruleSets.apply(nodes, ctx, dummy);
+        }
+        return ctx;
+    }
+
+    private static void assertOnlyError(RuleContext ctx, String ruleName) {
+        Iterator<Report.ProcessingError> errors = ctx.getReport().errors();
+        assertTrue(errors.next().getMsg().contains(ruleName));
+        assertFalse(errors.hasNext());
+    }
+
+    private static AnalysisTimeoutException spinUntilTimeout() {
+        long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() - start < 10000) {
+            try {
+                AnalysisWatchdog.checkTimeout();
+            } catch (AnalysisTimeoutException e) {
+                return e;
+            }
+            Thread.yield();
+        }
+        fail("No timeout");
+        return null;
+    }
+
+    public static class SpinningRule extends AbstractRule {
+        /* default */ boolean spin = true;
+        /* default */ boolean applied;
+
+        @Override
+        public void apply(List<? extends Node> nodes, RuleContext ctx) {
+            applied = true;
+            if (spin) {
+                assertEquals("Foo.dummy", ctx.getSourceCodeFilename());
+                spinUntilTimeout();
+                AnalysisWatchdog.checkTimeout();
+            }
+        }
+    }
+
+    public static class ConcurrentSpinningRule extends SpinningRule implements ConcurrentRule {
+    }
+}
@@ -5,16 +5,21 @@
 package net.sourceforge.pmd.processor;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import net.sourceforge.pmd.PMDConfiguration;
 import net.sourceforge.pmd.Report;
@@ -29,9 +34,13 @@ import net.sourceforge.pmd.renderers.AbstractAccumulatingRenderer;
 import net.sourceforge.pmd.renderers.Renderer;
 import net.sourceforge.pmd.stat.Metric;
 import net.sourceforge.pmd.util.datasource.DataSource;
+import net.sourceforge.pmd.util.datasource.FileDataSource;
 
 public class MultiThreadProcessorTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private RuleContext ctx;
     private MultiThreadProcessor processor;
     private RuleSetFactory ruleSetFactory;
@@ -46,6 +55,7 @@ public class MultiThreadProcessorTest {
         files.add(new StringDataSource("file1-violation.dummy", "ABC"));
         files.add(new StringDataSource("file2-foo.dummy", "DEF"));
 
+        NotThreadSafeRule.count.set(0);
         reportListener = new SimpleReportListener();
         ctx = new RuleContext();
         ctx.getReport().addListener(reportListener);
@@ -85,6 +95,80 @@ public class MultiThreadProcessorTest {
         Assert.assertEquals("Missing violation", 1, reportListener.violations.get());
     }
 
+    @Test
+    public void testConcurrentRenderers() throws IOException {
+        setUpForTest("rulesets/MultiThreadProcessorTest/basic.xml");
+        final SimpleRenderer renderer1 = new SimpleRenderer("first", null);
+        final SimpleRenderer renderer2 = new SimpleRenderer("second", null);
+        renderer1.start();
+        renderer2.start();
+        processor.processFiles(ruleSetFactory, files, ctx, Arrays.<Renderer>asList(renderer1, renderer2));
+        renderer1.end();
+        renderer2.end();
+
+        // each renderer gets every file report
+        Assert.assertEquals("Missing violation in first renderer", 1, renderer1.getReport().size());
+        Assert.assertEquals("Missing violation in second renderer", 1, renderer2.getReport().size());
+    }
+
+    @Test(timeout = 60000)
+    public void testRendererErrorFailsTheRun() throws IOException {
+        // no rule is applied, so that the files are quickly processed
+        setUpForTest("rulesets/MultiThreadProcessorTest/dysfunctional.xml");
+        // more reports than the queue of a renderer thread holds
+        for (int i = 0; i < 200; i++) {
+            files.add(new StringDataSource("file" + i + ".dummy", "GHI"));
+        }
+        final SimpleRenderer renderer = new SimpleRenderer("working", null);
+        final SimpleRenderer failing = new SimpleRenderer("failing", null) {
+            private int rendered;
+
+            @Override
+            public void renderFileReport(Report report) {
+                // the first report, with the configuration errors, is rendered before the file reports
+                if (rendered++ > 0) {
+                    throw new AssertionError("renderer error");
+                }
+            }
+        };
+        renderer.start();
+        failing.start();
+        try {
+            processor.processFiles(ruleSetFactory, files, ctx, Arrays.<Renderer>asList(renderer, failing));
+            Assert.fail("The renderer error should fail the run");
+        } catch (AssertionError e) {
+            Assert.assertEquals("renderer error", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testLargestFilesFirst() throws IOException {
+        final List<DataSource> sources = new ArrayList<>();
+        sources.add(new StringDataSource("unknown.dummy", "ABC"));
+        sources.add(new FileDataSource(newFile("small.dummy", 10)));
+        sources.add(new FileDataSource(newFile("large.dummy", 1000)));
+        sources.add(new FileDataSource(newFile("medium.dummy", 100)));
+        sources.add(new FileDataSource(newFile("other-small.dummy", 10)));
+
+        Assert.assertEquals(Arrays.asList(2, 3, 1, 4, 0), MultiThreadProcessor.largestFirst(sources));
+    }
+
+    @Test
+    public void testLargestFilesFirstWithKnownSizes() throws IOException {
+        final List<DataSource> sources = new ArrayList<>();
+        sources.add(new FileDataSource(newFile("small.dummy", 10)));
+        // the size collected with the file list is used, the file isn't read again
+        sources.add(new FileDataSource(new File(tempFolder.getRoot(), "listed.dummy"), 100));
+
+        Assert.assertEquals(Arrays.asList(1, 0), MultiThreadProcessor.largestFirst(sources));
+    }
+
+    private File newFile(String name, int size) throws IOException {
+        final File file = tempFolder.newFile(name);
+        Files.write(file.toPath(), new byte[size]);
+        return file;
+    }
+
     private static class StringDataSource implements DataSource {
         private final String data;
         private final String name;
@@ -6,6 +6,14 @@ package net.sourceforge.pmd.renderers;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.output.NullWriter;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import net.sourceforge.pmd.FooRule;
@@ -22,6 +30,10 @@ import net.sourceforge.pmd.lang.rule.ParametricRuleViolation;
 
 public abstract class AbstractRendererTst {
 
+    /** The length of the descriptions of the violations rendered to measure the allocations. */
+    protected static final int LONG_DESCRIPTION_LENGTH = 1000;
+    private static final int ALLOCATION_VIOLATIONS = 10000;
+
     public abstract Renderer getRenderer();
 
     public abstract String getExpected();
@@ -84,6 +96,41 @@ public abstract class AbstractRendererTst {
         return node;
     }
 
+    /**
+     * Renders many violations with a long description, and returns the
+     * bytes allocated by the renderer per violation, or -1 if the JVM can't
+     * measure the allocations of a thread. The output is discarded.
+     */
+    protected long allocatedBytesPerViolation(AbstractIncrementingRenderer renderer) throws IOException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        RuleContext ctx = new RuleContext();
+        ctx.setSourceCodeFilename(getSourceCodeFilename());
+        String description = StringUtils.repeat('x', LONG_DESCRIPTION_LENGTH);
+        List<RuleViolation> violations = new ArrayList<>();
+        for (int i = 0; i < ALLOCATION_VIOLATIONS; i++) {
+            violations.add(new ParametricRuleViolation<Node>(new FooRule(), ctx, createNode(i + 1), description));
+        }
+
+        renderer.setWriter(new NullWriter());
+        renderer.start();
+        // warm up, so that the buffers are allocated
+        renderer.renderFileViolations(violations.iterator());
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        renderer.renderFileViolations(violations.iterator());
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        renderer.end();
+        return allocated / ALLOCATION_VIOLATIONS;
+    }
+
     @Test
     public void testRuleWithProperties() throws Exception {
         DummyNode node = createNode(1);
@@ -4,6 +4,10 @@
 
 package net.sourceforge.pmd.renderers;
 
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
 import net.sourceforge.pmd.PMD;
 import net.sourceforge.pmd.Report.ConfigurationError;
 import net.sourceforge.pmd.Report.ProcessingError;
@@ -43,6 +47,15 @@ public class CSVRendererTest extends AbstractRendererTst {
         return getHeader();
     }
     
+    @Test
+    public void testRenderingAllocatesLessThanTheOutput() throws Exception {
+        long allocated = allocatedBytesPerViolation(new CSVRenderer());
+        Assume.assumeTrue("Thread allocations can't be measured", allocated >= 0);
+        // building a string per violation would allocate at least its description
+        Assert.assertTrue("Allocated " + allocated + " bytes per violation",
+                allocated < LONG_DESCRIPTION_LENGTH / 2);
+    }
+
     private String getHeader() {
         return "\"Problem\",\"Package\",\"File\",\"Priority\",\"Line\",\"Description\",\"Rule set\",\"Rule\"" + PMD.EOL;
     }
@@ -50,4 +63,5 @@ public class CSVRendererTest extends AbstractRendererTst {
     public static junit.framework.Test suite() {
         return new junit.framework.JUnit4TestAdapter(CSVRendererTest.class);
     }
+
 }
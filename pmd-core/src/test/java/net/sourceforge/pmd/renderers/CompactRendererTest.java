@@ -0,0 +1,124 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.renderers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import net.sourceforge.pmd.FooRule;
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.Report.ConfigurationError;
+import net.sourceforge.pmd.Report.ProcessingError;
+import net.sourceforge.pmd.ReportTest;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RuleViolation;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.ParametricRuleViolation;
+
+public class CompactRendererTest extends AbstractRendererTst {
+
+    @Override
+    public Renderer getRenderer() {
+        return new CompactRenderer();
+    }
+
+    @Override
+    public String getExpected() {
+        return CompactRenderer.HEADER + "\n" + "s\tn/a\n" + "s\tblah\n" + "s\t\n" + "s\tFoo\n" + "s\tRuleSet\n"
+                + "s\tdesc\n" + "r\t3\t4\t5\t\t\t5\n" + "v\t0\t0\t1\t1\t1\t1\t1\t2\t2\t2\t2\n";
+    }
+
+    @Override
+    public String getExpectedEmpty() {
+        return CompactRenderer.HEADER + "\n";
+    }
+
+    @Override
+    public String getExpectedMultiple() {
+        // every violation has its own rule instance
+        return getExpected() + "r\t3\t4\t5\t\t\t5\n" + "v\t1\t0\t1\t1\t1\t1\t2\t2\t2\t2\t2\n";
+    }
+
+    @Override
+    public String getExpectedError(ProcessingError error) {
+        StringBuilder detail = new StringBuilder();
+        CompactRenderer.appendEscaped(detail, error.getDetail());
+        return CompactRenderer.HEADER + "\n" + "s\tfile\n" + "s\tError\n" + "s\t" + detail + "\n" + "e\t0\t1\t2\n";
+    }
+
+    @Override
+    public String getExpectedError(ConfigurationError error) {
+        return CompactRenderer.HEADER + "\n" + "s\tFoo\n" + "s\tRuleSet\n" + "s\tdesc\n" + "r\t0\t1\t5\t\t\t2\n"
+                + "s\ta configuration error\n" + "c\t0\t3\n";
+    }
+
+    @Test
+    public void testReadBackAsXml() throws IOException {
+        Report report = new Report();
+        RuleContext ctx = new RuleContext();
+        ctx.setSourceCodeFilename("Foo.java");
+        report.addRuleViolation(new ParametricRuleViolation<Node>(new FooRule(), ctx, createNode(3),
+                "tab\tnew line\nand \\backslash"));
+        report.addSuppressedViolation(new Report.SuppressedViolation(
+                new ParametricRuleViolation<Node>(new FooRule(), ctx, createNode(5), "suppressed"), true, "foo"));
+        report.addError(new ProcessingError(new RuntimeException("Error"), "Bar.java"));
+        report.addConfigError(new ConfigurationError(new FooRule(), "a configuration error"));
+
+        String compact = ReportTest.render(new CompactRenderer(), report);
+        Report readBack = CompactReportReader.read(new StringReader(compact));
+
+        XMLRenderer expected = new XMLRenderer();
+        expected.setShowSuppressedViolations(true);
+        XMLRenderer actual = new XMLRenderer();
+        actual.setShowSuppressedViolations(true);
+        assertEquals(withoutTimestamp(ReportTest.render(expected, report)),
+                withoutTimestamp(ReportTest.render(actual, readBack)));
+    }
+
+    @Test
+    public void testNonAsciiCharacters() throws IOException {
+        Report report = new Report();
+        RuleContext ctx = new RuleContext();
+        ctx.setSourceCodeFilename("Gr\u00fc\u00dfe.java");
+        String message = "caf\u00e9 \u20ac \ud83d\ude00 \\u00e9";
+        report.addRuleViolation(new ParametricRuleViolation<Node>(new FooRule(), ctx, createNode(3), message));
+
+        String compact = ReportTest.render(new CompactRenderer(), report);
+        for (int i = 0; i < compact.length(); i++) {
+            assertTrue("Not ASCII: " + compact, compact.charAt(i) < 0x80);
+        }
+
+        RuleViolation readBack = CompactReportReader.read(new StringReader(compact)).iterator().next();
+        assertEquals("Gr\u00fc\u00dfe.java", readBack.getFilename());
+        assertEquals(message, readBack.getDescription());
+    }
+
+    @Test
+    public void testMerge() throws IOException {
+        Report merged = new Report();
+        CompactReportReader.read(new StringReader(getExpected()), merged);
+        CompactReportReader.read(new StringReader(getExpectedMultiple()), merged);
+        assertEquals(3, merged.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotACompactReport() throws IOException {
+        CompactReportReader.read(new StringReader("<?xml version=\"1.0\"?>"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUndefinedString() throws IOException {
+        CompactReportReader.read(new StringReader(getExpectedEmpty() + "e\t0\t1\t2\n"));
+    }
+
+    private static String withoutTimestamp(String xml) {
+        return xml.replaceAll(" timestamp=\"[^\"]+\">", " timestamp=\"\">");
+    }
+}
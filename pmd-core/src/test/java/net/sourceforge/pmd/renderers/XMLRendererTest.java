@@ -8,6 +8,7 @@ import java.io.StringReader;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
@@ -111,6 +112,15 @@ public class XMLRendererTest extends AbstractRendererTst {
         verifyXmlEscaping(renderer, "&#x1041c;");
     }
     
+    @Test
+    public void testRenderingAllocatesLessThanTheOutput() throws Exception {
+        long allocated = allocatedBytesPerViolation(new XMLRenderer());
+        Assume.assumeTrue("Thread allocations can't be measured", allocated >= 0);
+        // building a string per violation would allocate at least its description
+        Assert.assertTrue("Allocated " + allocated + " bytes per violation",
+                allocated < LONG_DESCRIPTION_LENGTH / 2);
+    }
+
     public String getHeader() {
         return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + PMD.EOL
                 + "<pmd xmlns=\"http://pmd.sourceforge.net/report/2.0.0\"" + PMD.EOL
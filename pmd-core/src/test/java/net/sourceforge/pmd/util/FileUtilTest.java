@@ -0,0 +1,50 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.sourceforge.pmd.lang.DummyLanguageModule;
+import net.sourceforge.pmd.lang.LanguageFilenameFilter;
+import net.sourceforge.pmd.lang.LanguageRegistry;
+import net.sourceforge.pmd.util.datasource.DataSource;
+
+public class FileUtilTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCollectFilesInNestedDirectories() throws IOException {
+        tempFolder.newFolder("a", "b", "c");
+        tempFolder.newFolder("d");
+        tempFolder.newFile("Top.dummy");
+        tempFolder.newFile("a/A.dummy");
+        tempFolder.newFile("a/b/c/C.dummy");
+        tempFolder.newFile("a/b/c/ignored.txt");
+        tempFolder.newFile("d/D.dummy");
+        tempFolder.newFile("d/ignored");
+
+        List<DataSource> dataSources = FileUtil.collectFiles(tempFolder.getRoot().getPath(),
+                new LanguageFilenameFilter(LanguageRegistry.getLanguage(DummyLanguageModule.NAME)));
+
+        List<String> names = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            names.add(dataSource.getNiceFileName(true, tempFolder.getRoot().getPath()).replace(File.separatorChar, '/'));
+        }
+        Collections.sort(names);
+        assertEquals("[Top.dummy, a/A.dummy, a/b/c/C.dummy, d/D.dummy]", names.toString());
+    }
+}
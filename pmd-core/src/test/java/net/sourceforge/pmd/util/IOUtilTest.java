@@ -0,0 +1,29 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class IOUtilTest {
+
+    @Test
+    public void testWriteAndClearInSeveralChunks() throws IOException {
+        StringWriter writer = new StringWriter();
+        StringBuilder buffer = new StringBuilder("0123456789");
+
+        IOUtil.writeAndClear(writer, buffer, new char[4]);
+        assertEquals("0123456789", writer.toString());
+        assertEquals(0, buffer.length());
+
+        buffer.append("abc");
+        IOUtil.writeAndClear(writer, buffer, new char[4]);
+        assertEquals("0123456789abc", writer.toString());
+    }
+}
@@ -8,15 +8,15 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.regex.Pattern;
 
-import net.sourceforge.pmd.lang.ast.SimpleCharStream;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 
 /**
- * A SimpleCharStream, that supports the continuation of lines via backslash+newline,
+ * A FullTextCharStream, that supports the continuation of lines via backslash+newline,
  * which is used in C/C++.
  *
  * @author Andreas Dangel
  */
-public class CppCharStream extends SimpleCharStream {
+public class CppCharStream extends FullTextCharStream {
 
     private static final Pattern CONTINUATION = Pattern.compile("\\\\\\n|\\\\\\r\\n");
     private static final char BACKSLASH = '\\';
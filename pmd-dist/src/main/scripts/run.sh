@@ -10,7 +10,7 @@ usage() {
 }
 
 valid_app_options () {
-    echo "pmd, cpd, cpdgui, designer, bgastviewer, designerold"
+    echo "pmd, cpd, cpdgui, designer, bgastviewer, designerold, pmddaemon, pmdclient, rulesnapshot"
 }
 
 is_cygwin() {
@@ -113,6 +113,15 @@ case "${APPNAME}" in
   "cpdgui")
     readonly CLASSNAME="net.sourceforge.pmd.cpd.GUI"
     ;;
+  "pmddaemon")
+    readonly CLASSNAME="net.sourceforge.pmd.cli.PMDDaemon"
+    ;;
+  "pmdclient")
+    readonly CLASSNAME="net.sourceforge.pmd.cli.PMDDaemonClient"
+    ;;
+  "rulesnapshot")
+    readonly CLASSNAME="net.sourceforge.pmd.RuleSetSnapshot"
+    ;;
   *)
     echo "${APPNAME} is NOT a valid application name, valid options are:$(valid_app_options)"
     ;;
@@ -74,7 +74,7 @@ public abstract class AbstractJavaHandler extends AbstractLanguageVersionHandler
     public VisitorStarter getDataFlowFacade() {
         return new VisitorStarter() {
             public void start(Node rootNode) {
-                new DataFlowFacade().initializeWith(getDataFlowHandler(), (ASTCompilationUnit) rootNode);
+                new DataFlowFacade().initializeWith(getDataFlowHandler(), (ASTCompilationUnit) rootNode, true);
             }
         };
     }
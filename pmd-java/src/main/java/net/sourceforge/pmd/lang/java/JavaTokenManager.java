@@ -7,7 +7,7 @@ package net.sourceforge.pmd.lang.java;
 import java.io.Reader;
 
 import net.sourceforge.pmd.lang.TokenManager;
-import net.sourceforge.pmd.lang.ast.JavaCharStream;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 import net.sourceforge.pmd.lang.java.ast.JavaParserTokenManager;
 
 /**
@@ -17,7 +17,7 @@ public class JavaTokenManager implements TokenManager {
     private final JavaParserTokenManager tokenManager;
 
     public JavaTokenManager(Reader source) {
-        tokenManager = new JavaParserTokenManager(new JavaCharStream(source));
+        tokenManager = new JavaParserTokenManager(FullTextCharStream.withJavaUnicodeEscapes(source));
     }
 
     public Object getNextToken() {
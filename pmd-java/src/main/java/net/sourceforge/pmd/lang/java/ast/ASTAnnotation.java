@@ -82,7 +82,26 @@ public class ASTAnnotation extends AbstractJavaTypeNode {
     }
 
 
-    private boolean isSuppressWarnings() {
+    /**
+     * Returns true if this annotation may suppress some rules, see
+     * {@link #suppresses(Rule)}. SuppressWarnings annotations for other
+     * tools, e.g. {@code "unchecked"}, don't suppress any rule.
+     */
+    /* package */ boolean maySuppressRules() {
+        if (jjtGetChild(0) instanceof ASTMarkerAnnotation || !isSuppressWarnings()) {
+            return false;
+        }
+        for (ASTLiteral element : findDescendantsOfType(ASTLiteral.class)) {
+            String image = element.getImage();
+            if ("\"PMD\"".equals(image) || image != null && image.startsWith("\"PMD.")
+                    || "\"all\"".equals(image) || "\"serial\"".equals(image) || "\"unused\"".equals(image)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* package */ boolean isSuppressWarnings() {
         return "SuppressWarnings".equals(getAnnotationName()) || "java.lang.SuppressWarnings".equals(getAnnotationName());
     }
 
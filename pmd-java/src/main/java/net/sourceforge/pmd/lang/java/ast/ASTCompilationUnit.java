@@ -16,6 +16,7 @@ public class ASTCompilationUnit extends AbstractJavaTypeNode implements RootNode
 
     private ClassTypeResolver classTypeResolver;
     private List<Comment> comments;
+    private JavaSuppressionIndex suppressionIndex;
 
     public ASTCompilationUnit(int id) {
         super(id);
@@ -60,4 +61,16 @@ public class ASTCompilationUnit extends AbstractJavaTypeNode implements RootNode
     public void setClassTypeResolver(ClassTypeResolver classTypeResolver) {
         this.classTypeResolver = classTypeResolver;
     }
+
+    /**
+     * Returns the index of the declarations of this file which suppress
+     * violations, built at the first call. The rules applied concurrently
+     * share the index.
+     */
+    public synchronized JavaSuppressionIndex getSuppressionIndex() {
+        if (suppressionIndex == null) {
+            suppressionIndex = new JavaSuppressionIndex(this);
+        }
+        return suppressionIndex;
+    }
 }
@@ -9,6 +9,8 @@ public class ASTPrimarySuffix extends AbstractJavaTypeNode {
 
     private boolean isArguments;
     private boolean isArrayDereference;
+    private boolean usesThisModifier;
+    private boolean usesSuperModifier;
 
     public ASTPrimarySuffix(int id) {
         super(id);
@@ -26,6 +28,28 @@ public class ASTPrimarySuffix extends AbstractJavaTypeNode {
         return isArrayDereference;
     }
 
+    /**
+     * Marks the suffix as a qualified this, e.g. {@code Outer.this}.
+     */
+    public void setUsesThisModifier() {
+        usesThisModifier = true;
+    }
+
+    public boolean usesThisModifier() {
+        return this.usesThisModifier;
+    }
+
+    /**
+     * Marks the suffix as a qualified super, e.g. {@code Interface.super}.
+     */
+    public void setUsesSuperModifier() {
+        usesSuperModifier = true;
+    }
+
+    public boolean usesSuperModifier() {
+        return this.usesSuperModifier;
+    }
+
     public void setIsArguments() {
         this.isArguments = true;
     }
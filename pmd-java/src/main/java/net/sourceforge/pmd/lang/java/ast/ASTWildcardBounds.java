@@ -6,6 +6,9 @@
 package net.sourceforge.pmd.lang.java.ast;
 
 public class ASTWildcardBounds extends AbstractJavaTypeNode {
+
+    private boolean lowerBound;
+
     public ASTWildcardBounds(int id) {
         super(id);
     }
@@ -14,6 +17,18 @@ public class ASTWildcardBounds extends AbstractJavaTypeNode {
         super(p, id);
     }
 
+    public void setLowerBound() {
+        lowerBound = true;
+    }
+
+    /**
+     * Returns true if this is a lower bound, i.e. {@code ? super T}, false
+     * for an upper bound, i.e. {@code ? extends T}.
+     */
+    public boolean isLowerBound() {
+        return lowerBound;
+    }
+
     /**
      * Accept the visitor. *
      */
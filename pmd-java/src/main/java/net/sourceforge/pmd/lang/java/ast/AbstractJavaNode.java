@@ -5,13 +5,17 @@
 package net.sourceforge.pmd.lang.java.ast;
 
 import net.sourceforge.pmd.lang.ast.AbstractNode;
+import net.sourceforge.pmd.lang.ast.GenericToken;
 import net.sourceforge.pmd.lang.symboltable.Scope;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
 
 public abstract class AbstractJavaNode extends AbstractNode implements JavaNode {
 
+    private static final int SCOPE = FIRST_SUBCLASS_EXTRA;
+    private static final int COMMENT = FIRST_SUBCLASS_EXTRA + 1;
+
+    /** The parser building the node, cleared when the node is closed. */
     protected JavaParser parser;
-    private Scope scope;
-    private Comment comment;
 
     public AbstractJavaNode(int id) {
         super(id);
@@ -38,6 +42,36 @@ public abstract class AbstractJavaNode extends AbstractNode implements JavaNode
         }
         endLine = parser.token.endLine;
         endColumn = parser.token.endColumn;
+        // the parser keeps the whole file in memory
+        parser = null;
+    }
+
+    /**
+     * The Java parser doesn't track the tokens of the nodes, so that the
+     * token stream can be collected once the AST is built.
+     *
+     * @return Always null
+     * @deprecated The Java nodes have no tokens, use their positions and images instead.
+     *     This method will be removed in 7.0.0
+     */
+    @Deprecated
+    @Override
+    public GenericToken jjtGetFirstToken() {
+        return null;
+    }
+
+    /**
+     * The Java parser doesn't track the tokens of the nodes, so that the
+     * token stream can be collected once the AST is built.
+     *
+     * @return Always null
+     * @deprecated The Java nodes have no tokens, use their positions and images instead.
+     *     This method will be removed in 7.0.0
+     */
+    @Deprecated
+    @Override
+    public GenericToken jjtGetLastToken() {
+        return null;
     }
 
     /**
@@ -51,6 +85,8 @@ public abstract class AbstractJavaNode extends AbstractNode implements JavaNode
      * Accept the visitor. *
      */
     public Object childrenAccept(JavaParserVisitor visitor, Object data) {
+        // the rules and the type resolution visit the whole AST
+        AnalysisWatchdog.checkTimeout();
         if (children != null) {
             for (int i = 0; i < children.length; ++i) {
                 ((JavaNode) children[i]).jjtAccept(visitor, data);
@@ -60,6 +96,7 @@ public abstract class AbstractJavaNode extends AbstractNode implements JavaNode
     }
 
     public Scope getScope() {
+        Scope scope = (Scope) getExtra(SCOPE);
         if (scope == null) {
             return ((JavaNode) parent).getScope();
         }
@@ -67,15 +104,15 @@ public abstract class AbstractJavaNode extends AbstractNode implements JavaNode
     }
 
     public void setScope(Scope scope) {
-        this.scope = scope;
+        setExtra(SCOPE, scope);
     }
 
     public void comment(Comment theComment) {
-        comment = theComment;
+        setExtra(COMMENT, theComment);
     }
 
     public Comment comment() {
-        return comment;
+        return (Comment) getExtra(COMMENT);
     }
 
 
@@ -42,7 +42,9 @@ public abstract class Comment extends AbstractNode {
                     entry.getValue() + 1, entry.getValue() + tag.label.length() + 1, tag));
         }
 
-        children = kids.toArray(new Node[0]);
+        if (!kids.isEmpty()) {
+            children = kids.toArray(new Node[0]);
+        }
     }
 
 }
@@ -0,0 +1,41 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.java.ast;
+
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.AbstractSuppressionIndex;
+
+/**
+ * Index of the declarations of a Java file which have a
+ * {@link SuppressWarnings} annotation that may suppress some rules, see
+ * {@link ASTCompilationUnit#getSuppressionIndex()}. The annotations which
+ * only suppress the warnings of other tools, e.g. {@code "unchecked"}, are
+ * not indexed.
+ */
+public class JavaSuppressionIndex extends AbstractSuppressionIndex {
+
+    public JavaSuppressionIndex(Node root) {
+        super(root);
+    }
+
+    @Override
+    protected boolean canSuppress(Node node) {
+        if (node instanceof CanSuppressWarnings) {
+            for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                if (node.jjtGetChild(i) instanceof ASTAnnotation
+                        && ((ASTAnnotation) node.jjtGetChild(i)).maySuppressRules()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean suppresses(Node node, Rule rule) {
+        return ((CanSuppressWarnings) node).hasSuppressWarningsAnnotationFor(rule);
+    }
+}
@@ -5,9 +5,13 @@
 package net.sourceforge.pmd.lang.java.dfa;
 
 import net.sourceforge.pmd.lang.DataFlowHandler;
+import net.sourceforge.pmd.lang.VisitorStarter;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.dfa.LazyDataFlowNode;
 import net.sourceforge.pmd.lang.java.ast.ASTCompilationUnit;
 import net.sourceforge.pmd.lang.java.ast.ASTConstructorDeclaration;
 import net.sourceforge.pmd.lang.java.ast.ASTMethodDeclaration;
+import net.sourceforge.pmd.lang.java.ast.JavaNode;
 import net.sourceforge.pmd.lang.java.ast.JavaParserVisitorAdapter;
 
 /**
@@ -20,20 +24,48 @@ public class DataFlowFacade extends JavaParserVisitorAdapter {
 
     private StatementAndBraceFinder sbf;
     private VariableAccessVisitor vav;
+    private boolean lazy;
+
+    private final VisitorStarter graphBuilder = new VisitorStarter() {
+        @Override
+        public void start(Node rootNode) {
+            ((JavaNode) rootNode).jjtAccept(DataFlowFacade.this, null);
+        }
+    };
 
     public void initializeWith(DataFlowHandler dataFlowHandler, ASTCompilationUnit node) {
+        initializeWith(dataFlowHandler, node, false);
+    }
+
+    /**
+     * Builds the data flow graphs of all methods and constructors of the
+     * compilation unit. If lazy, each of them only gets a {@link LazyDataFlowNode},
+     * and its graph is built the first time its data flow node is requested.
+     */
+    public void initializeWith(DataFlowHandler dataFlowHandler, ASTCompilationUnit node, boolean lazy) {
         sbf = new StatementAndBraceFinder(dataFlowHandler);
         vav = new VariableAccessVisitor();
+        this.lazy = lazy;
         node.jjtAccept(this, null);
+        // graphs built later on must be built right away
+        this.lazy = false;
     }
 
     public Object visit(ASTMethodDeclaration node, Object data) {
+        if (lazy) {
+            node.setDataFlowNode(new LazyDataFlowNode(node, graphBuilder));
+            return data;
+        }
         sbf.buildDataFlowFor(node);
         vav.compute(node);
         return data;
     }
 
     public Object visit(ASTConstructorDeclaration node, Object data) {
+        if (lazy) {
+            node.setDataFlowNode(new LazyDataFlowNode(node, graphBuilder));
+            return data;
+        }
         sbf.buildDataFlowFor(node);
         vav.compute(node);
         return data;
@@ -4,11 +4,11 @@
 
 package net.sourceforge.pmd.lang.java.multifile;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.Collections;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.sourceforge.pmd.lang.java.ast.JavaQualifiedName;
 import net.sourceforge.pmd.lang.java.multifile.signature.JavaFieldSigMask;
@@ -25,14 +25,16 @@ import net.sourceforge.pmd.lang.java.multifile.signature.JavaOperationSignature;
  * then use the methods of ClassStats. Note that at this level, entities of the data structure do not manipulate
  * QualifiedNames anymore, only Strings.
  *
+ * <p>Like {@link PackageStats}, this class can be filled by several threads at once.
+ *
  * @author Clément Fournier
  * @since 6.0.0
  */
 final class ClassStats implements ClassMirror {
 
-    private Map<JavaOperationSignature, Set<String>> operations = new HashMap<>();
-    private Map<JavaFieldSignature, Set<String>> fields = new HashMap<>();
-    private Map<String, ClassStats> nestedClasses = new HashMap<>();
+    private final ConcurrentMap<JavaOperationSignature, Set<String>> operations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<JavaFieldSignature, Set<String>> fields = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ClassStats> nestedClasses = new ConcurrentHashMap<>();
 
     // References to the hierarchy
     // TODO:cf useful?
@@ -60,10 +62,15 @@ final class ClassStats implements ClassMirror {
      * @return The new ClassStats or the one that was found. Can return null if createIfNotFound is unset
      */
     ClassStats getNestedClassStats(String className, boolean createIfNotFound) {
-        if (createIfNotFound && !nestedClasses.containsKey(className)) {
-            nestedClasses.put(className, new ClassStats());
+        ClassStats nested = nestedClasses.get(className);
+        if (createIfNotFound && nested == null) {
+            ClassStats created = new ClassStats();
+            nested = nestedClasses.putIfAbsent(className, created);
+            if (nested == null) {
+                nested = created;
+            }
         }
-        return nestedClasses.get(className);
+        return nested;
     }
 
 
@@ -74,10 +81,7 @@ final class ClassStats implements ClassMirror {
      * @param sig  The signature of the operation
      */
     void addOperation(String name, JavaOperationSignature sig) {
-        if (!operations.containsKey(sig)) {
-            operations.put(sig, new HashSet<String>());
-        }
-        operations.get(sig).add(name);
+        namesOf(operations, sig).add(name);
     }
 
 
@@ -88,10 +92,20 @@ final class ClassStats implements ClassMirror {
      * @param sig  The signature of the field
      */
     void addField(String name, JavaFieldSignature sig) {
-        if (!fields.containsKey(sig)) {
-            fields.put(sig, new HashSet<String>());
+        namesOf(fields, sig).add(name);
+    }
+
+
+    private static <S> Set<String> namesOf(ConcurrentMap<S, Set<String>> members, S sig) {
+        Set<String> names = members.get(sig);
+        if (names == null) {
+            Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            names = members.putIfAbsent(sig, created);
+            if (names == null) {
+                names = created;
+            }
         }
-        fields.get(sig).add(name);
+        return names;
     }
 
 
@@ -4,10 +4,10 @@
 
 package net.sourceforge.pmd.lang.java.multifile;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.sourceforge.pmd.lang.java.multifile.signature.JavaFieldSigMask;
 import net.sourceforge.pmd.lang.java.multifile.signature.JavaOperationSigMask;
@@ -20,6 +20,9 @@ import net.sourceforge.pmd.lang.java.qname.JavaTypeQualifiedName;
  * stores information about the classes and subpackages it contains. This object provides signature matching utilities
  * to metrics.
  *
+ * <p>Files are visited concurrently, so the structure is backed by concurrent maps and can be filled by several
+ * threads at once.
+ *
  * @author Clément Fournier
  * @see ClassStats
  * @since 6.0.0
@@ -28,8 +31,8 @@ final class PackageStats implements ProjectMirror {
 
     static final PackageStats INSTANCE = new PackageStats();
 
-    private final Map<String, PackageStats> subPackages = new HashMap<>();
-    private final Map<String, ClassStats> classes = new HashMap<>();
+    private final ConcurrentMap<String, PackageStats> subPackages = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ClassStats> classes = new ConcurrentHashMap<>();
 
 
     /**
@@ -65,11 +68,14 @@ final class PackageStats implements ProjectMirror {
         }
 
         String topClassName = qname.getClassList().get(0);
-        if (createIfNotFound && container.classes.get(topClassName) == null) {
-            container.classes.put(topClassName, new ClassStats());
-        }
-
         ClassStats next = container.classes.get(topClassName);
+        if (createIfNotFound && next == null) {
+            ClassStats created = new ClassStats();
+            next = container.classes.putIfAbsent(topClassName, created);
+            if (next == null) {
+                next = created;
+            }
+        }
 
         if (next == null) {
             return null;
@@ -108,11 +114,16 @@ final class PackageStats implements ProjectMirror {
 
         for (Iterator<String> it = packagePath.iterator(); it.hasNext() && next != null;) {
             String currentPackage = it.next();
-            if (createIfNotFound && next.subPackages.get(currentPackage) == null) {
-                next.subPackages.put(currentPackage, new PackageStats());
+            PackageStats sub = next.subPackages.get(currentPackage);
+            if (createIfNotFound && sub == null) {
+                PackageStats created = new PackageStats();
+                sub = next.subPackages.putIfAbsent(currentPackage, created);
+                if (sub == null) {
+                    sub = created;
+                }
             }
 
-            next = next.subPackages.get(currentPackage);
+            next = sub;
         }
 
         return next;
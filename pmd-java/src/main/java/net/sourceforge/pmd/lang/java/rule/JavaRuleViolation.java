@@ -17,12 +17,13 @@ import net.sourceforge.pmd.lang.java.ast.ASTLocalVariableDeclaration;
 import net.sourceforge.pmd.lang.java.ast.ASTVariableDeclarator;
 import net.sourceforge.pmd.lang.java.ast.ASTVariableDeclaratorId;
 import net.sourceforge.pmd.lang.java.ast.AccessNode;
-import net.sourceforge.pmd.lang.java.ast.CanSuppressWarnings;
 import net.sourceforge.pmd.lang.java.ast.JavaNode;
+import net.sourceforge.pmd.lang.java.ast.JavaSuppressionIndex;
 import net.sourceforge.pmd.lang.java.symboltable.ClassNameDeclaration;
 import net.sourceforge.pmd.lang.java.symboltable.ClassScope;
 import net.sourceforge.pmd.lang.java.symboltable.MethodScope;
 import net.sourceforge.pmd.lang.java.symboltable.SourceFileScope;
+import net.sourceforge.pmd.lang.rule.AbstractSuppressionIndex;
 import net.sourceforge.pmd.lang.rule.ParametricRuleViolation;
 import net.sourceforge.pmd.lang.symboltable.Scope;
 
@@ -78,23 +79,30 @@ public class JavaRuleViolation extends ParametricRuleViolation<JavaNode> {
      * @param node
      */
     public static boolean isSupressed(Node node, Rule rule) {
-        boolean result = suppresses(node, rule);
+        AbstractSuppressionIndex index = getSuppressionIndex(node);
+        boolean result = index.isSuppressed(node, rule);
 
         if (!result && node instanceof ASTCompilationUnit) {
             for (int i = 0; !result && i < node.jjtGetNumChildren(); i++) {
-                result = suppresses(node.jjtGetChild(i), rule);
-            }
-        }
-        if (!result) {
-            Node parent = node.jjtGetParent();
-            while (!result && parent != null) {
-                result = suppresses(parent, rule);
-                parent = parent.jjtGetParent();
+                result = index.isSuppressed(node.jjtGetChild(i), rule);
             }
         }
         return result;
     }
 
+    /**
+     * Returns the suppression index of the file of the node, or a new index
+     * if the node is not in a compilation unit.
+     */
+    private static AbstractSuppressionIndex getSuppressionIndex(Node node) {
+        Node root = node;
+        while (root.jjtGetParent() != null) {
+            root = root.jjtGetParent();
+        }
+        return root instanceof ASTCompilationUnit ? ((ASTCompilationUnit) root).getSuppressionIndex()
+                : new JavaSuppressionIndex(root);
+    }
+
     private void setClassNameFrom(JavaNode node) {
         String qualifiedName = null;
         for (ASTClassOrInterfaceDeclaration parent : node.getParentsOfType(ASTClassOrInterfaceDeclaration.class)) {
@@ -125,11 +133,6 @@ public class JavaRuleViolation extends ParametricRuleViolation<JavaNode> {
         }
     }
 
-    private static boolean suppresses(final Node node, Rule rule) {
-        return node instanceof CanSuppressWarnings
-                && ((CanSuppressWarnings) node).hasSuppressWarningsAnnotationFor(rule);
-    }
-
     private void setVariableNameIfExists(Node node) {
         if (node instanceof ASTFieldDeclaration) {
             variableName = ((ASTFieldDeclaration) node).getVariableName();
@@ -24,11 +24,31 @@ public abstract class AbstractJavaScope extends AbstractScope {
     }
 
     protected void checkForDuplicatedNameDeclaration(NameDeclaration declaration) {
-        if (declaration instanceof VariableNameDeclaration && getDeclarations().keySet().contains(declaration)) {
+        if (declaration instanceof VariableNameDeclaration
+                && getDeclarations(VariableNameDeclaration.class).containsKey(declaration)) {
             throw new RuntimeException(declaration + " is already in the symbol table");
         }
     }
 
+    /**
+     * Finds the variable declaration of this scope referenced by the
+     * occurrence, among the declarations with its image.
+     *
+     * @param occurrence
+     *            the occurrence
+     * @return the declaration, or <code>null</code> if there's none
+     * @see DeclarationFinderFunction
+     */
+    protected NameDeclaration findVariableDeclaration(JavaNameOccurrence occurrence) {
+        DeclarationFinderFunction finder = new DeclarationFinderFunction(occurrence);
+        for (NameDeclaration declaration : getDeclarationsByImage(occurrence.getImage())) {
+            if (declaration instanceof VariableNameDeclaration && !finder.applyTo(declaration)) {
+                break;
+            }
+        }
+        return finder.getDecl();
+    }
+
     @Override
     public boolean contains(NameOccurrence occurrence) {
         return !findVariableHere((JavaNameOccurrence) occurrence).isEmpty();
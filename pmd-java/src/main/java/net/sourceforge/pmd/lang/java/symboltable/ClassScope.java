@@ -35,8 +35,7 @@ import net.sourceforge.pmd.lang.java.ast.ASTTypeParameter;
 import net.sourceforge.pmd.lang.java.ast.ASTTypeParameters;
 import net.sourceforge.pmd.lang.java.ast.ASTVariableDeclaratorId;
 import net.sourceforge.pmd.lang.java.ast.JavaParserTreeConstants;
-import net.sourceforge.pmd.lang.symboltable.Applier;
-import net.sourceforge.pmd.lang.symboltable.ImageFinderFunction;
+import net.sourceforge.pmd.lang.symboltable.AbstractScope;
 import net.sourceforge.pmd.lang.symboltable.NameDeclaration;
 import net.sourceforge.pmd.lang.symboltable.NameOccurrence;
 import net.sourceforge.pmd.lang.symboltable.Scope;
@@ -182,11 +181,10 @@ public class ClassScope extends AbstractJavaScope {
             return Collections.<NameDeclaration>singleton(classDeclaration);
         }
 
-        Map<MethodNameDeclaration, List<NameOccurrence>> methodDeclarations = getMethodDeclarations();
         Set<NameDeclaration> result = new HashSet<>();
         if (occurrence.isMethodOrConstructorInvocation()) {
             final boolean hasAuxclasspath = getEnclosingScope(SourceFileScope.class).hasAuxclasspath();
-            matchMethodDeclaration(occurrence, methodDeclarations.keySet(), hasAuxclasspath, result);
+            matchMethodDeclaration(occurrence, getDeclarationsByImage(occurrence.getImage()), hasAuxclasspath, result);
 
             if (isEnum && "valueOf".equals(occurrence.getImage())) {
                 result.add(createBuiltInMethodDeclaration("valueOf", "String"));
@@ -194,53 +192,78 @@ public class ClassScope extends AbstractJavaScope {
 
             if (result.isEmpty()) {
                 for (ClassNameDeclaration innerClass : getClassDeclarations().keySet()) {
-                    matchMethodDeclaration(occurrence, innerClass.getScope().getDeclarations(MethodNameDeclaration.class).keySet(), hasAuxclasspath, result);
+                    matchMethodDeclaration(occurrence, getDeclarationsByImage(innerClass.getScope(), occurrence.getImage()),
+                            hasAuxclasspath, result);
                 }
             }
             return result;
         }
         if (occurrence.isMethodReference()) {
-            for (MethodNameDeclaration mnd : methodDeclarations.keySet()) {
-                if (mnd.getImage().equals(occurrence.getImage())) {
-                    result.add(mnd);
+            for (NameDeclaration declaration : getDeclarationsByImage(occurrence.getImage())) {
+                if (declaration instanceof MethodNameDeclaration) {
+                    result.add(declaration);
                 }
             }
             return result;
         }
 
-        List<String> images = new ArrayList<>();
-        if (occurrence.getImage() != null) {
-            images.add(occurrence.getImage());
-            if (occurrence.getImage().startsWith(className)) {
-                images.add(clipClassName(occurrence.getImage()));
+        String image = occurrence.getImage();
+        if (image == null) {
+            return result;
+        }
+        // the name may be qualified with the name of the class
+        String clippedImage = image.startsWith(className) ? clipClassName(image) : image;
+
+        NameDeclaration variableDeclaration = findVariableDeclaration(this, image, clippedImage);
+        if (variableDeclaration != null) {
+            result.add(variableDeclaration);
+        } else {
+            // search inner classes
+            for (ClassNameDeclaration innerClass : getClassDeclarations().keySet()) {
+                variableDeclaration = findVariableDeclaration(innerClass.getScope(), image, clippedImage);
+                if (variableDeclaration != null) {
+                    result.add(variableDeclaration);
+                }
             }
         }
+        return result;
+    }
 
-        Map<VariableNameDeclaration, List<NameOccurrence>> variableDeclarations = getVariableDeclarations();
-        ImageFinderFunction finder = new ImageFinderFunction(images);
-        Applier.apply(finder, variableDeclarations.keySet().iterator());
-        if (finder.getDecl() != null) {
-            result.add(finder.getDecl());
+    /**
+     * Finds the first variable declaration of the scope with one of the
+     * images.
+     */
+    private static NameDeclaration findVariableDeclaration(Scope scope, String image, String clippedImage) {
+        for (NameDeclaration declaration : getDeclarationsByImage(scope, image)) {
+            if (declaration instanceof VariableNameDeclaration) {
+                return declaration;
+            }
         }
+        if (!clippedImage.equals(image)) {
+            return findVariableDeclaration(scope, clippedImage, clippedImage);
+        }
+        return null;
+    }
 
-        // search inner classes
-        Map<ClassNameDeclaration, List<NameOccurrence>> classDeclarations = getClassDeclarations();
-        if (result.isEmpty() && !classDeclarations.isEmpty()) {
-            for (ClassNameDeclaration innerClass : getClassDeclarations().keySet()) {
-                Applier.apply(finder, innerClass.getScope().getDeclarations(VariableNameDeclaration.class).keySet().iterator());
-                if (finder.getDecl() != null) {
-                    result.add(finder.getDecl());
-                }
+    private static List<NameDeclaration> getDeclarationsByImage(Scope scope, String image) {
+        if (scope instanceof AbstractScope) {
+            return ((AbstractScope) scope).getDeclarationsByImage(image);
+        }
+        List<NameDeclaration> result = new ArrayList<>();
+        for (NameDeclaration declaration : scope.getDeclarations().keySet()) {
+            if (Objects.equals(image, declaration.getImage())) {
+                result.add(declaration);
             }
         }
         return result;
     }
 
     private void matchMethodDeclaration(JavaNameOccurrence occurrence,
-            Set<MethodNameDeclaration> methodDeclarations, final boolean hasAuxclasspath,
+            List<NameDeclaration> declarations, final boolean hasAuxclasspath,
             Set<NameDeclaration> result) {
-        for (MethodNameDeclaration mnd : methodDeclarations) {
-            if (mnd.getImage().equals(occurrence.getImage())) {
+        for (NameDeclaration declaration : declarations) {
+            if (declaration instanceof MethodNameDeclaration) {
+                MethodNameDeclaration mnd = (MethodNameDeclaration) declaration;
                 List<TypedNameDeclaration> parameterTypes = determineParameterTypes(mnd);
                 List<TypedNameDeclaration> argumentTypes = determineArgumentTypes(occurrence, parameterTypes);
 
@@ -11,7 +11,6 @@ import java.util.Set;
 
 import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.java.ast.ASTName;
-import net.sourceforge.pmd.lang.symboltable.Applier;
 import net.sourceforge.pmd.lang.symboltable.NameDeclaration;
 import net.sourceforge.pmd.lang.symboltable.NameOccurrence;
 
@@ -56,10 +55,9 @@ public class LocalScope extends AbstractJavaScope {
         if (occurrence.isThisOrSuper() || occurrence.isMethodOrConstructorInvocation()) {
             return Collections.emptySet();
         }
-        DeclarationFinderFunction finder = new DeclarationFinderFunction(occurrence);
-        Applier.apply(finder, getVariableDeclarations().keySet().iterator());
-        if (finder.getDecl() != null) {
-            return Collections.singleton(finder.getDecl());
+        NameDeclaration declaration = findVariableDeclaration(occurrence);
+        if (declaration != null) {
+            return Collections.singleton(declaration);
         }
         return Collections.emptySet();
     }
@@ -12,8 +12,6 @@ import java.util.Set;
 
 import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.java.ast.ASTImportDeclaration;
-import net.sourceforge.pmd.lang.symboltable.Applier;
-import net.sourceforge.pmd.lang.symboltable.ImageFinderFunction;
 import net.sourceforge.pmd.lang.symboltable.NameDeclaration;
 import net.sourceforge.pmd.lang.symboltable.NameOccurrence;
 import net.sourceforge.pmd.lang.symboltable.Scope;
@@ -116,16 +114,13 @@ public class SourceFileScope extends AbstractJavaScope {
     }
 
     public ClassNameDeclaration findClassNameDeclaration(String name) {
-        ImageFinderFunction finder = new ImageFinderFunction(name);
-        Applier.apply(finder, getClassDeclarations().keySet().iterator());
-        return (ClassNameDeclaration) finder.getDecl();
+        return findDeclarationByImage(ClassNameDeclaration.class, name);
     }
 
     protected Set<NameDeclaration> findVariableHere(JavaNameOccurrence occ) {
-        ImageFinderFunction finder = new ImageFinderFunction(occ.getImage());
-        Applier.apply(finder, getDeclarations().keySet().iterator());
-        if (finder.getDecl() != null) {
-            return Collections.singleton(finder.getDecl());
+        List<NameDeclaration> declarations = getDeclarationsByImage(occ.getImage());
+        if (!declarations.isEmpty()) {
+            return Collections.singleton(declarations.get(0));
         }
         return Collections.emptySet();
     }
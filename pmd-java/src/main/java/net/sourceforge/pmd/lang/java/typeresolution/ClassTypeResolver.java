@@ -54,7 +54,9 @@ import net.sourceforge.pmd.lang.java.ast.ASTInstanceOfExpression;
 import net.sourceforge.pmd.lang.java.ast.ASTLiteral;
 import net.sourceforge.pmd.lang.java.ast.ASTLocalVariableDeclaration;
 import net.sourceforge.pmd.lang.java.ast.ASTMarkerAnnotation;
+import net.sourceforge.pmd.lang.java.ast.ASTMemberSelector;
 import net.sourceforge.pmd.lang.java.ast.ASTMethodDeclaration;
+import net.sourceforge.pmd.lang.java.ast.ASTMethodReference;
 import net.sourceforge.pmd.lang.java.ast.ASTMultiplicativeExpression;
 import net.sourceforge.pmd.lang.java.ast.ASTName;
 import net.sourceforge.pmd.lang.java.ast.ASTNormalAnnotation;
@@ -65,6 +67,7 @@ import net.sourceforge.pmd.lang.java.ast.ASTPreDecrementExpression;
 import net.sourceforge.pmd.lang.java.ast.ASTPreIncrementExpression;
 import net.sourceforge.pmd.lang.java.ast.ASTPrimaryExpression;
 import net.sourceforge.pmd.lang.java.ast.ASTPrimaryPrefix;
+import net.sourceforge.pmd.lang.java.ast.ASTPrimarySuffix;
 import net.sourceforge.pmd.lang.java.ast.ASTPrimitiveType;
 import net.sourceforge.pmd.lang.java.ast.ASTReferenceType;
 import net.sourceforge.pmd.lang.java.ast.ASTRelationalExpression;
@@ -881,8 +884,7 @@ public class ClassTypeResolver extends JavaParserVisitorAdapter {
 
             // skip children which already have their type assigned
             if (currentChild.getType() == null) {
-                // Last token, because if 'this' is a Suffix, it'll have tokens '.' and 'this'
-                if (currentChild.jjtGetLastToken().toString().equals("this")) {
+                if (usesThisModifier(currentChild)) {
 
                     if (previousChild != null) { // Qualified 'this' expression
                         currentChild.setTypeDefinition(previousChild.getTypeDefinition());
@@ -895,8 +897,7 @@ public class ClassTypeResolver extends JavaParserVisitorAdapter {
                         }
                     }
 
-                    // Last token, because if 'super' is a Suffix, it'll have tokens '.' and 'super'
-                } else if (currentChild.jjtGetLastToken().toString().equals("super")) {
+                } else if (usesSuperModifier(currentChild)) {
 
                     if (previousChild != null) { // Qualified 'super' expression
                         // anonymous classes can't have qualified super expression, thus
@@ -914,7 +915,7 @@ public class ClassTypeResolver extends JavaParserVisitorAdapter {
                     String currentChildImage = currentChild.getImage();
                     if (currentChildImage == null) {
                         // this.<Something>foo(); <Something>foo would be in a Suffix and would have a null image
-                        currentChildImage = currentChild.jjtGetLastToken().toString();
+                        currentChildImage = getSelectedName(currentChild);
                     }
 
                     ASTArguments astArguments = nextChild != null
@@ -955,6 +956,37 @@ public class ClassTypeResolver extends JavaParserVisitorAdapter {
         return data;
     }
 
+    /**
+     * Returns true for a 'this' prefix, or a qualified 'this' suffix.
+     */
+    private static boolean usesThisModifier(AbstractJavaTypeNode node) {
+        return node instanceof ASTPrimaryPrefix && ((ASTPrimaryPrefix) node).usesThisModifier()
+                || node instanceof ASTPrimarySuffix && ((ASTPrimarySuffix) node).usesThisModifier();
+    }
+
+    /**
+     * Returns true for a 'super' prefix, or a qualified 'super' suffix.
+     */
+    private static boolean usesSuperModifier(AbstractJavaTypeNode node) {
+        return node instanceof ASTPrimaryPrefix && ((ASTPrimaryPrefix) node).usesSuperModifier()
+                || node instanceof ASTPrimarySuffix && ((ASTPrimarySuffix) node).usesSuperModifier();
+    }
+
+    /**
+     * Returns the member name selected by a suffix without image, e.g. foo in
+     * this.<Something>foo(), or an empty name if it doesn't select a member.
+     */
+    private static String getSelectedName(AbstractJavaTypeNode suffix) {
+        ASTMemberSelector selector = suffix.getFirstChildOfType(ASTMemberSelector.class);
+        if (selector == null) {
+            return "";
+        }
+        if (selector.getImage() != null) {
+            return selector.getImage();
+        }
+        return selector.getFirstChildOfType(ASTMethodReference.class).getImage();
+    }
+
     /**
      * Returns the the first Class declaration around the node.
      *
@@ -1056,9 +1088,9 @@ public class ClassTypeResolver extends JavaParserVisitorAdapter {
 
         JavaTypeDefinition childType = ((TypeNode) node.jjtGetChild(0)).getTypeDefinition();
 
-        if (node.jjtGetFirstToken().toString().equals("super")) {
+        if (node.isLowerBound()) {
             node.setTypeDefinition(JavaTypeDefinition.forClass(LOWER_WILDCARD, childType));
-        } else { // equals "extends"
+        } else { // "extends"
             node.setTypeDefinition(JavaTypeDefinition.forClass(UPPER_WILDCARD, childType));
         }
 
@@ -20,6 +20,7 @@ import java.util.Set;
 
 import net.sourceforge.pmd.lang.java.typeresolution.MethodTypeResolution;
 import net.sourceforge.pmd.lang.java.typeresolution.typedefinition.JavaTypeDefinition;
+import net.sourceforge.pmd.processor.AnalysisWatchdog;
 
 
 public final class TypeInferenceResolver {
@@ -38,6 +39,7 @@ public final class TypeInferenceResolver {
 
         List<Bound> newBounds = new ArrayList<>();
         while (!constraints.isEmpty()) {
+            AnalysisWatchdog.checkTimeout();
             List<BoundOrConstraint> reduceResult = constraints.remove(constraints.size() - 1).reduce();
             
             // If null, the types are incompatible
@@ -208,6 +210,7 @@ public final class TypeInferenceResolver {
 
         // If every variable in V has an instantiation, then resolution succeeds and this procedure terminates.
         while (!uninstantiatedVariables.isEmpty()) {
+            AnalysisWatchdog.checkTimeout();
             // "... ii) there exists no non-empty proper subset of { α1, ..., αn } with this property. ..."
 
             // Note: since the Combinations class enumerates the power set from least numerous to most numerous sets
@@ -177,6 +177,23 @@ public class SuppressWarningsTest extends RuleTst {
         assertEquals(0, rpt.size());
     }
 
+    @Test
+    public void testManySuppressionsForOtherTools() {
+        StringBuilder code = new StringBuilder("public class Bar {").append(PMD.EOL);
+        for (int i = 0; i < 500; i++) {
+            String value = i == 250 ? "{\"rawtypes\", \"PMD.NoFoo\"}" : "\"unchecked\"";
+            code.append(" @SuppressWarnings(").append(value).append(") void m").append(i).append("() {")
+                    .append(PMD.EOL).append("  @SuppressWarnings(\"deprecation\") int foo;").append(PMD.EOL)
+                    .append(" }").append(PMD.EOL);
+        }
+        code.append('}');
+
+        Report rpt = new Report();
+        runTestFromString(code.toString(), new FooRule(), rpt,
+                LanguageRegistry.getLanguage(JavaLanguageModule.NAME).getVersion("1.5"));
+        assertEquals(499, rpt.size());
+    }
+
     private static final String TEST1 = "@SuppressWarnings(\"PMD\")" + PMD.EOL + "public class Foo {}";
 
     private static final String TEST2 = "@SuppressWarnings(\"PMD\")" + PMD.EOL + "public class Foo {" + PMD.EOL
@@ -45,6 +45,14 @@ public class SimpleNodeTest {
         verifyNode(uCD.iterator().next(), 1, 8, 1, 20);
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testNoTokens() {
+        ASTClassOrInterfaceDeclaration ucd = getNodes(ASTClassOrInterfaceDeclaration.class, NO_LOOKAHEAD).iterator().next();
+        assertNull(ucd.jjtGetFirstToken());
+        assertNull(ucd.jjtGetLastToken());
+    }
+
     @Test
     public void testHasExplicitExtends() {
         String code = HAS_EXPLICIT_EXTENDS;
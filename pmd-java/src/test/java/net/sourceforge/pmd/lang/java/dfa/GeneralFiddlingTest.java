@@ -7,15 +7,23 @@ package net.sourceforge.pmd.lang.java.dfa;
 import static net.sourceforge.pmd.lang.java.ParserTstUtil.buildDFA;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
+import java.io.StringReader;
 import java.util.List;
 
 import org.junit.Test;
 
 import net.sourceforge.pmd.PMD;
+import net.sourceforge.pmd.lang.LanguageRegistry;
+import net.sourceforge.pmd.lang.LanguageVersionHandler;
 import net.sourceforge.pmd.lang.dfa.DataFlowNode;
+import net.sourceforge.pmd.lang.java.JavaLanguageModule;
 import net.sourceforge.pmd.lang.java.ast.ASTCompilationUnit;
+import net.sourceforge.pmd.lang.java.ast.ASTMethodDeclaration;
 import net.sourceforge.pmd.lang.java.ast.ASTMethodDeclarator;
+import net.sourceforge.pmd.lang.java.ast.ASTStatementExpression;
+import net.sourceforge.pmd.lang.java.symboltable.SymbolFacade;
 
 public class GeneralFiddlingTest {
 
@@ -53,6 +61,27 @@ public class GeneralFiddlingTest {
         // }
     }
 
+    @Test
+    public void lazyGraphIsBuiltOnDemand() {
+        LanguageVersionHandler handler = LanguageRegistry.getLanguage(JavaLanguageModule.NAME)
+                .getDefaultVersion().getLanguageVersionHandler();
+        ASTCompilationUnit acu = (ASTCompilationUnit) handler.getParser(handler.getDefaultParserOptions())
+                .parse(null, new StringReader(TEST1));
+        new SymbolFacade().initializeWith(acu);
+        new DataFlowFacade().initializeWith(handler.getDataFlowHandler(), acu, true);
+
+        // asking a statement first builds the graph of the enclosing method
+        ASTStatementExpression statement = acu.getFirstDescendantOfType(ASTStatementExpression.class);
+        DataFlowNode n = statement.getDataFlowNode();
+        assertSame(statement, n.getNode());
+
+        List<DataFlowNode> f = acu.getFirstDescendantOfType(ASTMethodDeclaration.class).getDataFlowNode().getFlow();
+        assertEquals(6, f.size());
+        assertSame(n, f.get(3));
+        assertEquals("Definition(x)", String.valueOf(f.get(4).getVariableAccess().get(0)));
+        assertEquals("Undefinition(x)", String.valueOf(f.get(5).getVariableAccess().get(0)));
+    }
+
     private static final String TEST1 = "class Foo {" + PMD.EOL + " void bar() {" + PMD.EOL + "  int x = 2;" + PMD.EOL
             + "  foo(x);" + PMD.EOL + "  x = 3;" + PMD.EOL + " }" + PMD.EOL + "}";
 }
@@ -7,6 +7,7 @@ package net.sourceforge.pmd.lang.java.metrics;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -65,6 +66,22 @@ public class ProjectMemoizerTest {
     }
 
 
+    @Test
+    public void sameMemoizerForEqualQualifiedNamesTest() {
+        ASTCompilationUnit acu = ParserTstUtil.parseJavaDefaultVersion(MetricsVisitorTestData.class);
+        ASTCompilationUnit other = ParserTstUtil.parseJavaDefaultVersion(MetricsVisitorTestData.class);
+        JavaProjectMemoizer toplevel = JavaMetrics.getFacade().getLanguageSpecificProjectMemoizer();
+
+        List<ASTMethodOrConstructorDeclaration> ops = acu.findDescendantsOfType(ASTMethodOrConstructorDeclaration.class);
+        List<ASTMethodOrConstructorDeclaration> otherOps = other.findDescendantsOfType(ASTMethodOrConstructorDeclaration.class);
+
+        for (int i = 0; i < ops.size(); i++) {
+            assertSame(toplevel.getOperationMemoizer(ops.get(i).getQualifiedName()),
+                       toplevel.getOperationMemoizer(otherOps.get(i).getQualifiedName()));
+        }
+    }
+
+
     private List<Integer> visitWith(ASTCompilationUnit acu, final boolean force) {
         final JavaProjectMemoizer toplevel = JavaMetrics.getFacade().getLanguageSpecificProjectMemoizer();
 
@@ -6,7 +6,10 @@ package net.sourceforge.pmd.lang.java.symboltable;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +21,7 @@ import net.sourceforge.pmd.lang.java.ast.ASTLocalVariableDeclaration;
 import net.sourceforge.pmd.lang.java.ast.ASTName;
 import net.sourceforge.pmd.lang.java.ast.ASTPrimaryPrefix;
 import net.sourceforge.pmd.lang.java.ast.ASTVariableDeclaratorId;
+import net.sourceforge.pmd.lang.symboltable.AbstractScope;
 import net.sourceforge.pmd.lang.symboltable.NameDeclaration;
 import net.sourceforge.pmd.lang.symboltable.NameOccurrence;
 
@@ -60,6 +64,24 @@ public class LocalScopeTest extends STBBaseTst {
         assertEquals("b", decl.getImage());
     }
 
+    @Test
+    public void testDeclarationsByImage() {
+        parseCode(TEST1);
+        ASTVariableDeclaratorId node = acu.getFirstDescendantOfType(ASTVariableDeclaratorId.class);
+        AbstractScope scope = (AbstractScope) node.getScope();
+        NameDeclaration decl = scope.getDeclarations().keySet().iterator().next();
+        assertEquals(Collections.singletonList(decl), scope.getDeclarationsByImage("b"));
+        assertSame(decl, scope.findDeclarationByImage(VariableNameDeclaration.class, "b"));
+        assertNull(scope.findDeclarationByImage(ClassNameDeclaration.class, "b"));
+        assertEquals(Collections.emptyList(), scope.getDeclarationsByImage("c"));
+
+        ASTVariableDeclaratorId c = new ASTVariableDeclaratorId(1);
+        c.setImage("c");
+        scope.addDeclaration(new VariableNameDeclaration(c));
+        assertEquals(2, scope.getDeclarations().size());
+        assertEquals(1, scope.getDeclarationsByImage("c").size());
+    }
+
     @Test
     public void testQualifiedNameOccurrence() {
         parseCode(TEST2);
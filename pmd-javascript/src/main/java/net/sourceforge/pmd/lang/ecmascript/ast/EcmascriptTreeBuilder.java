@@ -4,8 +4,6 @@
 
 package net.sourceforge.pmd.lang.ecmascript.ast;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -70,59 +68,309 @@ import net.sourceforge.pmd.lang.ast.SourceCodePositioner;
 
 public final class EcmascriptTreeBuilder implements NodeVisitor {
 
-    private static final Map<Class<? extends AstNode>, Constructor<? extends EcmascriptNode<?>>> NODE_TYPE_TO_NODE_ADAPTER_TYPE = new HashMap<>();
+    private static final Map<Class<? extends AstNode>, NodeAdapterFactory<?>> NODE_TYPE_TO_NODE_ADAPTER_FACTORY = new HashMap<>();
 
     static {
-        register(ArrayComprehension.class, ASTArrayComprehension.class);
-        register(ArrayComprehensionLoop.class, ASTArrayComprehensionLoop.class);
-        register(ArrayLiteral.class, ASTArrayLiteral.class);
-        register(Assignment.class, ASTAssignment.class);
-        register(AstRoot.class, ASTAstRoot.class);
-        register(Block.class, ASTBlock.class);
-        register(BreakStatement.class, ASTBreakStatement.class);
-        register(CatchClause.class, ASTCatchClause.class);
-        register(Comment.class, ASTComment.class);
-        register(ConditionalExpression.class, ASTConditionalExpression.class);
-        register(ContinueStatement.class, ASTContinueStatement.class);
-        register(DoLoop.class, ASTDoLoop.class);
-        register(ElementGet.class, ASTElementGet.class);
-        register(EmptyExpression.class, ASTEmptyExpression.class);
-        register(EmptyStatement.class, ASTEmptyStatement.class);
-        register(ExpressionStatement.class, ASTExpressionStatement.class);
-        register(ForInLoop.class, ASTForInLoop.class);
-        register(ForLoop.class, ASTForLoop.class);
-        register(FunctionCall.class, ASTFunctionCall.class);
-        register(FunctionNode.class, ASTFunctionNode.class);
-        register(IfStatement.class, ASTIfStatement.class);
-        register(InfixExpression.class, ASTInfixExpression.class);
-        register(KeywordLiteral.class, ASTKeywordLiteral.class);
-        register(Label.class, ASTLabel.class);
-        register(LabeledStatement.class, ASTLabeledStatement.class);
-        register(LetNode.class, ASTLetNode.class);
-        register(Name.class, ASTName.class);
-        register(NewExpression.class, ASTNewExpression.class);
-        register(NumberLiteral.class, ASTNumberLiteral.class);
-        register(ObjectLiteral.class, ASTObjectLiteral.class);
-        register(ObjectProperty.class, ASTObjectProperty.class);
-        register(ParenthesizedExpression.class, ASTParenthesizedExpression.class);
-        register(PropertyGet.class, ASTPropertyGet.class);
-        register(RegExpLiteral.class, ASTRegExpLiteral.class);
-        register(ReturnStatement.class, ASTReturnStatement.class);
-        register(Scope.class, ASTScope.class);
-        register(StringLiteral.class, ASTStringLiteral.class);
-        register(SwitchCase.class, ASTSwitchCase.class);
-        register(SwitchStatement.class, ASTSwitchStatement.class);
-        register(ThrowStatement.class, ASTThrowStatement.class);
-        register(TryStatement.class, ASTTryStatement.class);
-        register(UnaryExpression.class, ASTUnaryExpression.class);
-        register(VariableDeclaration.class, ASTVariableDeclaration.class);
-        register(VariableInitializer.class, ASTVariableInitializer.class);
-        register(WhileLoop.class, ASTWhileLoop.class);
-        register(WithStatement.class, ASTWithStatement.class);
-        register(XmlDotQuery.class, ASTXmlDotQuery.class);
-        register(XmlExpression.class, ASTXmlExpression.class);
-        register(XmlMemberGet.class, ASTXmlMemberGet.class);
-        register(XmlString.class, ASTXmlString.class);
+        register(ArrayComprehension.class, new NodeAdapterFactory<ArrayComprehension>() {
+            @Override
+            public EcmascriptNode<ArrayComprehension> create(ArrayComprehension node) {
+                return new ASTArrayComprehension(node);
+            }
+        });
+        register(ArrayComprehensionLoop.class, new NodeAdapterFactory<ArrayComprehensionLoop>() {
+            @Override
+            public EcmascriptNode<ArrayComprehensionLoop> create(ArrayComprehensionLoop node) {
+                return new ASTArrayComprehensionLoop(node);
+            }
+        });
+        register(ArrayLiteral.class, new NodeAdapterFactory<ArrayLiteral>() {
+            @Override
+            public EcmascriptNode<ArrayLiteral> create(ArrayLiteral node) {
+                return new ASTArrayLiteral(node);
+            }
+        });
+        register(Assignment.class, new NodeAdapterFactory<Assignment>() {
+            @Override
+            public EcmascriptNode<Assignment> create(Assignment node) {
+                return new ASTAssignment(node);
+            }
+        });
+        register(AstRoot.class, new NodeAdapterFactory<AstRoot>() {
+            @Override
+            public EcmascriptNode<AstRoot> create(AstRoot node) {
+                return new ASTAstRoot(node);
+            }
+        });
+        register(Block.class, new NodeAdapterFactory<Block>() {
+            @Override
+            public EcmascriptNode<Block> create(Block node) {
+                return new ASTBlock(node);
+            }
+        });
+        register(BreakStatement.class, new NodeAdapterFactory<BreakStatement>() {
+            @Override
+            public EcmascriptNode<BreakStatement> create(BreakStatement node) {
+                return new ASTBreakStatement(node);
+            }
+        });
+        register(CatchClause.class, new NodeAdapterFactory<CatchClause>() {
+            @Override
+            public EcmascriptNode<CatchClause> create(CatchClause node) {
+                return new ASTCatchClause(node);
+            }
+        });
+        register(Comment.class, new NodeAdapterFactory<Comment>() {
+            @Override
+            public EcmascriptNode<Comment> create(Comment node) {
+                return new ASTComment(node);
+            }
+        });
+        register(ConditionalExpression.class, new NodeAdapterFactory<ConditionalExpression>() {
+            @Override
+            public EcmascriptNode<ConditionalExpression> create(ConditionalExpression node) {
+                return new ASTConditionalExpression(node);
+            }
+        });
+        register(ContinueStatement.class, new NodeAdapterFactory<ContinueStatement>() {
+            @Override
+            public EcmascriptNode<ContinueStatement> create(ContinueStatement node) {
+                return new ASTContinueStatement(node);
+            }
+        });
+        register(DoLoop.class, new NodeAdapterFactory<DoLoop>() {
+            @Override
+            public EcmascriptNode<DoLoop> create(DoLoop node) {
+                return new ASTDoLoop(node);
+            }
+        });
+        register(ElementGet.class, new NodeAdapterFactory<ElementGet>() {
+            @Override
+            public EcmascriptNode<ElementGet> create(ElementGet node) {
+                return new ASTElementGet(node);
+            }
+        });
+        register(EmptyExpression.class, new NodeAdapterFactory<EmptyExpression>() {
+            @Override
+            public EcmascriptNode<EmptyExpression> create(EmptyExpression node) {
+                return new ASTEmptyExpression(node);
+            }
+        });
+        register(EmptyStatement.class, new NodeAdapterFactory<EmptyStatement>() {
+            @Override
+            public EcmascriptNode<EmptyStatement> create(EmptyStatement node) {
+                return new ASTEmptyStatement(node);
+            }
+        });
+        register(ExpressionStatement.class, new NodeAdapterFactory<ExpressionStatement>() {
+            @Override
+            public EcmascriptNode<ExpressionStatement> create(ExpressionStatement node) {
+                return new ASTExpressionStatement(node);
+            }
+        });
+        register(ForInLoop.class, new NodeAdapterFactory<ForInLoop>() {
+            @Override
+            public EcmascriptNode<ForInLoop> create(ForInLoop node) {
+                return new ASTForInLoop(node);
+            }
+        });
+        register(ForLoop.class, new NodeAdapterFactory<ForLoop>() {
+            @Override
+            public EcmascriptNode<ForLoop> create(ForLoop node) {
+                return new ASTForLoop(node);
+            }
+        });
+        register(FunctionCall.class, new NodeAdapterFactory<FunctionCall>() {
+            @Override
+            public EcmascriptNode<FunctionCall> create(FunctionCall node) {
+                return new ASTFunctionCall(node);
+            }
+        });
+        register(FunctionNode.class, new NodeAdapterFactory<FunctionNode>() {
+            @Override
+            public EcmascriptNode<FunctionNode> create(FunctionNode node) {
+                return new ASTFunctionNode(node);
+            }
+        });
+        register(IfStatement.class, new NodeAdapterFactory<IfStatement>() {
+            @Override
+            public EcmascriptNode<IfStatement> create(IfStatement node) {
+                return new ASTIfStatement(node);
+            }
+        });
+        register(InfixExpression.class, new NodeAdapterFactory<InfixExpression>() {
+            @Override
+            public EcmascriptNode<InfixExpression> create(InfixExpression node) {
+                return new ASTInfixExpression(node);
+            }
+        });
+        register(KeywordLiteral.class, new NodeAdapterFactory<KeywordLiteral>() {
+            @Override
+            public EcmascriptNode<KeywordLiteral> create(KeywordLiteral node) {
+                return new ASTKeywordLiteral(node);
+            }
+        });
+        register(Label.class, new NodeAdapterFactory<Label>() {
+            @Override
+            public EcmascriptNode<Label> create(Label node) {
+                return new ASTLabel(node);
+            }
+        });
+        register(LabeledStatement.class, new NodeAdapterFactory<LabeledStatement>() {
+            @Override
+            public EcmascriptNode<LabeledStatement> create(LabeledStatement node) {
+                return new ASTLabeledStatement(node);
+            }
+        });
+        register(LetNode.class, new NodeAdapterFactory<LetNode>() {
+            @Override
+            public EcmascriptNode<LetNode> create(LetNode node) {
+                return new ASTLetNode(node);
+            }
+        });
+        register(Name.class, new NodeAdapterFactory<Name>() {
+            @Override
+            public EcmascriptNode<Name> create(Name node) {
+                return new ASTName(node);
+            }
+        });
+        register(NewExpression.class, new NodeAdapterFactory<NewExpression>() {
+            @Override
+            public EcmascriptNode<NewExpression> create(NewExpression node) {
+                return new ASTNewExpression(node);
+            }
+        });
+        register(NumberLiteral.class, new NodeAdapterFactory<NumberLiteral>() {
+            @Override
+            public EcmascriptNode<NumberLiteral> create(NumberLiteral node) {
+                return new ASTNumberLiteral(node);
+            }
+        });
+        register(ObjectLiteral.class, new NodeAdapterFactory<ObjectLiteral>() {
+            @Override
+            public EcmascriptNode<ObjectLiteral> create(ObjectLiteral node) {
+                return new ASTObjectLiteral(node);
+            }
+        });
+        register(ObjectProperty.class, new NodeAdapterFactory<ObjectProperty>() {
+            @Override
+            public EcmascriptNode<ObjectProperty> create(ObjectProperty node) {
+                return new ASTObjectProperty(node);
+            }
+        });
+        register(ParenthesizedExpression.class, new NodeAdapterFactory<ParenthesizedExpression>() {
+            @Override
+            public EcmascriptNode<ParenthesizedExpression> create(ParenthesizedExpression node) {
+                return new ASTParenthesizedExpression(node);
+            }
+        });
+        register(PropertyGet.class, new NodeAdapterFactory<PropertyGet>() {
+            @Override
+            public EcmascriptNode<PropertyGet> create(PropertyGet node) {
+                return new ASTPropertyGet(node);
+            }
+        });
+        register(RegExpLiteral.class, new NodeAdapterFactory<RegExpLiteral>() {
+            @Override
+            public EcmascriptNode<RegExpLiteral> create(RegExpLiteral node) {
+                return new ASTRegExpLiteral(node);
+            }
+        });
+        register(ReturnStatement.class, new NodeAdapterFactory<ReturnStatement>() {
+            @Override
+            public EcmascriptNode<ReturnStatement> create(ReturnStatement node) {
+                return new ASTReturnStatement(node);
+            }
+        });
+        register(Scope.class, new NodeAdapterFactory<Scope>() {
+            @Override
+            public EcmascriptNode<Scope> create(Scope node) {
+                return new ASTScope(node);
+            }
+        });
+        register(StringLiteral.class, new NodeAdapterFactory<StringLiteral>() {
+            @Override
+            public EcmascriptNode<StringLiteral> create(StringLiteral node) {
+                return new ASTStringLiteral(node);
+            }
+        });
+        register(SwitchCase.class, new NodeAdapterFactory<SwitchCase>() {
+            @Override
+            public EcmascriptNode<SwitchCase> create(SwitchCase node) {
+                return new ASTSwitchCase(node);
+            }
+        });
+        register(SwitchStatement.class, new NodeAdapterFactory<SwitchStatement>() {
+            @Override
+            public EcmascriptNode<SwitchStatement> create(SwitchStatement node) {
+                return new ASTSwitchStatement(node);
+            }
+        });
+        register(ThrowStatement.class, new NodeAdapterFactory<ThrowStatement>() {
+            @Override
+            public EcmascriptNode<ThrowStatement> create(ThrowStatement node) {
+                return new ASTThrowStatement(node);
+            }
+        });
+        register(TryStatement.class, new NodeAdapterFactory<TryStatement>() {
+            @Override
+            public EcmascriptNode<TryStatement> create(TryStatement node) {
+                return new ASTTryStatement(node);
+            }
+        });
+        register(UnaryExpression.class, new NodeAdapterFactory<UnaryExpression>() {
+            @Override
+            public EcmascriptNode<UnaryExpression> create(UnaryExpression node) {
+                return new ASTUnaryExpression(node);
+            }
+        });
+        register(VariableDeclaration.class, new NodeAdapterFactory<VariableDeclaration>() {
+            @Override
+            public EcmascriptNode<VariableDeclaration> create(VariableDeclaration node) {
+                return new ASTVariableDeclaration(node);
+            }
+        });
+        register(VariableInitializer.class, new NodeAdapterFactory<VariableInitializer>() {
+            @Override
+            public EcmascriptNode<VariableInitializer> create(VariableInitializer node) {
+                return new ASTVariableInitializer(node);
+            }
+        });
+        register(WhileLoop.class, new NodeAdapterFactory<WhileLoop>() {
+            @Override
+            public EcmascriptNode<WhileLoop> create(WhileLoop node) {
+                return new ASTWhileLoop(node);
+            }
+        });
+        register(WithStatement.class, new NodeAdapterFactory<WithStatement>() {
+            @Override
+            public EcmascriptNode<WithStatement> create(WithStatement node) {
+                return new ASTWithStatement(node);
+            }
+        });
+        register(XmlDotQuery.class, new NodeAdapterFactory<XmlDotQuery>() {
+            @Override
+            public EcmascriptNode<XmlDotQuery> create(XmlDotQuery node) {
+                return new ASTXmlDotQuery(node);
+            }
+        });
+        register(XmlExpression.class, new NodeAdapterFactory<XmlExpression>() {
+            @Override
+            public EcmascriptNode<XmlExpression> create(XmlExpression node) {
+                return new ASTXmlExpression(node);
+            }
+        });
+        register(XmlMemberGet.class, new NodeAdapterFactory<XmlMemberGet>() {
+            @Override
+            public EcmascriptNode<XmlMemberGet> create(XmlMemberGet node) {
+                return new ASTXmlMemberGet(node);
+            }
+        });
+        register(XmlString.class, new NodeAdapterFactory<XmlString>() {
+            @Override
+            public EcmascriptNode<XmlString> create(XmlString node) {
+                return new ASTXmlString(node);
+            }
+        });
     }
 
     private List<ParseProblem> parseProblems;
@@ -141,36 +389,20 @@ public final class EcmascriptTreeBuilder implements NodeVisitor {
         this.parseProblems = parseProblems;
     }
 
-    private static <T extends AstNode> void register(Class<T> nodeType,
-            Class<? extends EcmascriptNode<T>> nodeAdapterType) {
-        try {
-            NODE_TYPE_TO_NODE_ADAPTER_TYPE.put(nodeType, nodeAdapterType.getConstructor(nodeType));
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
+    private static <T extends AstNode> void register(Class<T> nodeType, NodeAdapterFactory<T> factory) {
+        NODE_TYPE_TO_NODE_ADAPTER_FACTORY.put(nodeType, factory);
     }
 
     static <T extends AstNode> EcmascriptNode<T> createNodeAdapter(T node) {
-        try {
-            // the register function makes sure only EcmascriptNode<T> can be
-            // added, where T is "T extends AstNode".
-            @SuppressWarnings("unchecked")
-            Constructor<? extends EcmascriptNode<T>> constructor = (Constructor<? extends EcmascriptNode<T>>) NODE_TYPE_TO_NODE_ADAPTER_TYPE
-                    .get(node.getClass());
-            if (constructor == null) {
-                throw new IllegalArgumentException(
-                        "There is no Node adapter class registered for the Node class: " + node.getClass());
-            }
-            return constructor.newInstance(node);
-        } catch (InstantiationException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getTargetException());
+        // the register function makes sure only NodeAdapterFactory<T> can be
+        // added, where T is "T extends AstNode".
+        @SuppressWarnings("unchecked")
+        NodeAdapterFactory<T> factory = (NodeAdapterFactory<T>) NODE_TYPE_TO_NODE_ADAPTER_FACTORY.get(node.getClass());
+        if (factory == null) {
+            throw new IllegalArgumentException(
+                    "There is no Node adapter class registered for the Node class: " + node.getClass());
         }
+        return factory.create(node);
     }
 
     public <T extends AstNode> EcmascriptNode<T> build(T astNode) {
@@ -253,4 +485,11 @@ public final class EcmascriptTreeBuilder implements NodeVisitor {
         };
         node.jjtAccept(visitor, null);
     }
+
+    /**
+     * Creates the PMD node of a Rhino node, with a direct constructor call.
+     */
+    private interface NodeAdapterFactory<T extends AstNode> {
+        EcmascriptNode<T> create(T node);
+    }
 }
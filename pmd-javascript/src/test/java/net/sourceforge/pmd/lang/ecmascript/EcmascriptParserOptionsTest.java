@@ -10,11 +10,21 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.junit.Test;
 
+import net.sourceforge.pmd.PMD;
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.RuleSets;
+import net.sourceforge.pmd.lang.LanguageRegistry;
+import net.sourceforge.pmd.lang.LanguageVersion;
 import net.sourceforge.pmd.lang.ParserOptions;
 import net.sourceforge.pmd.lang.ecmascript.EcmascriptParserOptions.Version;
 import net.sourceforge.pmd.lang.ecmascript.rule.AbstractEcmascriptRule;
+import net.sourceforge.pmd.lang.rule.XPathRule;
 import net.sourceforge.pmd.properties.BooleanProperty;
 
 public class EcmascriptParserOptionsTest {
@@ -106,6 +116,36 @@ public class EcmascriptParserOptionsTest {
         verifyOptionsEqualsHashcode(options1, options2, options3, options4);
     }
 
+    @Test
+    public void testParserUsesTheOptionsOfTheRules() {
+        MyRule first = new MyRule();
+        first.setProperty(EcmascriptParserOptions.RHINO_LANGUAGE_VERSION, Version.VERSION_1_8);
+        MyRule second = new MyRule();
+        second.setProperty(EcmascriptParserOptions.RHINO_LANGUAGE_VERSION, Version.VERSION_1_8);
+        // the XPath rules don't depend on the options
+        XPathRule xpath = new XPathRule("//Name");
+        xpath.setLanguage(LanguageRegistry.getLanguage(EcmascriptLanguageModule.NAME));
+
+        EcmascriptParserOptions options = parserOptions(first, xpath, second);
+        assertEquals(Version.VERSION_1_8, options.getRhinoLanguageVersion());
+    }
+
+    @Test
+    public void testParserUsesTheDefaultOptionsIfTheRulesDisagree() {
+        MyRule first = new MyRule();
+        first.setProperty(EcmascriptParserOptions.RHINO_LANGUAGE_VERSION, Version.VERSION_1_8);
+
+        EcmascriptParserOptions options = parserOptions(first, new MyRule());
+        assertEquals(Version.VERSION_DEFAULT, options.getRhinoLanguageVersion());
+    }
+
+    private static EcmascriptParserOptions parserOptions(Rule... rules) {
+        LanguageVersion ecmascript = LanguageRegistry.getLanguage(EcmascriptLanguageModule.NAME).getDefaultVersion();
+        RuleSets ruleSets = new RuleSets(new RuleSetFactory().createNewRuleSet("test", "test", null,
+                new ArrayList<String>(), new ArrayList<String>(), Arrays.asList(rules)));
+        return (EcmascriptParserOptions) PMD.parserFor(ecmascript, null, ruleSets).getParserOptions();
+    }
+
     private static final class MyRule extends AbstractEcmascriptRule {
     }
 
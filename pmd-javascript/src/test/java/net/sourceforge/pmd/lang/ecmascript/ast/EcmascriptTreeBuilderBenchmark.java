@@ -0,0 +1,115 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.ecmascript.ast;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.AstRoot;
+import org.mozilla.javascript.ast.ParseProblem;
+
+import net.sourceforge.pmd.lang.ecmascript.EcmascriptParserOptions;
+
+/**
+ * Times the building of the PMD tree of a large script, and the creation of
+ * its nodes by the factories of {@link EcmascriptTreeBuilder} against the
+ * reflective constructor calls they replaced. It is not run by the build, run
+ * its main method with the test classpath. The optional arguments are the
+ * number of functions of the script (2000) and the number of rounds (20).
+ */
+public final class EcmascriptTreeBuilderBenchmark {
+
+    private EcmascriptTreeBuilderBenchmark() { }
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        int functions = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        String sourceCode = generateScript(functions);
+        AstRoot astRoot = new EcmascriptParser(new EcmascriptParserOptions()).parseEcmascript(sourceCode,
+                new ArrayList<ParseProblem>());
+        List<AstNode> astNodes = new ArrayList<>();
+        Map<Class<?>, Constructor<?>> constructors = new HashMap<>();
+        collect(new EcmascriptTreeBuilder(sourceCode, new ArrayList<ParseProblem>()).build(astRoot), astNodes,
+                constructors);
+        System.out.println(sourceCode.length() + " characters, " + astNodes.size() + " nodes");
+
+        long[] trees = new long[rounds];
+        long[] factories = new long[rounds];
+        long[] reflection = new long[rounds];
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            new EcmascriptTreeBuilder(sourceCode, new ArrayList<ParseProblem>()).build(astRoot);
+            trees[round] = System.nanoTime() - start;
+
+            int created = 0;
+            start = System.nanoTime();
+            for (AstNode astNode : astNodes) {
+                created += EcmascriptTreeBuilder.createNodeAdapter(astNode) != null ? 1 : 0;
+            }
+            factories[round] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (AstNode astNode : astNodes) {
+                created += constructors.get(astNode.getClass()).newInstance(astNode) != null ? 1 : 0;
+            }
+            reflection[round] = System.nanoTime() - start;
+
+            System.out.printf("round %d: tree %.2f ms, %d nodes created by the factories %.2f ms, by reflection %.2f ms%n",
+                    round + 1, trees[round] / 1e6, created / 2, factories[round] / 1e6, reflection[round] / 1e6);
+        }
+        System.out.printf("median: tree %.2f ms, nodes created by the factories %.2f ms, by reflection %.2f ms%n",
+                median(trees) / 1e6, median(factories) / 1e6, median(reflection) / 1e6);
+    }
+
+    private static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void collect(EcmascriptNode<?> node, List<AstNode> astNodes,
+            Map<Class<?>, Constructor<?>> constructors) throws NoSuchMethodException {
+        AstNode astNode = node.getNode();
+        astNodes.add(astNode);
+        if (!constructors.containsKey(astNode.getClass())) {
+            // the constructor the tree builder used to call by reflection
+            Constructor<?> constructor = node.getClass().getDeclaredConstructor(astNode.getClass());
+            constructor.setAccessible(true);
+            constructors.put(astNode.getClass(), constructor);
+        }
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            collect((EcmascriptNode<?>) node.jjtGetChild(i), astNodes, constructors);
+        }
+    }
+
+    private static String generateScript(int functions) {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < functions; i++) {
+            code.append("function f").append(i).append("(items, name) {\n")
+                .append("    var total = 0, result = { name: name, values: [] };\n")
+                .append("    for (var i = 0; i < items.length; i++) {\n")
+                .append("        if (items[i] !== null && typeof items[i] === 'number') {\n")
+                .append("            total += items[i] * 2;\n")
+                .append("        } else {\n")
+                .append("            result.values.push(String(items[i]));\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("    try {\n")
+                .append("        result.total = total > 10 ? total : -total;\n")
+                .append("    } catch (e) {\n")
+                .append("        throw new Error('f").append(i).append(": ' + e.message);\n")
+                .append("    }\n")
+                .append("    return function () { return result; };\n")
+                .append("}\n");
+        }
+        return code.toString();
+    }
+}
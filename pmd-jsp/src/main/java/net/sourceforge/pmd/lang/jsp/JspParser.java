@@ -12,9 +12,9 @@ import net.sourceforge.pmd.lang.AbstractParser;
 import net.sourceforge.pmd.lang.ParserOptions;
 import net.sourceforge.pmd.lang.TokenManager;
 import net.sourceforge.pmd.lang.ast.AbstractTokenManager;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.ast.ParseException;
-import net.sourceforge.pmd.lang.ast.SimpleCharStream;
 
 /**
  * Adapter for the JspParser.
@@ -36,7 +36,7 @@ public class JspParser extends AbstractParser {
 
     public Node parse(String fileName, Reader source) throws ParseException {
         AbstractTokenManager.setFileName(fileName);
-        return new net.sourceforge.pmd.lang.jsp.ast.JspParser(new SimpleCharStream(source)).CompilationUnit();
+        return new net.sourceforge.pmd.lang.jsp.ast.JspParser(new FullTextCharStream(source)).CompilationUnit();
     }
 
     public Map<Integer, String> getSuppressMap() {
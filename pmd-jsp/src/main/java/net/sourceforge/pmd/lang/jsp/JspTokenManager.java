@@ -7,7 +7,7 @@ package net.sourceforge.pmd.lang.jsp;
 import java.io.Reader;
 
 import net.sourceforge.pmd.lang.TokenManager;
-import net.sourceforge.pmd.lang.ast.JavaCharStream;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 import net.sourceforge.pmd.lang.jsp.ast.JspParserTokenManager;
 
 /**
@@ -17,7 +17,7 @@ public class JspTokenManager implements TokenManager {
     private final JspParserTokenManager tokenManager;
 
     public JspTokenManager(Reader source) {
-        tokenManager = new JspParserTokenManager(new JavaCharStream(source));
+        tokenManager = new JspParserTokenManager(FullTextCharStream.withJavaUnicodeEscapes(source));
     }
 
     public Object getNextToken() {
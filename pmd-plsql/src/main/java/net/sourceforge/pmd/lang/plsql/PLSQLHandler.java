@@ -54,7 +54,7 @@ public class PLSQLHandler extends AbstractLanguageVersionHandler {
     public VisitorStarter getDataFlowFacade() {
         return new VisitorStarter() {
             public void start(Node rootNode) {
-                new DataFlowFacade().initializeWith(getDataFlowHandler(), (ASTInput) rootNode);
+                new DataFlowFacade().initializeWith(getDataFlowHandler(), (ASTInput) rootNode, true);
             }
         };
     }
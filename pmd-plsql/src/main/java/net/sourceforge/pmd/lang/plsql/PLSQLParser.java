@@ -12,6 +12,7 @@ import net.sourceforge.pmd.lang.AbstractParser;
 import net.sourceforge.pmd.lang.ParserOptions;
 import net.sourceforge.pmd.lang.TokenManager;
 import net.sourceforge.pmd.lang.ast.AbstractTokenManager;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.ast.ParseException;
 import net.sourceforge.pmd.util.IOUtil;
@@ -35,7 +36,7 @@ public class PLSQLParser extends AbstractParser {
     protected net.sourceforge.pmd.lang.plsql.ast.PLSQLParser createPLSQLParser(Reader source) throws ParseException {
         Reader in = IOUtil.skipBOM(source);
         // Wrapped PLSQL AST Parser
-        return new net.sourceforge.pmd.lang.plsql.ast.PLSQLParser(in);
+        return new net.sourceforge.pmd.lang.plsql.ast.PLSQLParser(new FullTextCharStream(in));
     }
 
     public boolean canParse() {
@@ -8,6 +8,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import net.sourceforge.pmd.lang.DataFlowHandler;
+import net.sourceforge.pmd.lang.VisitorStarter;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.dfa.LazyDataFlowNode;
 import net.sourceforge.pmd.lang.plsql.ast.ASTCompoundTriggerBlock;
 import net.sourceforge.pmd.lang.plsql.ast.ASTInput;
 import net.sourceforge.pmd.lang.plsql.ast.ASTMethodDeclaration;
@@ -15,6 +18,7 @@ import net.sourceforge.pmd.lang.plsql.ast.ASTProgramUnit;
 import net.sourceforge.pmd.lang.plsql.ast.ASTTriggerTimingPointSection;
 import net.sourceforge.pmd.lang.plsql.ast.ASTTriggerUnit;
 import net.sourceforge.pmd.lang.plsql.ast.ASTTypeMethod;
+import net.sourceforge.pmd.lang.plsql.ast.PLSQLNode;
 import net.sourceforge.pmd.lang.plsql.ast.PLSQLParserVisitorAdapter;
 
 /**
@@ -29,11 +33,45 @@ public class DataFlowFacade extends PLSQLParserVisitorAdapter {
 
     private StatementAndBraceFinder sbf;
     private VariableAccessVisitor vav;
+    private boolean lazy;
+
+    private final VisitorStarter graphBuilder = new VisitorStarter() {
+        @Override
+        public void start(Node rootNode) {
+            ((PLSQLNode) rootNode).jjtAccept(DataFlowFacade.this, null);
+        }
+    };
 
     public void initializeWith(DataFlowHandler dataFlowHandler, ASTInput node) {
+        initializeWith(dataFlowHandler, node, false);
+    }
+
+    /**
+     * Builds the data flow graphs of all program units of the input. If lazy,
+     * each of them only gets a {@link LazyDataFlowNode}, and its graph is built
+     * the first time its data flow node is requested.
+     */
+    public void initializeWith(DataFlowHandler dataFlowHandler, ASTInput node, boolean lazy) {
         sbf = new StatementAndBraceFinder(dataFlowHandler);
         vav = new VariableAccessVisitor();
+        this.lazy = lazy;
         node.jjtAccept(this, null);
+        // graphs built later on must be built right away, nested units included
+        this.lazy = false;
+    }
+
+    /**
+     * Defers building the data flow graph of the node if in lazy mode.
+     * Building it later on visits the node again, which also rebuilds
+     * nested units in the same order as an eager visit would.
+     *
+     * @return true if the graph was deferred
+     */
+    private boolean deferred(PLSQLNode node) {
+        if (lazy) {
+            node.setDataFlowNode(new LazyDataFlowNode(node, graphBuilder));
+        }
+        return lazy;
     }
 
     @Override
@@ -46,8 +84,10 @@ public class DataFlowFacade extends PLSQLParserVisitorAdapter {
         }
 
         super.visit(node, data);
-        sbf.buildDataFlowFor(node);
-        vav.compute(node);
+        if (!deferred(node)) {
+            sbf.buildDataFlowFor(node);
+            vav.compute(node);
+        }
         LOGGER.exiting(CLASS_PATH, "visit(ASTMethodDeclaration)");
         return data;
     }
@@ -75,8 +115,10 @@ public class DataFlowFacade extends PLSQLParserVisitorAdapter {
                         + node.getClass().getCanonicalName() + " @ line " + node.getBeginLine() + ", column "
                         + node.getBeginColumn() + " --- " + new Throwable().getStackTrace());
             }
-            sbf.buildDataFlowFor(node);
-            vav.compute(node);
+            if (!deferred(node)) {
+                sbf.buildDataFlowFor(node);
+                vav.compute(node);
+            }
         }
         LOGGER.exiting(CLASS_PATH, "visit(ASTTriggerUnit)");
         return data;
@@ -90,8 +132,10 @@ public class DataFlowFacade extends PLSQLParserVisitorAdapter {
                     + node.getBeginLine() + ", column " + node.getBeginColumn() + " --- "
                     + new Throwable().getStackTrace());
         }
-        sbf.buildDataFlowFor(node);
-        vav.compute(node);
+        if (!deferred(node)) {
+            sbf.buildDataFlowFor(node);
+            vav.compute(node);
+        }
         LOGGER.exiting(CLASS_PATH, "visit(ASTProgramUnit)");
         return data;
     }
@@ -104,8 +148,10 @@ public class DataFlowFacade extends PLSQLParserVisitorAdapter {
                     "visit(ASTProgramUnit): " + node.getClass().getCanonicalName() + " @ line " + node.getBeginLine()
                             + ", column " + node.getBeginColumn() + " --- " + new Throwable().getStackTrace());
         }
-        sbf.buildDataFlowFor(node);
-        vav.compute(node);
+        if (!deferred(node)) {
+            sbf.buildDataFlowFor(node);
+            vav.compute(node);
+        }
         LOGGER.exiting(CLASS_PATH, "visit(ASTProgramUnit)");
         return data;
     }
@@ -118,8 +164,10 @@ public class DataFlowFacade extends PLSQLParserVisitorAdapter {
                     "visit(ASTTypeMethod): " + node.getClass().getCanonicalName() + " @ line " + node.getBeginLine()
                             + ", column " + node.getBeginColumn() + " --- " + new Throwable().getStackTrace());
         }
-        sbf.buildDataFlowFor(node);
-        vav.compute(node);
+        if (!deferred(node)) {
+            sbf.buildDataFlowFor(node);
+            vav.compute(node);
+        }
         LOGGER.exiting(CLASS_PATH, "visit(ASTTypeMethod)");
         return data;
     }
@@ -4,7 +4,6 @@
 
 package net.sourceforge.pmd.lang.plsql.symboltable;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -16,8 +15,6 @@ import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.plsql.ast.ASTName;
 import net.sourceforge.pmd.lang.plsql.ast.AbstractPLSQLNode;
 import net.sourceforge.pmd.lang.symboltable.AbstractScope;
-import net.sourceforge.pmd.lang.symboltable.Applier;
-import net.sourceforge.pmd.lang.symboltable.ImageFinderFunction;
 import net.sourceforge.pmd.lang.symboltable.NameDeclaration;
 import net.sourceforge.pmd.lang.symboltable.NameOccurrence;
 
@@ -56,7 +53,8 @@ public class ClassScope extends AbstractScope {
 
     @Override
     public void addDeclaration(NameDeclaration declaration) {
-        if (declaration instanceof VariableNameDeclaration && getDeclarations().keySet().contains(declaration)) {
+        if (declaration instanceof VariableNameDeclaration
+                && getDeclarations(VariableNameDeclaration.class).containsKey(declaration)) {
             throw new RuntimeException(declaration + " is already in the symbol table");
         }
         super.addDeclaration(declaration);
@@ -148,8 +146,9 @@ public class ClassScope extends AbstractScope {
         }
 
         if (occurrence.isMethodOrConstructorInvocation()) {
-            for (MethodNameDeclaration mnd : methodDeclarations.keySet()) {
-                if (mnd.getImage().equals(occurrence.getImage())) {
+            for (NameDeclaration declaration : getDeclarationsByImage(occurrence.getImage())) {
+                if (declaration instanceof MethodNameDeclaration) {
+                    MethodNameDeclaration mnd = (MethodNameDeclaration) declaration;
                     int args = occurrence.getArgumentCount();
                     if (args == mnd.getParameterCount() || mnd.isVarargs() && args >= mnd.getParameterCount() - 1) {
                         // FIXME if several methods have the same name
@@ -165,9 +164,6 @@ public class ClassScope extends AbstractScope {
             return result;
         }
 
-        List<String> images = new ArrayList<>();
-        images.add(occurrence.getImage());
-
         if (null == occurrence.getImage()) {
             if (LOGGER.isLoggable(Level.FINEST)) {
                 LOGGER.finest("occurrence==" + occurrence.toString() + "with Argumanet Count == "
@@ -175,13 +171,14 @@ public class ClassScope extends AbstractScope {
             }
         }
 
-        if (occurrence.getImage().startsWith(className)) {
-            images.add(clipClassName(occurrence.getImage()));
+        VariableNameDeclaration declaration = findDeclarationByImage(VariableNameDeclaration.class,
+                occurrence.getImage());
+        if (declaration == null && occurrence.getImage().startsWith(className)) {
+            // the name may be qualified with the name of the class
+            declaration = findDeclarationByImage(VariableNameDeclaration.class, clipClassName(occurrence.getImage()));
         }
-        ImageFinderFunction finder = new ImageFinderFunction(images);
-        Applier.apply(finder, getVariableDeclarations().keySet().iterator());
-        if (finder.getDecl() != null) {
-            result.add(finder.getDecl());
+        if (declaration != null) {
+            result.add(declaration);
         }
         return result;
     }
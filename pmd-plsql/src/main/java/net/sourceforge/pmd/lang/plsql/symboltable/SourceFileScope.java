@@ -4,9 +4,9 @@
 
 package net.sourceforge.pmd.lang.plsql.symboltable;
 
+import java.util.List;
+
 import net.sourceforge.pmd.lang.symboltable.AbstractScope;
-import net.sourceforge.pmd.lang.symboltable.Applier;
-import net.sourceforge.pmd.lang.symboltable.ImageFinderFunction;
 import net.sourceforge.pmd.lang.symboltable.NameDeclaration;
 import net.sourceforge.pmd.lang.symboltable.NameOccurrence;
 
@@ -45,9 +45,8 @@ public class SourceFileScope extends AbstractScope {
     }
 
     protected NameDeclaration findVariableHere(NameOccurrence occ) {
-        ImageFinderFunction finder = new ImageFinderFunction(occ.getImage());
-        Applier.apply(finder, getDeclarations().keySet().iterator());
-        return finder.getDecl();
+        List<NameDeclaration> declarations = getDeclarationsByImage(occ.getImage());
+        return declarations.isEmpty() ? null : declarations.get(0);
     }
 
 }
@@ -39,6 +39,18 @@ public class ParserOptionsTest {
         verifyOptionsEqualsHashcode(options1, options2, options3, options4);
     }
 
+    /**
+     * The options without a suppress marker are equal.
+     */
+    @Test
+    public void testEqualsWithoutSuppressMarker() {
+        Assert.assertEquals(new ParserOptions(), new ParserOptions());
+        ParserOptions options = new ParserOptions();
+        options.setSuppressMarker("foo");
+        Assert.assertNotEquals(new ParserOptions(), options);
+        Assert.assertNotEquals(options, new ParserOptions());
+    }
+
     /**
      * Verify equals and hashCode for 4 {@link ParserOptions} instances. The
      * given options should be as follows: 1 and 3 are equals, as are 2 and 4.
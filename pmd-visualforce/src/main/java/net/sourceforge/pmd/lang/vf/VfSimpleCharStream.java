@@ -6,17 +6,16 @@ package net.sourceforge.pmd.lang.vf;
 
 import java.io.Reader;
 
-import net.sourceforge.pmd.lang.ast.SimpleCharStream;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 
 /**
  * @author sergey.gorbaty
  *
  */
-public class VfSimpleCharStream extends SimpleCharStream {
+public class VfSimpleCharStream extends FullTextCharStream {
 
     public VfSimpleCharStream(Reader dstream) {
-        super(dstream);
-        tabSize = 4;
+        super(dstream, 4);
     }
 
 }
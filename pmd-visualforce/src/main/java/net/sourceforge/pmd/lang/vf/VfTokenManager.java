@@ -7,7 +7,7 @@ package net.sourceforge.pmd.lang.vf;
 import java.io.Reader;
 
 import net.sourceforge.pmd.lang.TokenManager;
-import net.sourceforge.pmd.lang.ast.JavaCharStream;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 import net.sourceforge.pmd.lang.vf.ast.VfParserTokenManager;
 
 /**
@@ -17,7 +17,7 @@ public class VfTokenManager implements TokenManager {
     private final VfParserTokenManager tokenManager;
 
     public VfTokenManager(Reader source) {
-        tokenManager = new VfParserTokenManager(new JavaCharStream(source));
+        tokenManager = new VfParserTokenManager(FullTextCharStream.withJavaUnicodeEscapes(source));
     }
 
     public Object getNextToken() {
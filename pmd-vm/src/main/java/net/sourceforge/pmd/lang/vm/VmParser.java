@@ -12,9 +12,9 @@ import net.sourceforge.pmd.lang.AbstractParser;
 import net.sourceforge.pmd.lang.ParserOptions;
 import net.sourceforge.pmd.lang.TokenManager;
 import net.sourceforge.pmd.lang.ast.AbstractTokenManager;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 import net.sourceforge.pmd.lang.ast.Node;
 import net.sourceforge.pmd.lang.ast.ParseException;
-import net.sourceforge.pmd.lang.vm.util.VelocityCharStream;
 
 /**
  * Adapter for the VmParser.
@@ -36,7 +36,7 @@ public class VmParser extends AbstractParser {
 
     public Node parse(final String fileName, final Reader source) throws ParseException {
         AbstractTokenManager.setFileName(fileName);
-        return new net.sourceforge.pmd.lang.vm.ast.VmParser(new VelocityCharStream(source, 1, 1)).process();
+        return new net.sourceforge.pmd.lang.vm.ast.VmParser(new FullTextCharStream(source)).process();
     }
 
     public Map<Integer, String> getSuppressMap() {
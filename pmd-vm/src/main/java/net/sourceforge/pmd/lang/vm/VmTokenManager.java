@@ -8,15 +8,15 @@ import java.io.Reader;
 
 import net.sourceforge.pmd.lang.TokenManager;
 import net.sourceforge.pmd.lang.ast.AbstractTokenManager;
+import net.sourceforge.pmd.lang.ast.FullTextCharStream;
 import net.sourceforge.pmd.lang.vm.ast.VmParserTokenManager;
-import net.sourceforge.pmd.lang.vm.util.VelocityCharStream;
 
 public class VmTokenManager implements TokenManager {
 
     private final VmParserTokenManager vmParserTokenManager;
 
     public VmTokenManager(final Reader source) {
-        vmParserTokenManager = new VmParserTokenManager(new VelocityCharStream(source, 1, 1));
+        vmParserTokenManager = new VmParserTokenManager(new FullTextCharStream(source));
     }
 
     public Object getNextToken() {
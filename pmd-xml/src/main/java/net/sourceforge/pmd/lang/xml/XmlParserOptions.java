@@ -41,6 +41,10 @@ public class XmlParserOptions extends ParserOptions {
             "Specifies that the XML parser will process XInclude markup.", Boolean.FALSE, 9.0f);
     public static final BooleanProperty LOOKUP_DESCRIPTOR_DTD = new BooleanProperty("xincludeAware",
             "Specifies whether XML parser will attempt to lookup the DTD.", Boolean.FALSE, 10.0f);
+    public static final BooleanProperty STREAMING_DESCRIPTOR = new BooleanProperty("streaming",
+            "Specifies that the XML parser build the AST from a stream, without a DOM. The nodes don't provide "
+                    + "their DOM node, and the documents are neither validated nor XInclude processed.",
+            Boolean.FALSE, 11.0f);
 
     public static final EntityResolver SILENT_ENTITY_RESOLVER = new EntityResolver() {
         public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
@@ -56,6 +60,7 @@ public class XmlParserOptions extends ParserOptions {
     private boolean validating;
     private boolean xincludeAware;
     private boolean lookupDescriptorDoc;
+    private boolean streaming;
 
     public XmlParserOptions() {
         this.coalescing = COALESCING_DESCRIPTOR.defaultValue().booleanValue();
@@ -67,6 +72,7 @@ public class XmlParserOptions extends ParserOptions {
         this.validating = VALIDATING_DESCRIPTOR.defaultValue().booleanValue();
         this.xincludeAware = XINCLUDE_AWARE_DESCRIPTOR.defaultValue().booleanValue();
         this.lookupDescriptorDoc = LOOKUP_DESCRIPTOR_DTD.defaultValue().booleanValue();
+        this.streaming = STREAMING_DESCRIPTOR.defaultValue().booleanValue();
     }
 
     public XmlParserOptions(Rule rule) {
@@ -78,6 +84,7 @@ public class XmlParserOptions extends ParserOptions {
         this.validating = rule.getProperty(VALIDATING_DESCRIPTOR);
         this.xincludeAware = rule.getProperty(XINCLUDE_AWARE_DESCRIPTOR);
         this.lookupDescriptorDoc = rule.getProperty(LOOKUP_DESCRIPTOR_DTD);
+        this.streaming = rule.getProperty(STREAMING_DESCRIPTOR);
     }
 
     /**
@@ -158,6 +165,14 @@ public class XmlParserOptions extends ParserOptions {
         this.xincludeAware = xincludeAware;
     }
 
+    public boolean isStreaming() {
+        return this.streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -169,6 +184,7 @@ public class XmlParserOptions extends ParserOptions {
         result = prime * result + (namespaceAware ? 1231 : 1237);
         result = prime * result + (validating ? 1231 : 1237);
         result = prime * result + (xincludeAware ? 1231 : 1237);
+        result = prime * result + (streaming ? 1231 : 1237);
         return result;
     }
 
@@ -186,6 +202,6 @@ public class XmlParserOptions extends ParserOptions {
                 && this.ignoringComments == that.ignoringComments
                 && this.ignoringElementContentWhitespace == that.ignoringElementContentWhitespace
                 && this.namespaceAware == that.namespaceAware && this.validating == that.validating
-                && this.xincludeAware == that.xincludeAware;
+                && this.xincludeAware == that.xincludeAware && this.streaming == that.streaming;
     }
 }
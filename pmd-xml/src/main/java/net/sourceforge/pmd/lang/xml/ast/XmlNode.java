@@ -20,7 +20,8 @@ public interface XmlNode extends Node, AttributeNode {
     /**
      * Provide access to the underlying DOM node.
      * 
-     * @return The DOM node.
+     * @return The DOM node, or null if the node was built by the streaming
+     *     parser, see {@link net.sourceforge.pmd.lang.xml.XmlParserOptions#STREAMING_DESCRIPTOR}.
      */
     org.w3c.dom.Node getNode();
 }
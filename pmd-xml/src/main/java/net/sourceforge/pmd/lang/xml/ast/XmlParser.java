@@ -62,6 +62,9 @@ public class XmlParser {
 
 
     public XmlNode parse(Reader reader) {
+        if (parserOptions.isStreaming()) {
+            return new XmlStreamParser(parserOptions).parse(reader);
+        }
         Document document = parseDocument(reader);
         XmlNode root = new RootXmlNode(this, document);
         nodeCache.put(document, root);
@@ -0,0 +1,108 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.xml.ast;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import net.sourceforge.pmd.lang.ast.AbstractNode;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.ast.RootNode;
+import net.sourceforge.pmd.lang.ast.xpath.Attribute;
+
+/**
+ * An XML node built by the streaming parser, see
+ * {@link net.sourceforge.pmd.lang.xml.XmlParserOptions#isStreaming()}. Unlike
+ * {@link XmlNodeWrapper}, it holds its name, attributes, text and position
+ * itself, and there's no DOM node behind it.
+ */
+public class XmlStreamNode extends AbstractNode implements XmlNode {
+
+    /* package */ static final String[] NO_ATTRIBUTES = new String[0];
+
+    private final String name;
+    /** The names and the values of the attributes, alternately. */
+    private final String[] attributes;
+
+
+    /* package */ XmlStreamNode(String name, String[] attributes) {
+        super(0);
+        this.name = name;
+        this.attributes = attributes;
+    }
+
+
+    /* package */ void setBeginPosition(int line, int column) {
+        beginLine = line;
+        beginColumn = column;
+    }
+
+
+    /* package */ void setEndPosition(int line, int column) {
+        endLine = line;
+        endColumn = column;
+    }
+
+
+    /* package */ void setChildren(List<Node> nodes) {
+        if (!nodes.isEmpty()) {
+            children = nodes.toArray(new Node[0]);
+            for (int i = 0; i < children.length; i++) {
+                children[i].jjtSetParent(this);
+                children[i].jjtSetChildIndex(i);
+            }
+        }
+    }
+
+
+    @Override
+    public String getXPathNodeName() {
+        return name;
+    }
+
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+
+    @Override
+    public Iterator<Attribute> getAttributeIterator() {
+        List<Attribute> result = new ArrayList<>(attributes.length / 2 + 1);
+        for (int i = 0; i < attributes.length; i += 2) {
+            result.add(new Attribute(this, attributes[i], attributes[i + 1]));
+        }
+        // Expose the text of Text/CDATA nodes to have an 'Image' attribute like AST Nodes
+        if (getImage() != null) {
+            result.add(new Attribute(this, "Image", getImage()));
+        }
+        return result.iterator();
+    }
+
+
+    /**
+     * There's no DOM node behind the nodes of the streaming parser. The rules
+     * which visit the DOM are rejected when they set the streaming property,
+     * see {@link net.sourceforge.pmd.lang.xml.rule.AbstractDomXmlRule#dysfunctionReason()}.
+     *
+     * @return Always null
+     */
+    @Override
+    public org.w3c.dom.Node getNode() {
+        return null;
+    }
+
+
+    /**
+     * The root should implement {@link RootNode}.
+     */
+    public static class RootXmlStreamNode extends XmlStreamNode implements RootNode {
+        RootXmlStreamNode() {
+            super("document", NO_ATTRIBUTES);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * BSD-style license; for more info see http://pmd.sourceforge.net/license.html
+ */
+
+package net.sourceforge.pmd.lang.xml.ast;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.ast.ParseException;
+import net.sourceforge.pmd.lang.xml.XmlParserOptions;
+
+/**
+ * Builds the AST of an XML document from a StAX stream, without a DOM. The
+ * positions of the nodes are the ones reported by the StAX parser: a node
+ * begins where the previous event ends, and ends before the position
+ * reported after it.
+ */
+final class XmlStreamParser {
+
+    /** Asks the JDK parser to report the CDATA sections, instead of merging them with the text. */
+    private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    private static final XMLResolver SILENT_RESOLVER = new XMLResolver() {
+        @Override
+        public Object resolveEntity(String publicID, String systemID, String baseURI, String namespace) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+    };
+
+    /**
+     * The factories of each thread, indexed by the {@link #factoryKey() options}
+     * they are configured with. A factory is costly to look up and create, and
+     * the JDK one can't create readers concurrently.
+     */
+    private static final ThreadLocal<XMLInputFactory[]> FACTORIES = new ThreadLocal<XMLInputFactory[]>() {
+        @Override
+        protected XMLInputFactory[] initialValue() {
+            return new XMLInputFactory[16];
+        }
+    };
+
+    private final XmlParserOptions parserOptions;
+
+    // The position where the current event begins
+    private int line = 1;
+    private int column = 1;
+
+
+    /* package */ XmlStreamParser(XmlParserOptions parserOptions) {
+        this.parserOptions = parserOptions;
+    }
+
+
+    /* package */ XmlNode parse(Reader reader) throws ParseException {
+        XMLStreamReader stream = null;
+        try {
+            stream = getInputFactory().createXMLStreamReader(reader);
+            return buildTree(stream);
+        } catch (XMLStreamException e) {
+            throw new ParseException(e);
+        } finally {
+            close(stream);
+        }
+    }
+
+
+    private XMLInputFactory getInputFactory() {
+        XMLInputFactory[] factories = FACTORIES.get();
+        int key = factoryKey();
+        if (factories[key] == null) {
+            factories[key] = createInputFactory();
+        }
+        return factories[key];
+    }
+
+
+    /**
+     * Returns the combination of the options which configure the factory.
+     */
+    private int factoryKey() {
+        return (parserOptions.isNamespaceAware() ? 1 : 0) | (parserOptions.isCoalescing() ? 2 : 0)
+                | (parserOptions.isExpandEntityReferences() ? 4 : 0) | (parserOptions.isLookupDescriptorDoc() ? 8 : 0);
+    }
+
+
+    private XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, parserOptions.isNamespaceAware());
+        factory.setProperty(XMLInputFactory.IS_COALESCING, parserOptions.isCoalescing());
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, parserOptions.isExpandEntityReferences());
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        if (!parserOptions.isCoalescing() && factory.isPropertySupported(REPORT_CDATA_EVENT)) {
+            factory.setProperty(REPORT_CDATA_EVENT, true);
+        }
+        if (!parserOptions.isLookupDescriptorDoc()) {
+            factory.setXMLResolver(SILENT_RESOLVER);
+        }
+        return factory;
+    }
+
+
+    private XmlNode buildTree(XMLStreamReader stream) throws XMLStreamException {
+        XmlStreamNode root = new XmlStreamNode.RootXmlStreamNode();
+        root.setBeginPosition(line, column);
+        advance(stream);
+
+        // the open elements, with their children so far
+        Deque<XmlStreamNode> elements = new ArrayDeque<>();
+        Deque<List<Node>> elementChildren = new ArrayDeque<>();
+        elements.push(root);
+        elementChildren.push(new ArrayList<Node>());
+        // the last text node, which the next text event continues, and its text so far
+        XmlStreamNode text = null;
+        StringBuilder textImage = new StringBuilder();
+
+        while (stream.hasNext()) {
+            int event = stream.next();
+            XmlStreamNode node = null;
+            switch (event) {
+            case XMLStreamConstants.START_ELEMENT:
+                node = new XmlStreamNode(qualifiedName(stream.getPrefix(), stream.getLocalName()),
+                        attributes(stream));
+                node.setBeginPosition(line, column);
+                elementChildren.peek().add(node);
+                elements.push(node);
+                elementChildren.push(new ArrayList<Node>());
+                setImage(text, textImage);
+                text = null;
+                advance(stream);
+                continue;
+            case XMLStreamConstants.END_ELEMENT:
+                node = elements.pop();
+                node.setChildren(elementChildren.pop());
+                setImage(text, textImage);
+                text = null;
+                advance(stream);
+                node.setEndPosition(line, column - 1);
+                continue;
+            case XMLStreamConstants.SPACE:
+                if (parserOptions.isIgnoringElementContentWhitespace()) {
+                    advance(stream);
+                    continue;
+                }
+                // fall through
+            case XMLStreamConstants.CHARACTERS:
+                if (text != null) {
+                    // the parser may split the text, e.g. at the entity references
+                    textImage.append(stream.getText());
+                    advance(stream);
+                    text.setEndPosition(line, column - 1);
+                    continue;
+                }
+                node = new XmlStreamNode("text", XmlStreamNode.NO_ATTRIBUTES);
+                textImage.setLength(0);
+                textImage.append(stream.getText());
+                break;
+            case XMLStreamConstants.CDATA:
+                node = new XmlStreamNode("cdata-section", XmlStreamNode.NO_ATTRIBUTES);
+                node.setImage(stream.getText());
+                break;
+            case XMLStreamConstants.COMMENT:
+                if (!parserOptions.isIgnoringComments()) {
+                    node = new XmlStreamNode("comment", XmlStreamNode.NO_ATTRIBUTES);
+                }
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                node = new XmlStreamNode(stream.getPITarget(), XmlStreamNode.NO_ATTRIBUTES);
+                break;
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                node = new XmlStreamNode(stream.getLocalName(), XmlStreamNode.NO_ATTRIBUTES);
+                break;
+            case XMLStreamConstants.DTD:
+                node = new XmlStreamNode(doctypeName(stream.getText()), XmlStreamNode.NO_ATTRIBUTES);
+                break;
+            default:
+                // the end of the document
+                break;
+            }
+
+            setImage(text, textImage);
+            text = event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE ? node : null;
+            if (node != null) {
+                node.setBeginPosition(line, column);
+                elementChildren.peek().add(node);
+                advance(stream);
+                node.setEndPosition(line, column - 1);
+            }
+        }
+
+        setImage(text, textImage);
+        root.setChildren(elementChildren.pop());
+        root.setEndPosition(line, column - 1);
+        return root;
+    }
+
+
+    /**
+     * Sets the image of the text node once all its text has been read.
+     */
+    private static void setImage(XmlStreamNode text, StringBuilder image) {
+        if (text != null) {
+            text.setImage(image.toString());
+        }
+    }
+
+
+    /**
+     * Moves the position to the end of the current event, where the next
+     * one begins.
+     */
+    private void advance(XMLStreamReader stream) {
+        Location location = stream.getLocation();
+        // the end of the document has no location
+        if (location.getLineNumber() > 0) {
+            line = location.getLineNumber();
+            column = location.getColumnNumber();
+        }
+    }
+
+
+    private String[] attributes(XMLStreamReader stream) {
+        // like the DOM, the namespace declarations are attributes
+        int namespaceCount = parserOptions.isNamespaceAware() ? stream.getNamespaceCount() : 0;
+        int attributeCount = stream.getAttributeCount();
+        if (namespaceCount + attributeCount == 0) {
+            return XmlStreamNode.NO_ATTRIBUTES;
+        }
+
+        String[] attributes = new String[2 * (namespaceCount + attributeCount)];
+        int index = 0;
+        for (int i = 0; i < namespaceCount; i++) {
+            attributes[index++] = qualifiedName("xmlns", stream.getNamespacePrefix(i));
+            attributes[index++] = stream.getNamespaceURI(i);
+        }
+        for (int i = 0; i < attributeCount; i++) {
+            attributes[index++] = qualifiedName(stream.getAttributePrefix(i), stream.getAttributeLocalName(i));
+            attributes[index++] = stream.getAttributeValue(i);
+        }
+        return attributes;
+    }
+
+
+    private static String qualifiedName(String prefix, String localName) {
+        if (prefix == null || prefix.isEmpty()) {
+            return localName;
+        }
+        if (localName == null || localName.isEmpty()) {
+            // the default namespace declaration
+            return prefix;
+        }
+        return prefix + ':' + localName;
+    }
+
+
+    /**
+     * Returns the name of the root element declared by the document type
+     * declaration, which is the name of the DOM node of the declaration.
+     */
+    private static String doctypeName(String declaration) {
+        int start = "<!DOCTYPE".length();
+        while (start < declaration.length() && Character.isWhitespace(declaration.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < declaration.length() && !Character.isWhitespace(declaration.charAt(end))
+                && declaration.charAt(end) != '[' && declaration.charAt(end) != '>') {
+            end++;
+        }
+        return declaration.substring(start, end);
+    }
+
+
+    private static void close(XMLStreamReader stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (XMLStreamException ignored) {
+                // the parsing result is more important
+            }
+        }
+    }
+}
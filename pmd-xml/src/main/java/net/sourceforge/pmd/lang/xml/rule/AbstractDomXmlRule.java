@@ -28,6 +28,18 @@ import net.sourceforge.pmd.lang.xml.ast.XmlNode;
  */
 public class AbstractDomXmlRule extends AbstractXmlRule {
 
+    /**
+     * The rules visit the DOM nodes, which the streaming parser doesn't build.
+     */
+    @Override
+    public String dysfunctionReason() {
+        if (getProperty(STREAMING_DESCRIPTOR)) {
+            return "The rule visits the DOM, which the streaming XML parser doesn't build, "
+                    + "the property '" + STREAMING_DESCRIPTOR.name() + "' must be false";
+        }
+        return super.dysfunctionReason();
+    }
+
     @Override
     protected void visit(XmlNode node, RuleContext ctx) {
         final Node domNode = node.getNode();
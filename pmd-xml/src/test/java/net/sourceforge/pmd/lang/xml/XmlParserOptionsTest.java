@@ -7,12 +7,34 @@ package net.sourceforge.pmd.lang.xml;
 import static net.sourceforge.pmd.lang.ParserOptionsTest.verifyOptionsEqualsHashcode;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Test;
 
+import net.sourceforge.pmd.PMD;
+import net.sourceforge.pmd.PMDConfiguration;
+import net.sourceforge.pmd.Report;
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.RuleSets;
+import net.sourceforge.pmd.RuleViolation;
+import net.sourceforge.pmd.SourceCodeProcessor;
+import net.sourceforge.pmd.lang.LanguageRegistry;
+import net.sourceforge.pmd.lang.LanguageVersion;
 import net.sourceforge.pmd.lang.ParserOptions;
+import net.sourceforge.pmd.lang.ast.Node;
+import net.sourceforge.pmd.lang.rule.XPathRule;
+import net.sourceforge.pmd.lang.xml.ast.XmlStreamNode;
+import net.sourceforge.pmd.lang.xml.rule.AbstractDomXmlRule;
 import net.sourceforge.pmd.lang.xml.rule.AbstractXmlRule;
 import net.sourceforge.pmd.properties.BooleanProperty;
 
@@ -28,6 +50,7 @@ public class XmlParserOptionsTest {
         assertTrue(options.isNamespaceAware());
         assertFalse(options.isValidating());
         assertFalse(options.isXincludeAware());
+        assertFalse(options.isStreaming());
 
         MyRule rule = new MyRule();
         options = (XmlParserOptions) rule.getParserOptions();
@@ -38,6 +61,7 @@ public class XmlParserOptionsTest {
         assertTrue(options.isNamespaceAware());
         assertFalse(options.isValidating());
         assertFalse(options.isXincludeAware());
+        assertFalse(options.isStreaming());
     }
 
     @Test
@@ -78,6 +102,11 @@ public class XmlParserOptionsTest {
         assertTrue(((XmlParserOptions) rule.getParserOptions()).isXincludeAware());
         rule.setProperty(XmlParserOptions.XINCLUDE_AWARE_DESCRIPTOR, false);
         assertFalse(((XmlParserOptions) rule.getParserOptions()).isXincludeAware());
+
+        rule.setProperty(XmlParserOptions.STREAMING_DESCRIPTOR, true);
+        assertTrue(((XmlParserOptions) rule.getParserOptions()).isStreaming());
+        rule.setProperty(XmlParserOptions.STREAMING_DESCRIPTOR, false);
+        assertFalse(((XmlParserOptions) rule.getParserOptions()).isStreaming());
     }
 
     @Test
@@ -123,6 +152,12 @@ public class XmlParserOptionsTest {
         assertTrue(options.isXincludeAware());
         options.setXincludeAware(false);
         assertFalse(options.isXincludeAware());
+
+        options.setStreaming(true);
+        assertTrue(options.isStreaming());
+        options.setStreaming(false);
+        assertFalse(options.isStreaming());
+        assertFalse(options.isStreaming());
     }
 
     @Test
@@ -131,7 +166,7 @@ public class XmlParserOptionsTest {
             XmlParserOptions.EXPAND_ENTITY_REFERENCES_DESCRIPTOR, XmlParserOptions.IGNORING_COMMENTS_DESCRIPTOR,
             XmlParserOptions.IGNORING_ELEMENT_CONTENT_WHITESPACE_DESCRIPTOR,
             XmlParserOptions.NAMESPACE_AWARE_DESCRIPTOR, XmlParserOptions.VALIDATING_DESCRIPTOR,
-            XmlParserOptions.XINCLUDE_AWARE_DESCRIPTOR, };
+            XmlParserOptions.XINCLUDE_AWARE_DESCRIPTOR, XmlParserOptions.STREAMING_DESCRIPTOR, };
 
         for (int i = 0; i < properties.length; i++) {
             BooleanProperty property = properties[i];
@@ -159,9 +194,89 @@ public class XmlParserOptionsTest {
         verifyOptionsEqualsHashcode(options1, options2, options3, options4);
     }
 
+    @Test
+    public void testParserUsesTheOptionsOfTheRules() {
+        LanguageVersion xml = LanguageRegistry.getLanguage(XmlLanguageModule.NAME).getDefaultVersion();
+        MyRule first = new MyRule();
+        first.setProperty(XmlParserOptions.STREAMING_DESCRIPTOR, true);
+        MyRule second = new MyRule();
+        second.setProperty(XmlParserOptions.STREAMING_DESCRIPTOR, true);
+        RuleSets ruleSets = new RuleSets(new RuleSetFactory().createNewRuleSet("test", "test", null,
+                new ArrayList<String>(), new ArrayList<String>(), Arrays.<Rule>asList(first, second)));
+
+        XmlParserOptions options = (XmlParserOptions) PMD.parserFor(xml, null, ruleSets).getParserOptions();
+        assertTrue(options.isStreaming());
+    }
+
+    @Test
+    public void testParserIgnoresTheXPathRules() {
+        LanguageVersion xml = LanguageRegistry.getLanguage(XmlLanguageModule.NAME).getDefaultVersion();
+        MyRule streaming = new MyRule();
+        streaming.setProperty(XmlParserOptions.STREAMING_DESCRIPTOR, true);
+        XPathRule xpath = new XPathRule("//root");
+        xpath.setLanguage(xml.getLanguage());
+        RuleSets ruleSets = new RuleSets(new RuleSetFactory().createNewRuleSet("test", "test", null,
+                new ArrayList<String>(), new ArrayList<String>(), Arrays.<Rule>asList(xpath, streaming)));
+
+        XmlParserOptions options = (XmlParserOptions) PMD.parserFor(xml, null, ruleSets).getParserOptions();
+        assertTrue(options.isStreaming());
+    }
+
+    @Test
+    public void testParserUsesTheDefaultOptionsIfTheRulesDisagree() {
+        LanguageVersion xml = LanguageRegistry.getLanguage(XmlLanguageModule.NAME).getDefaultVersion();
+        MyRule streaming = new MyRule();
+        streaming.setProperty(XmlParserOptions.STREAMING_DESCRIPTOR, true);
+        RuleSets ruleSets = new RuleSets(new RuleSetFactory().createNewRuleSet("test", "test", null,
+                new ArrayList<String>(), new ArrayList<String>(), Arrays.<Rule>asList(streaming, new MyRule())));
+
+        XmlParserOptions options = (XmlParserOptions) PMD.parserFor(xml, null, ruleSets).getParserOptions();
+        assertFalse(options.isStreaming());
+    }
+
+    @Test
+    public void testDomRuleRejectsStreaming() {
+        AbstractDomXmlRule rule = new AbstractDomXmlRule();
+        assertNull(rule.dysfunctionReason());
+        rule.setProperty(XmlParserOptions.STREAMING_DESCRIPTOR, true);
+        assertNotNull(rule.dysfunctionReason());
+    }
+
+    @Test
+    public void testStreamingRuleSet() throws Exception {
+        RuleSets ruleSets = new RuleSetFactory().createRuleSets("net/sourceforge/pmd/lang/xml/rulesets/streaming.xml");
+        RuleContext ctx = new RuleContext();
+        ctx.setLanguageVersion(LanguageRegistry.getLanguage(XmlLanguageModule.NAME).getDefaultVersion());
+        ctx.setSourceCodeFilename("test.xml");
+        Report report = new Report();
+        ctx.setReport(report);
+
+        new SourceCodeProcessor(new PMDConfiguration()).processSourceCode(new StringReader("<root><child/></root>"),
+                ruleSets, ctx);
+
+        List<String> messages = new ArrayList<>();
+        for (RuleViolation violation : report) {
+            messages.add(violation.getRule().getName() + ": " + violation.getDescription());
+        }
+        Collections.sort(messages);
+        assertEquals(Arrays.asList("NodeType: XmlStreamNode", "RootElement: Root element"), messages);
+    }
+
     private static final class MyRule extends AbstractXmlRule {
     }
 
+    /**
+     * Reports whether the root node was built by the streaming parser.
+     */
+    public static final class NodeTypeRule extends AbstractXmlRule {
+        @Override
+        public void apply(List<? extends Node> nodes, RuleContext ctx) {
+            for (Node node : nodes) {
+                addViolationWithMessage(ctx, node, node instanceof XmlStreamNode ? "XmlStreamNode" : "DOM");
+            }
+        }
+    }
+
     public static junit.framework.Test suite() {
         return new junit.framework.JUnit4TestAdapter(XmlParserOptionsTest.class);
     }
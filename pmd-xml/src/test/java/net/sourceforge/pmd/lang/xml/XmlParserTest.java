@@ -362,6 +362,94 @@ public class XmlParserTest {
         assertLineNumbers(document.jjtGetChild(0), 1, 22, 1, 29);
     }
 
+    /**
+     * Verifies that the streaming parser builds the same AST as the DOM
+     * parser, with the positions reported by the StAX parser.
+     */
+    @Test
+    public void testStreamingParsing() {
+        LanguageVersionHandler xmlVersionHandler = LanguageRegistry.getLanguage(XmlLanguageModule.NAME)
+                .getDefaultVersion().getLanguageVersionHandler();
+        XmlParserOptions parserOptions = new XmlParserOptions();
+        parserOptions.setStreaming(true);
+        Parser parser = xmlVersionHandler.getParser(parserOptions);
+        Node document = parser.parse(null, new StringReader(XML_TEST));
+
+        assertNode(document, "document", 2);
+        assertLineNumbers(document, 1, 1, 19, 14);
+        Node dtdElement = document.jjtGetChild(0);
+        assertNode(dtdElement, "rootElement", 0);
+        Node rootElement = document.jjtGetChild(1);
+        assertNode(rootElement, "rootElement", 7);
+        assertLineNumbers(rootElement, 11, 2, 19, 14);
+        assertTextNode(rootElement.jjtGetChild(0), "\\n    ");
+        assertNode(rootElement.jjtGetChild(1), "comment", 0);
+        assertTextNode(rootElement.jjtGetChild(2), "\\n    ");
+        Node child1 = rootElement.jjtGetChild(3);
+        assertNode(child1, "child1", 1, "test", "1");
+        // the columns after a text depend on how far the StAX parser read ahead
+        Assert.assertEquals(14, child1.getBeginLine());
+        Assert.assertEquals(15, child1.getEndLine());
+        assertTextNode(child1.jjtGetChild(0), "entity: Copyright: PMD\\n    ");
+        assertTextNode(rootElement.jjtGetChild(4), "\\n    ");
+        Node child2 = rootElement.jjtGetChild(5);
+        assertNode(child2, "child2", 3);
+        assertTextNode(child2.jjtGetChild(0), "\\n      ");
+        assertTextNode(child2.jjtGetChild(1), " cdata section ", "cdata-section");
+        assertTextNode(child2.jjtGetChild(2), "\\n    ");
+        assertTextNode(rootElement.jjtGetChild(6), "\\n");
+        Assert.assertSame(rootElement, child2.jjtGetParent());
+    }
+
+    /**
+     * Verifies the namespaces with the streaming parser.
+     */
+    @Test
+    public void testStreamingParsingNamespaces() {
+        LanguageVersionHandler xmlVersionHandler = LanguageRegistry.getLanguage(XmlLanguageModule.NAME)
+                .getDefaultVersion().getLanguageVersionHandler();
+        XmlParserOptions parserOptions = new XmlParserOptions();
+        parserOptions.setStreaming(true);
+        Parser parser = xmlVersionHandler.getParser(parserOptions);
+        Node document = parser.parse(null, new StringReader(XML_NAMESPACE_TEST));
+
+        assertNode(document, "document", 1);
+        Node rootElement = document.jjtGetChild(0);
+        assertNode(rootElement, "pmd:rootElement", 7, "xmlns:pmd", "http://pmd.sf.net");
+        Node child1 = rootElement.jjtGetChild(3);
+        assertNode(child1, "pmd:child1", 1, "test", "1");
+        assertTextNode(child1.jjtGetChild(0), "entity: &\\n    ");
+        Assert.assertNull("There's no DOM node", ((XmlNode) rootElement).getNode());
+    }
+
+    /**
+     * Verifies the text split by the StAX parser, and that the cached
+     * factories keep their options.
+     */
+    @Test
+    public void testStreamingParsingLongText() {
+        LanguageVersionHandler xmlVersionHandler = LanguageRegistry.getLanguage(XmlLanguageModule.NAME)
+                .getDefaultVersion().getLanguageVersionHandler();
+        StringBuilder xml = new StringBuilder("<pmd:root xmlns:pmd=\"http://pmd.sf.net\">");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            xml.append("a&amp;");
+            text.append("a&");
+        }
+        xml.append("</pmd:root>");
+
+        XmlParserOptions parserOptions = new XmlParserOptions();
+        parserOptions.setStreaming(true);
+        Node document = xmlVersionHandler.getParser(parserOptions).parse(null, new StringReader(xml.toString()));
+        assertNode(document.jjtGetChild(0), "pmd:root", 1, "xmlns:pmd", "http://pmd.sf.net");
+        Assert.assertEquals(text.toString(), document.jjtGetChild(0).jjtGetChild(0).getImage());
+
+        parserOptions.setNamespaceAware(false);
+        document = xmlVersionHandler.getParser(parserOptions).parse(null, new StringReader(xml.toString()));
+        assertNode(document.jjtGetChild(0), "pmd:root", 1, "xmlns:pmd", "http://pmd.sf.net");
+        Assert.assertEquals(text.toString(), document.jjtGetChild(0).jjtGetChild(0).getImage());
+    }
+
     private Node parseXml(String xml) {
         LanguageVersionHandler xmlVersionHandler = LanguageRegistry.getLanguage(XmlLanguageModule.NAME).getDefaultVersion().getLanguageVersionHandler();
         XmlParserOptions options = (XmlParserOptions) xmlVersionHandler.getDefaultParserOptions();